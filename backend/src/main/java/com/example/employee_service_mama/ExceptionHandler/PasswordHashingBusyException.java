@@ -0,0 +1,9 @@
+package com.example.employee_service_mama.ExceptionHandler;
+
+// Hashing pool full or queue wait too long → 503 with Retry-After (see GlobalExceptionHandler)
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.employee_service_mama.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // @Async("attendanceEventExecutor") — wallet accrual + cycle summary listeners
+    public static final String ATTENDANCE_EVENTS = "attendanceEventExecutor";
+
+    /**
+     * Attendance-change listeners get their own pool so a login burst cannot starve payslip jobs
+     * (or be starved by them). Never rejects: when the queue is full the publishing thread runs
+     * the listener itself, so a burst slows down instead of failing a login whose row is already committed.
+     */
+    @Bean(name = ATTENDANCE_EVENTS)
+    public ThreadPoolTaskExecutor attendanceEventExecutor(
+            @Value("${app.attendance.events.core-size:2}") int coreSize,
+            @Value("${app.attendance.events.max-size:4}") int maxSize,
+            @Value("${app.attendance.events.queue-capacity:2000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("attendance-events-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Boot backs off its own executor once any Executor bean exists → re-declared, still built from spring.task.execution (payslips)
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    @Primary
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
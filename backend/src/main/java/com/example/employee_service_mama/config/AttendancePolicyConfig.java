@@ -0,0 +1,31 @@
+package com.example.employee_service_mama.config;
+
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalTime;
+
+@Configuration
+public class AttendancePolicyConfig {
+
+    // Times are HH:mm (app.attendance.policy.* in application.yaml)
+    @Bean
+    public AttendancePolicy attendancePolicy(
+            @Value("${app.attendance.policy.login-start:09:00}") String loginStart,
+            @Value("${app.attendance.policy.full-present-limit:09:10}") String fullPresentLimit,
+            @Value("${app.attendance.policy.full-day-end:18:00}") String fullDayEnd,
+            @Value("${app.attendance.policy.auto-logout:18:30}") String autoLogout,
+            @Value("${app.attendance.policy.min-hours:5}") int minHours,
+            @Value("${app.attendance.policy.full-day-hours:9}") int fullDayHours
+    ) {
+        return new AttendancePolicy(
+                LocalTime.parse(loginStart),
+                LocalTime.parse(fullPresentLimit),
+                LocalTime.parse(fullDayEnd),
+                LocalTime.parse(autoLogout),
+                minHours,
+                fullDayHours);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.employee_service_mama.config;
+
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * Login's INSERT ... ON CONFLICT (user_id, date) needs uk_attendance_user_date, but Hibernate's
+ * ddl-auto update silently skips the constraint while duplicate rows exist.
+ *
+ * Runs after the schema update and before the web server starts: archives duplicates
+ * (attendance_duplicate_archive), adds the constraint, and refuses to start if it is still missing.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class AttendanceSchemaMigration {
+
+    private final AttendanceJdbcRepository attendanceJdbcRepository;
+
+    @PostConstruct
+    void ensureOneRowPerUserAndDay() {
+        int archived = attendanceJdbcRepository.ensureUserDateKey();
+        if (archived > 0) {
+            log.warn("⚠️ Moved {} duplicate attendance rows to attendance_duplicate_archive "
+                    + "and created uk_attendance_user_date", archived);
+        }
+        if (!attendanceJdbcRepository.hasUserDateKey()) {
+            throw new IllegalStateException("attendance.uk_attendance_user_date is missing — login cannot run without it");
+        }
+    }
+}
@@ -23,7 +23,7 @@ public class CorsConfig {
                                 "ws://localhost:8080")
                         .allowedMethods("*")
                         .allowedHeaders("Authorization", "Content-Type")
-                        .exposedHeaders("Authorization")
+                        .exposedHeaders("Authorization", "X-Total-Count")
                         .allowCredentials(true);
             }
         };
@@ -2,6 +2,7 @@ package com.example.employee_service_mama.config;
 
 
 import com.example.employee_service_mama.util.JwtFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,12 +13,16 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 public class SecurityConfig {
+
+    // Memory per Argon2 hash (KB) — PasswordHashingService sizes its pool from this
+    public static final int ARGON2_MEMORY_KB = 65536;   // 64MB
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         int saltLength = 16;   // 16 bytes
         int hashLength = 32;   // 32 bytes
         int parallelism = 1;   // currently recommended
-        int memory = 65536;    // 64MB
+        int memory = ARGON2_MEMORY_KB;
         int iterations = 3;    // recommended minimum
         return new Argon2PasswordEncoder(saltLength, hashLength, parallelism, memory, iterations);
     }
@@ -27,7 +32,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> {}) // 👈 VERY IMPORTANT: enable CORS for Spring Security
                 .authorizeHttpRequests(auth->
-                        auth.requestMatchers("/api/user/signin","/api/user/forgot-password","/api/user/reset-password","/api/attendance/login/{userId}","/api/user/add","/ws/**","/topic/**","/app/**","api/attendance/user/{userId}","/api/attendance/test/**").permitAll()
+                        // streamed (NDJSON) responses finish on an async dispatch — the original request was already authorized
+                        auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                                // rewrite history / rebuild derived tables → HR or admin only (must precede the /test/** permitAll)
+                                .requestMatchers("/api/attendance/test/reclassify","/api/attendance/test/rebuild-summary","/api/attendance/test/rebuild-daily-rollup","/api/attendance/test/leave-index/**").hasAnyRole("HR","ADMIN")
+                                .requestMatchers("/api/salary/accrual/catch-up").hasAnyRole("HR","ADMIN")
+                                .requestMatchers("/api/user/signin","/api/user/forgot-password","/api/user/reset-password","/api/attendance/login/{userId}","/api/user/add","/ws/**","/topic/**","/app/**","api/attendance/user/{userId}","/api/attendance/test/**").permitAll()
                                 .anyRequest().authenticated()). addFilterBefore(jwtfilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
@@ -1,13 +1,18 @@
 package com.example.employee_service_mama.controller;
 
+import com.example.employee_service_mama.dto.AttendanceCycleStatsDTO;
 import com.example.employee_service_mama.dto.AttendanceResponseDTO;
 import com.example.employee_service_mama.dto.AttendanceStatusUpdateDTO;
+import com.example.employee_service_mama.dto.CursorPage;
 import com.example.employee_service_mama.dto.WeeklyAttendanceDTO;
 import com.example.employee_service_mama.model.Attendance;
 import com.example.employee_service_mama.service.AttendanceService;
+import com.example.employee_service_mama.util.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,6 +33,7 @@ import java.util.Map;
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final ObjectMapper objectMapper;
 
     // OLD → Get ALL attendance (list)
     @GetMapping("/user/{userId}")
@@ -86,6 +92,19 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceService.late(userId));
     }
 
+    // All cycle counters (present / absent / half / late / paid / payroll days) in one call
+    @GetMapping("/stats/{userId}")
+    public ResponseEntity<AttendanceCycleStatsDTO> getCycleStats(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month,
+            @RequestParam(defaultValue = "false") boolean includeWeekly
+    ) {
+        return ResponseEntity.ok(
+                attendanceService.getCycleStats(userId, year, month, includeWeekly)
+        );
+    }
+
     // OLD → Login
     @PostMapping("/login/{userId}")
     public ResponseEntity<String> login(@PathVariable Integer userId) {
@@ -111,8 +130,9 @@ public class AttendanceController {
             @RequestParam Integer month
     ) {
         int totalDays = attendanceService.getTotalDaysOfPayrollMonth(year, month);
+        int workingDays = attendanceService.getWorkingDaysOfPayrollMonth(year, month);
 
-        return Map.of("totalPayrollDays", totalDays);
+        return Map.of("totalPayrollDays", totalDays, "workingDays", workingDays);
     }
     //weekly added by venkatasagar for clockin/clock out dashboard
     @GetMapping("/weekly/{userId}")
@@ -129,6 +149,23 @@ public class AttendanceController {
     ) {
         return ResponseEntity.ok(attendanceService.getFullAttendanceHistory(userId));
     }
+
+    // Paged history → ?cursor=<nextCursor from previous page>&size=50
+    @GetMapping("/full-history/{userId}/page")
+    public ResponseEntity<CursorPage<Attendance>> getFullAttendanceHistoryPage(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        return ResponseEntity.ok(attendanceService.getFullAttendanceHistoryPage(userId, cursor, size));
+    }
+
+    // Full history as NDJSON, streamed straight from the DB cursor
+    @GetMapping("/full-history/{userId}/stream")
+    public ResponseEntity<StreamingResponseBody> streamFullAttendanceHistory(@PathVariable Integer userId) {
+        return NdjsonResponses.<Attendance>of(objectMapper,
+                sink -> attendanceService.streamFullAttendanceHistory(userId, sink));
+    }
     @PutMapping("/updateStatus-bulk")  //this is for attendance repo update status.
     public ResponseEntity<String> updateBulkAttendanceStatus(
             @RequestBody List<AttendanceStatusUpdateDTO> updates
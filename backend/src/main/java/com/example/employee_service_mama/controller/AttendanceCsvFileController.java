@@ -1,11 +1,14 @@
 package com.example.employee_service_mama.controller;
 
+import com.example.employee_service_mama.dto.CsvIngestReport;
 import com.example.employee_service_mama.model.AttendanceCsvFile;
 import com.example.employee_service_mama.service.AttendanceCsvFileService;
+import com.example.employee_service_mama.service.AttendanceCsvIngestService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
@@ -25,12 +28,19 @@ import java.util.Map;
 )public class AttendanceCsvFileController {
 
     private final AttendanceCsvFileService service;
+    private final AttendanceCsvIngestService ingestService;
 
     @PostMapping("/save-bulk")
     public ResponseEntity<String> saveBulk(@RequestBody List<AttendanceCsvFile> records) {
         return ResponseEntity.ok(service.saveBulk(records));
     }
 
+    // Raw CSV upload (multipart "file") → streamed, validated, batch-inserted; returns per-row errors
+    @PostMapping("/upload")
+    public ResponseEntity<CsvIngestReport> upload(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(ingestService.ingest(file));
+    }
+
     @GetMapping("/all")
     public ResponseEntity<List<AttendanceCsvFile>> getAll() {
         return ResponseEntity.ok(service.getAll());
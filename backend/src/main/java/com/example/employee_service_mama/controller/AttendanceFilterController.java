@@ -4,20 +4,20 @@ package com.example.employee_service_mama.controller;
 
 import com.example.employee_service_mama.dto.AttendanceStatsDTO;
 import com.example.employee_service_mama.dto.AttendanceStatusUpdateDTO;
+import com.example.employee_service_mama.dto.CursorPage;
 import com.example.employee_service_mama.model.AttendanceCsvFile;
 import com.example.employee_service_mama.service.AttendanceFilterService;
+import com.example.employee_service_mama.service.DailyAttendanceRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 import java.util.List;
-import java.util.Map;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -33,29 +33,47 @@ import java.util.stream.Collectors;
         allowCredentials = "true"
 )public class AttendanceFilterController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final AttendanceFilterService service;
+    private final DailyAttendanceRollupService rollupService;
 
     @GetMapping("/user-filter/{userId}")//employee filter atendance
-    public List<AttendanceCsvFile> filterAttendance(
+    public ResponseEntity<List<AttendanceCsvFile>> filterAttendance(
             @PathVariable Integer userId,
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month,
-            @RequestParam(required = false) String date
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
     ) {
         LocalDate parsedDate = null;
         if (date != null && !date.isBlank()) {
             parsedDate = LocalDate.parse(date);
         }
 
-        return service.filterAttendance(userId, year, month, parsedDate);
+        return withTotal(service.filterAttendance(userId, year, month, parsedDate, pageOf(page, size)));
     }
     @GetMapping("/hr-filter")
-    public List<AttendanceCsvFile> filterAttendance(
+    public ResponseEntity<List<AttendanceCsvFile>> filterAttendance(
+            @RequestParam(required = false) Integer year,
             @RequestParam(required = false) String month,
-            @RequestParam(required = false) String date
+            @RequestParam(required = false) String date,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size
     ) {
-        System.out.println(month + " " + date);
-        return service.filterAttendance(month, date);
+        return withTotal(service.filterAttendance(year, month, date, pageOf(page, size)));
+    }
+
+    // No ?page → whole result (old behaviour); otherwise page/size with size capped
+    private Pageable pageOf(Integer page, Integer size) {
+        return page == null ? Pageable.unpaged() : PageRequest.of(Math.max(page, 0), CursorPage.clampSize(size));
+    }
+
+    private <T> ResponseEntity<List<T>> withTotal(Page<T> result) {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotalElements()))
+                .body(result.getContent());
     }
 
 
@@ -67,40 +85,15 @@ import java.util.stream.Collectors;
         return ResponseEntity.ok("Attendance updated successfully");
     }
 
+    // One row per day from daily_attendance_rollup → ?from=2025-11-24&to=2025-12-23 (both optional)
     @GetMapping("/daily-summary")
-    public List<AttendanceStatsDTO> getDailySummary() {
-
-        List<AttendanceCsvFile> all = service.getAll();
-
-        // Group by exact date
-        Map<String, List<AttendanceCsvFile>> grouped = all.stream()
-                .collect(Collectors.groupingBy(AttendanceCsvFile::getDate));
-
-        List<AttendanceStatsDTO> summary = new ArrayList<>();
-
-        grouped.forEach((date, list) -> {
-            long present = list.stream()
-                    .filter(a -> a.getStatus().equalsIgnoreCase("Present"))
-                    .count();
-
-            long absent = list.stream()
-                    .filter(a -> a.getStatus().equalsIgnoreCase("Absent"))
-                    .count();
-
-            summary.add(new AttendanceStatsDTO(date, present, absent));
-        });
-
-        // Sort using actual date object, not text
-        summary.sort(Comparator.comparing(s -> {
-            try {
-                return LocalDate.parse(s.getDate(),
-                        DateTimeFormatter.ofPattern("MM/dd/yyyy"));
-            } catch (Exception e) {
-                return LocalDate.MIN;
-            }
-        }));
-
-        return summary;
+    public List<AttendanceStatsDTO> getDailySummary(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        return rollupService.getDailySummary(
+                from != null && !from.isBlank() ? LocalDate.parse(from) : null,
+                to != null && !to.isBlank() ? LocalDate.parse(to) : null);
     }
 
 }
@@ -1,10 +1,18 @@
 package com.example.employee_service_mama.controller;
 
+import com.example.employee_service_mama.dto.BulkJobResult;
+import com.example.employee_service_mama.model.FinalizationRun;
 import com.example.employee_service_mama.service.AttendanceCsvFileService;
 import com.example.employee_service_mama.service.AttendanceService;
+import com.example.employee_service_mama.service.AttendanceSummaryService;
+import com.example.employee_service_mama.service.DailyAttendanceRollupService;
+import com.example.employee_service_mama.service.LeaveIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/attendance/test")
 @RequiredArgsConstructor
@@ -21,10 +29,18 @@ import org.springframework.web.bind.annotation.*;
 
     private final AttendanceService service;
     private final AttendanceCsvFileService service1;
+    private final AttendanceSummaryService summaryService;
+    private final DailyAttendanceRollupService rollupService;
+    private final LeaveIndex leaveIndex;
     @GetMapping("/finalize")
-    public String runFinalizeFromCsv() {
-        service1.finalizeDailyAttendanceFromCsv();
-        return "CSV Finalization executed manually";
+    public FinalizationRun runFinalizeFromCsv() {
+        return service1.finalizeDailyAttendanceFromCsv();
+    }
+
+    // 👉 Last 30 finalization runs (row counts, duration, outcome)
+    @GetMapping("/finalize/runs")
+    public List<FinalizationRun> recentFinalizationRuns() {
+        return service1.getRecentFinalizationRuns();
     }
 
     // 👉 Manually trigger 1:05 PM auto-absent logic
@@ -34,23 +50,47 @@ import org.springframework.web.bind.annotation.*;
         return "Weekend Marking executed manually";
     }
     @GetMapping("/autoAbsent")
-    public String runAutoAbsent() {
-        service.autoAbsentAfter1PM();
-        return "Auto Absent executed manually";
+    public BulkJobResult runAutoAbsent() {
+        return service.autoAbsentAfter1PM();
     }
 
     // 👉 Manually trigger 6:30 PM auto-logout logic
     @GetMapping("/autoLogout")
-    public String runAutoLogout() {
-        service.autoLogoutForForgotUsers();
-        return "Auto Logout executed manually";
+    public BulkJobResult runAutoLogout() {
+        return service.autoLogoutForForgotUsers();
     }
 
     // 👉 Manually trigger sandwich policy
     @GetMapping("/sandwich")
-    public String runSandwichPolicyFix() {
-        service.sandwichPolicyFix();
-        return "Sandwich Policy executed manually";
+    public BulkJobResult runSandwichPolicyFix() {
+        return service.applySandwichPolicy(LocalDate.now());
+    }
+
+    // 👉 Rebuild the materialized cycle summary for one payroll month (e.g. year=2025&month=12)
+    @GetMapping("/rebuild-summary")
+    public String rebuildCycleSummary(@RequestParam int year, @RequestParam int month) {
+        int rows = summaryService.rebuildCycle(year, month);
+        return "Cycle summary rebuilt for " + rows + " users";
     }
-}
 
+    // 👉 Rebuild daily_attendance_rollup from the whole attendance_records history
+    @GetMapping("/rebuild-daily-rollup")
+    public String rebuildDailyRollup() {
+        int days = rollupService.rebuildAll();
+        return "Daily rollup rebuilt for " + days + " days";
+    }
+
+    // 👉 Re-run the attendance rules over a date range (dryRun=true only counts changes)
+    @PostMapping("/reclassify")
+    public BulkJobResult reclassify(@RequestParam String from,
+                                   @RequestParam String to,
+                                   @RequestParam(defaultValue = "true") boolean dryRun) {
+        return service.reclassify(LocalDate.parse(from), LocalDate.parse(to), dryRun);
+    }
+
+    // 👉 Compare the in-memory approved-leave index with leave_request (rebuilds it on drift)
+    @GetMapping("/leave-index/check")
+    public LeaveIndex.CheckResult checkLeaveIndex() {
+        return leaveIndex.checkConsistency();
+    }
+}
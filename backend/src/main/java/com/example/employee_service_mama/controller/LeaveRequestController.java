@@ -75,8 +75,9 @@ public class LeaveRequestController {
     @GetMapping("/approved-days/{userId}")//leave api of myattendance
     public Map<String, Integer> getApprovedLeaveDays(@PathVariable Integer userId) {
         int days = leaveService.getApprovedLeaveDaysForCurrentCycle(userId);
+        int workingDays = leaveService.getApprovedLeaveWorkingDaysForCurrentCycle(userId);
 
-        return Map.of("approvedLeaveDays", days);
+        return Map.of("approvedLeaveDays", days, "approvedLeaveWorkingDays", workingDays);
     }
 
 }
@@ -1,14 +1,18 @@
 package com.example.employee_service_mama.controller;
 
+import com.example.employee_service_mama.dto.CursorPage;
 import com.example.employee_service_mama.dto.ForgotPasswordRequest;
 import com.example.employee_service_mama.dto.ResetPasswordRequest;
 import com.example.employee_service_mama.model.Users;
 import com.example.employee_service_mama.service.UserService;
 
+import com.example.employee_service_mama.util.NdjsonResponses;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -30,6 +34,7 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/signin")
     public ResponseEntity<?> signin(@RequestBody Map<String, String> map) {
@@ -65,6 +70,19 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    // Paged variant of /all → ?cursor=<nextCursor>&size=50
+    @GetMapping("/all/page")
+    public CursorPage<Users> getUsersPage(@RequestParam(required = false) Integer cursor,
+                                          @RequestParam(required = false) Integer size) {
+        return userService.getUsersPage(cursor, size);
+    }
+
+    // All users as NDJSON, one per line
+    @GetMapping("/all/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return NdjsonResponses.<Users>of(objectMapper, userService::streamAllUsers);
+    }
+
     @PutMapping("/hr/update/{id}")
     public Users updateEmployeeJob(@PathVariable Integer id, @RequestBody Users data) {
         return userService.updateEmployeeJobDetails(id, data);
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/salary")
@@ -87,17 +88,34 @@ public class WalletController {
         return walletService.filterWalletByUser(userId, year, month);
     }
     @GetMapping("/overview/current")//hr service salary management salary overview
-    public List<SalaryOverviewDTO> getCurrentMonthOverview() {
-        return walletService.getCurrentMonthOverview();
+    public List<SalaryOverviewDTO> getCurrentMonthOverview(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort   // asc / desc by net salary
+    ) {
+        return walletService.getCurrentMonthOverview(page, size, sort);
     }
 
     // 2️⃣ FILTER BY YEAR + MONTH
     @GetMapping("/overview")//hr servicesalary management filter
     public List<SalaryOverviewDTO> getFilteredOverview(
             @RequestParam int year,
-            @RequestParam int month
+            @RequestParam int month,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort   // asc / desc by net salary
+    ) {
+        return walletService.getSalaryOverview(year, month, page, size, sort);
+    }
+
+    // Re-applies attendance → earnings for a date range (idempotent)
+    @PostMapping("/accrual/catch-up")
+    public Map<String, Integer> catchUpAccruals(
+            @RequestParam String from,
+            @RequestParam String to
     ) {
-        return walletService.getSalaryOverview(year, month);
+        int changed = walletService.catchUpAccruals(LocalDate.parse(from), LocalDate.parse(to));
+        return Map.of("changedDays", changed);
     }
 
 }
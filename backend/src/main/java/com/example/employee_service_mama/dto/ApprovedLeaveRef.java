@@ -0,0 +1,11 @@
+package com.example.employee_service_mama.dto;
+
+import java.time.LocalDate;
+
+// (leave id, user id, start, end) of an approved leave — feeds the in-memory LeaveIndex
+public interface ApprovedLeaveRef {
+    Integer getId();
+    Integer getUserId();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+}
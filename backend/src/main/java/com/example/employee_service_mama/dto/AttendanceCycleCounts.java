@@ -0,0 +1,10 @@
+package com.example.employee_service_mama.dto;
+
+// Conditional-aggregation result: every cycle counter from one scan of attendance
+public interface AttendanceCycleCounts {
+    Long getPresentDays();
+    Long getAbsentDays();
+    Long getHalfDays();
+    Long getLateDays();
+    Double getPaidDays();
+}
@@ -0,0 +1,26 @@
+package com.example.employee_service_mama.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AttendanceCycleStatsDTO {
+
+    private Integer userId;
+    private LocalDate cycleStart;
+    private LocalDate cycleEnd;
+
+    private long presentDays;        // PRESENT + WEEKEND + HOLIDAY
+    private long absentDays;
+    private long halfDays;
+    private long lateDays;
+    private double paidDays;         // weighted (ex: 21.5)
+    private int totalPayrollDays;
+    private int workingDays;         // Mon–Fri minus holidays in the cycle
+
+    private List<WeeklyAttendanceDTO> weekly;   // only when includeWeekly=true
+}
@@ -0,0 +1,13 @@
+package com.example.employee_service_mama.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Minimal attendance projection used by the wallet accrual engine
+public interface AttendanceDayView {
+    Integer getUserId();
+    LocalDate getDate();
+    String getStatus();
+    LocalTime getLoginTime();
+    LocalTime getLogoutTime();
+}
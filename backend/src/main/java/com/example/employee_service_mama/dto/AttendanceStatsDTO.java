@@ -9,4 +9,6 @@ public class AttendanceStatsDTO {
     private String date;
     private long present;
     private long absent;
+    private long leave;
+    private long halfDay;
 }
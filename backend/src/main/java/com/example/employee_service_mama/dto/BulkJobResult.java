@@ -0,0 +1,16 @@
+package com.example.employee_service_mama.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BulkJobResult {
+    private String job;
+    private LocalDate date;
+    private int scanned;      // rows selected by the job
+    private int written;      // rows actually inserted / updated
+    private long elapsedMs;
+}
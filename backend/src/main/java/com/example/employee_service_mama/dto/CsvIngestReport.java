@@ -0,0 +1,28 @@
+package com.example.employee_service_mama.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class CsvIngestReport {
+    private String date;
+    private int totalRows;        // non-blank data rows in the file
+    private int imported;         // rows written from the sheet
+    private int absenteesAdded;   // employees missing from the sheet, recorded ABSENT
+    private int rejected;         // rows that failed validation (errors holds the first 1000)
+    private List<RowError> errors = new ArrayList<>();
+    private long elapsedMs;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;        // 1-based line in the file, header = 1
+        private String empid;
+        private String message;
+    }
+}
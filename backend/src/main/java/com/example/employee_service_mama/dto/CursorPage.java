@@ -0,0 +1,23 @@
+package com.example.employee_service_mama.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Keyset page: pass nextCursor back as ?cursor= to continue, null when exhausted
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> items;
+    private String nextCursor;
+
+    public static int clampSize(Integer size) {
+        if (size == null || size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+}
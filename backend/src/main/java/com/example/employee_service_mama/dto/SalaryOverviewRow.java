@@ -0,0 +1,13 @@
+package com.example.employee_service_mama.dto;
+
+// One row of the aggregated payroll overview query (salary ⨝ users ⨝ attendance)
+public interface SalaryOverviewRow {
+    String getEmpid();
+    String getFullName();
+    String getDepartment();
+    Double getMonthlySalary();
+    Double getDeduction();
+    Double getPaidDays();
+    Double getEarnedSalary();
+    Double getNetSalary();
+}
@@ -0,0 +1,7 @@
+package com.example.employee_service_mama.dto;
+
+// Lightweight (id, empid) projection used by the bulk attendance jobs
+public interface UserRef {
+    Integer getId();
+    String getEmpid();
+}
@@ -0,0 +1,7 @@
+package com.example.employee_service_mama.dto;
+
+// (id, role) projection for the in-memory role index
+public interface UserRoleRef {
+    Integer getId();
+    String getRole();
+}
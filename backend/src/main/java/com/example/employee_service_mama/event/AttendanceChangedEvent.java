@@ -0,0 +1,22 @@
+package com.example.employee_service_mama.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever attendance rows are inserted or updated.
+ * userId == null means "any user on that date" (bulk jobs, CSV finalization).
+ */
+public record AttendanceChangedEvent(Integer userId, LocalDate date) {
+
+    public static AttendanceChangedEvent forUser(Integer userId, LocalDate date) {
+        return new AttendanceChangedEvent(userId, date);
+    }
+
+    public static AttendanceChangedEvent forDate(LocalDate date) {
+        return new AttendanceChangedEvent(null, date);
+    }
+
+    public boolean isBulk() {
+        return userId == null;
+    }
+}
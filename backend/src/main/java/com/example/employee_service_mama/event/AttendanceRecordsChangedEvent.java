@@ -0,0 +1,10 @@
+package com.example.employee_service_mama.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published when attendance_records (the CSV/standup sheet) changes for a day:
+ * CSV uploads, HR bulk edits, single status updates.
+ */
+public record AttendanceRecordsChangedEvent(LocalDate date) {
+}
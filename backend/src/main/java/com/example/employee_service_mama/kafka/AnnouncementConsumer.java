@@ -1,42 +1,54 @@
 package com.example.employee_service_mama.kafka;
 
-import com.example.employee_service_mama.model.Users;
-import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.config.KafkaConsumerConfig;
+import com.example.employee_service_mama.service.UserRoleIndex;
 import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnnouncementConsumer {
 
-    private final WebSocketService webSocketService;
-    private final UserRepository userRepository;
-    private final ObjectMapper mapper = new ObjectMapper();
-
-    @KafkaListener(topics = "employee_service.public.announcement", groupId = "employee_group")
-    public void consume(String message) throws Exception {
+    public static final String TOPIC_ALL = "/topic/announcement/all";
+    public static final String TOPIC_ROLE = "/topic/announcement/role/";
 
-        JsonNode root = mapper.readTree(message);
-        JsonNode after = root.path("payload").path("after");
-        if (after.isMissingNode() || after.isNull()) return;
+    private final WebSocketService webSocketService;
+    private final UserRoleIndex userRoleIndex;
+    private final CdcEnvelopeParser cdcParser;
+
+    // One broker publish per announcement: clients subscribe to /all and to /role/{their role}
+    @KafkaListener(topics = "employee_service.public.announcement", groupId = "employee_group",
+            containerFactory = KafkaConsumerConfig.BATCH_FACTORY,
+            concurrency = "${app.kafka.concurrency.announcement:1}")
+    public void consume(List<String> messages) {
+        for (String message : messages) {
+            try {
+                publish(message);
+            } catch (Exception e) {
+                log.warn("Skipping unreadable announcement event: {}", e.getMessage());
+            }
+        }
+    }
 
-        String targetRole = after.path("target_role").asText("");
+    private void publish(String message) throws Exception {
+        CdcEvent event = cdcParser.parse(message);
+        CdcRow after = event.after();
+        if (after == null) return;
 
-        for (Users user : userRepository.findAll()) {
-            if (targetRole.equalsIgnoreCase("all")
-                    || targetRole.equalsIgnoreCase("all users")
-                    || user.getRole().equalsIgnoreCase(targetRole)) {
+        String targetRole = UserRoleIndex.normalize(after.targetRole());
 
-                webSocketService.sendMessage(
-                        "/topic/announcement/" + user.getId(),
-                        after.toString()
-                );
-                System.out.println("📢 Sent to User ID: " + user.getId());
-            }
+        if (targetRole.isEmpty() || targetRole.equals("all") || targetRole.equals("all users")) {
+            webSocketService.sendMessage(TOPIC_ALL, event.afterJson());
+            log.debug("Announcement sent to all ({} users)", userRoleIndex.totalUsers());
+        } else {
+            webSocketService.sendMessage(TOPIC_ROLE + targetRole, event.afterJson());
+            log.debug("Announcement sent to role {} ({} users)", targetRole, userRoleIndex.countInRole(targetRole));
         }
     }
 }
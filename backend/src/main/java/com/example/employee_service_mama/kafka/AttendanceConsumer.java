@@ -1,40 +1,23 @@
 package com.example.employee_service_mama.kafka;
 
-
-import com.example.employee_service_mama.model.Users;
-import com.example.employee_service_mama.repository.UserRepository;
-import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.employee_service_mama.config.KafkaConsumerConfig;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.UUID;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AttendanceConsumer {
 
-    private final WebSocketService webSocketService;
-    private final UserRepository userRepository;
-
-    @KafkaListener(topics = "employee_service.public.attendance", groupId = "employee_group")
-    public void consume(String message) throws Exception {
-        JsonNode after = new ObjectMapper().readTree(message).get("after");
-
-        if (after != null) {
-            // Extract user_id (foreign key UUID) from Debezium JSON
-           Integer userId = after.get("user_id").asInt();
+    private final UserTopicPublisher userTopicPublisher;
 
-            // Fetch the user from DB to ensure it exists
-            Optional<Users> userOpt = userRepository.findById(userId);
-
-            userOpt.ifPresent(user ->
-                    webSocketService.sendMessage("/topic/attendance/" + userId, message)
-            );
-        }
+    // Batch listener: one user lookup per poll instead of one per record
+    @KafkaListener(topics = "employee_service.public.attendance", groupId = "employee_group",
+            containerFactory = KafkaConsumerConfig.BATCH_FACTORY,
+            concurrency = "${app.kafka.concurrency.attendance:1}")
+    public void consume(List<String> messages) {
+        userTopicPublisher.publish(messages, "/topic/attendance/");
     }
 }
-
@@ -0,0 +1,113 @@
+package com.example.employee_service_mama.kafka;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Streaming decoder for Debezium messages, shared by all CDC consumers.
+ *
+ * Walks the tokens once with the application's JsonFactory — no JsonNode tree, no per-message
+ * ObjectMapper. Only op, before / after and the columns in {@link CdcRow} are read; everything
+ * else (the schema block in particular) is skipped.
+ */
+@Component
+public class CdcEnvelopeParser {
+
+    private final JsonFactory jsonFactory;
+
+    public CdcEnvelopeParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public CdcEvent parse(String message) throws IOException {
+        if (message == null || message.isEmpty()) return CdcEvent.EMPTY;   // tombstone
+
+        try (JsonParser p = jsonFactory.createParser(message)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) return CdcEvent.EMPTY;
+            Envelope env = new Envelope();
+            readEnvelope(p, message, env, false);
+            return new CdcEvent(env.op, env.before, env.after, env.afterJson);
+        }
+    }
+
+    private static final class Envelope {
+        String op;
+        CdcRow before;
+        CdcRow after;
+        String afterJson;
+    }
+
+    // Positioned just inside an object; reads until its END_OBJECT
+    private void readEnvelope(JsonParser p, String message, Envelope env, boolean inPayload) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "payload" -> {
+                    if (value == JsonToken.START_OBJECT && !inPayload) {
+                        readEnvelope(p, message, env, true);
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                case "op" -> env.op = value == JsonToken.VALUE_NULL ? null : p.getText();
+                case "before" -> env.before = value == JsonToken.START_OBJECT ? readRow(p) : null;
+                case "after" -> {
+                    if (value == JsonToken.START_OBJECT) {
+                        int start = (int) p.currentTokenLocation().getCharOffset();
+                        env.after = readRow(p);
+                        int end = (int) p.currentLocation().getCharOffset();
+                        env.afterJson = message.substring(start, end);
+                    } else {
+                        env.after = null;
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+    }
+
+    private CdcRow readRow(JsonParser p) throws IOException {
+        Integer id = null;
+        Integer userId = null;
+        String role = null;
+        String targetRole = null;
+        String status = null;
+        LocalDate startDate = null;
+        LocalDate endDate = null;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                p.skipChildren();
+                continue;
+            }
+            if (value == JsonToken.VALUE_NULL) continue;
+            switch (field) {
+                case "id" -> id = p.getValueAsInt();
+                case "user_id" -> userId = p.getValueAsInt();
+                case "role" -> role = p.getText();
+                case "target_role" -> targetRole = p.getText();
+                case "status" -> status = p.getText();
+                case "start_date" -> startDate = readDate(p, value);
+                case "end_date" -> endDate = readDate(p, value);
+                default -> { }
+            }
+        }
+        return new CdcRow(id, userId, role, targetRole, status, startDate, endDate);
+    }
+
+    // Debezium encodes DATE as days since epoch; ISO text is accepted too (SMTs / custom converters)
+    private static LocalDate readDate(JsonParser p, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NUMBER_INT
+                ? LocalDate.ofEpochDay(p.getLongValue())
+                : LocalDate.parse(p.getText());
+    }
+}
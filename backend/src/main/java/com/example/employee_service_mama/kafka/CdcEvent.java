@@ -0,0 +1,23 @@
+package com.example.employee_service_mama.kafka;
+
+/**
+ * One decoded Debezium change event, whichever envelope it came in
+ * (plain {before, after, op} or {schema, payload: {before, after, op}}).
+ *
+ * afterJson is the raw text of the "after" object, cut out of the message as-is,
+ * for consumers that forward the row to the browser.
+ */
+public record CdcEvent(String op, CdcRow before, CdcRow after, String afterJson) {
+
+    public static final CdcEvent EMPTY = new CdcEvent(null, null, null, null);
+
+    public boolean isDelete() {
+        return "d".equals(op) || (after == null && before != null);
+    }
+
+    // Id of the affected row, from after or (for deletes) before
+    public Integer rowId() {
+        if (after != null && after.id() != null) return after.id();
+        return before == null ? null : before.id();
+    }
+}
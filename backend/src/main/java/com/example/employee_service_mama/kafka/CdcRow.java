@@ -0,0 +1,17 @@
+package com.example.employee_service_mama.kafka;
+
+import java.time.LocalDate;
+
+/**
+ * The handful of row columns the consumers act on. Columns a table doesn't have stay null.
+ */
+public record CdcRow(
+        Integer id,
+        Integer userId,        // user_id
+        String role,           // users.role
+        String targetRole,     // announcement.target_role
+        String status,         // leave_request.status
+        LocalDate startDate,   // leave_request.start_date
+        LocalDate endDate      // leave_request.end_date
+) {
+}
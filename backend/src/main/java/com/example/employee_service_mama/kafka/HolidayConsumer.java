@@ -1,30 +1,33 @@
 package com.example.employee_service_mama.kafka;
 
-import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.service.HolidayCalendar;
+import com.example.employee_service_mama.service.UserIdRegistry;
 import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 @RequiredArgsConstructor
 public class HolidayConsumer {
 
     private final WebSocketService webSocketService;
-    private final UserRepository userRepository;
+    private final UserIdRegistry userIdRegistry;
+    private final HolidayCalendar holidayCalendar;
+    private final CdcEnvelopeParser cdcParser;
 
-    @KafkaListener(topics = "employee_service.public.holiday", groupId = "employee_group")
+    @KafkaListener(topics = "employee_service.public.holiday", groupId = "employee_group",
+            concurrency = "${app.kafka.concurrency.holiday:1}")
     public void consume(String message) throws Exception {
-        JsonNode after = new ObjectMapper().readTree(message).get("after");
-        if (after != null) {
-            Integer userId =after.get("user_id").asInt();
-            userRepository.findById(userId).ifPresent(user ->
-                    webSocketService.sendMessage("/topic/holiday/" + userId, message)
-            );
+        // Any insert / update / delete on holiday → rebuild and swap the in-memory calendar first
+        holidayCalendar.reload();
+
+        CdcRow after = cdcParser.parse(message).after();
+        if (after != null && after.userId() != null) {
+            Integer userId = after.userId();
+            if (userIdRegistry.exists(userId)) {
+                webSocketService.sendMessage("/topic/holiday/" + userId, message);
+            }
         }
     }
 }
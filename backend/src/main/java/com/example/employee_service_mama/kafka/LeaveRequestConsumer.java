@@ -1,8 +1,8 @@
 package com.example.employee_service_mama.kafka;
 
+import com.example.employee_service_mama.service.LeaveIndex;
+import com.example.employee_service_mama.service.UserIdRegistry;
 import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
@@ -12,19 +12,33 @@ import org.springframework.stereotype.Service;
 public class LeaveRequestConsumer {
 
     private final WebSocketService webSocketService;
+    private final LeaveIndex leaveIndex;
+    private final UserIdRegistry userIdRegistry;
+    private final CdcEnvelopeParser cdcParser;
 
-    @KafkaListener(topics = "employee_service.public.leave_request", groupId = "employee_group")
+    @KafkaListener(topics = "employee_service.public.leave_request", groupId = "employee_group",
+            concurrency = "${app.kafka.concurrency.leave-request:1}")
     public void consume(String message) throws Exception {
         System.out.println(" Kafka Message Received (Leave Request): " + message);
 
-        JsonNode payload = new ObjectMapper().readTree(message).get("payload");
-        if (payload != null) {
-            JsonNode after = payload.get("after");
-            if (after != null && !after.isNull()) {
-                Integer userId = after.get("user_id").asInt();
-                // Send only the 'after' object to frontend
-                webSocketService.sendMessage("/topic/leave_request/" + userId, after.toString());
-            }
+        CdcEvent event = cdcParser.parse(message);
+        updateLeaveIndex(event);
+
+        CdcRow after = event.after();
+        if (after != null && userIdRegistry.exists(after.userId())) {
+            // Send only the 'after' object to frontend
+            webSocketService.sendMessage("/topic/leave_request/" + after.userId(), event.afterJson());
+        }
+    }
+
+    // Keep the in-memory approved-leave index in step with the table
+    private void updateLeaveIndex(CdcEvent event) {
+        if (event.isDelete()) {
+            leaveIndex.remove(event.rowId());
+            return;
         }
+        CdcRow after = event.after();
+        if (after == null || after.id() == null) return;
+        leaveIndex.apply(after.id(), after.userId(), after.status(), after.startDate(), after.endDate());
     }
 }
@@ -1,31 +1,46 @@
 package com.example.employee_service_mama.kafka;
 
 
-import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.service.UserDirectory;
+import com.example.employee_service_mama.service.UserIdRegistry;
+import com.example.employee_service_mama.service.UserRoleIndex;
 import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 @RequiredArgsConstructor
 public class UserConsumer {
 
     private final WebSocketService webSocketService;
-    private final UserRepository userRepository;
+    private final UserIdRegistry userIdRegistry;
+    private final UserDirectory userDirectory;
+    private final UserRoleIndex userRoleIndex;
+    private final CdcEnvelopeParser cdcParser;
 
-    @KafkaListener(topics = "employee_service.public.users", groupId = "employee_group")
+    @KafkaListener(topics = "employee_service.public.users", groupId = "employee_group",
+            concurrency = "${app.kafka.concurrency.users:1}")
     public void consume(String message) throws Exception {
-        JsonNode after = new ObjectMapper().readTree(message).get("after");
-        if (after != null) {
-            Integer userId = after.get("id").asInt(); // Users.id
-            userRepository.findById(userId).ifPresent(user ->
-                    webSocketService.sendMessage("/topic/users/" + userId, message)
-            );
+        CdcEvent event = cdcParser.parse(message);
+
+        // Drop the cached empid on update / delete (delete events only carry "before")
+        if (event.before() != null) {
+            userDirectory.evict(event.before().id());
+        }
+        if (event.isDelete()) {
+            userRoleIndex.remove(event.rowId());
+            userIdRegistry.remove(event.rowId());
+            return;
+        }
+
+        CdcRow after = event.after();
+        if (after != null && after.id() != null) {
+            Integer userId = after.id(); // Users.id
+            userDirectory.evict(userId);
+            userRoleIndex.put(userId, after.role());
+            userIdRegistry.add(userId);  // the event itself proves the row exists
+            webSocketService.sendMessage("/topic/users/" + userId, message);
         }
     }
 }
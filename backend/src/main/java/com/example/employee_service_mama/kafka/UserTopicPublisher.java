@@ -0,0 +1,40 @@
+package com.example.employee_service_mama.kafka;
+
+import com.example.employee_service_mama.service.UserIdRegistry;
+import com.example.employee_service_mama.service.WebSocketService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Shared body of the per-user push consumers (attendance, salary, performance review):
+ * takes a poll's worth of CDC messages, checks each referenced user against the in-memory
+ * UserIdRegistry, then pushes each message to {destinationPrefix}{user_id} in the original order.
+ * A bad message is logged and skipped — it must not make Kafka redeliver the whole batch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserTopicPublisher {
+
+    private final WebSocketService webSocketService;
+    private final UserIdRegistry userIdRegistry;
+    private final CdcEnvelopeParser cdcParser;
+
+    public void publish(List<String> messages, String destinationPrefix) {
+        for (String message : messages) {
+            CdcRow after;
+            try {
+                after = cdcParser.parse(message).after();
+            } catch (Exception e) {
+                log.warn("Skipping unreadable CDC message for {}: {}", destinationPrefix, e.getMessage());
+                continue;
+            }
+            if (after != null && userIdRegistry.exists(after.userId())) {
+                webSocketService.sendMessage(destinationPrefix + after.userId(), message);
+            }
+        }
+    }
+}
@@ -1,32 +1,23 @@
 package com.example.employee_service_mama.kafka;
 
-import com.example.employee_service_mama.model.Users;
-import com.example.employee_service_mama.repository.UserRepository;
-import com.example.employee_service_mama.service.WebSocketService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.employee_service_mama.config.KafkaConsumerConfig;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class WalletConsumer {
 
-    private final WebSocketService webSocketService;
-    private final UserRepository userRepository;
+    private final UserTopicPublisher userTopicPublisher;
 
-    @KafkaListener(topics = "employee_service.public.salary", groupId = "employee_group")
-    public void consume(String message) throws Exception {
-        JsonNode after = new ObjectMapper().readTree(message).get("after");
-        if (after != null) {
-            Integer userId = after.get("user_id").asInt();
-            Optional<Users> userOpt = userRepository.findById(userId);
-            userOpt.ifPresent(user ->
-                    webSocketService.sendMessage("/topic/salary/" + userId, message)
-            );
-        }
+    // Batch listener: one user lookup per poll instead of one per record
+    @KafkaListener(topics = "employee_service.public.salary", groupId = "employee_group",
+            containerFactory = KafkaConsumerConfig.BATCH_FACTORY,
+            concurrency = "${app.kafka.concurrency.salary:1}")
+    public void consume(List<String> messages) {
+        userTopicPublisher.publish(messages, "/topic/salary/");
     }
 }
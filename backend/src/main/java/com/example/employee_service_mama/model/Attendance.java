@@ -7,7 +7,10 @@ import java.time.*;
 import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "attendance")
+@Table(
+        name = "attendance",
+        uniqueConstraints = @UniqueConstraint(name = "uk_attendance_user_date", columnNames = {"user_id", "date"})
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
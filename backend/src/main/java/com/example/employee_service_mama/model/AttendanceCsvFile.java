@@ -4,9 +4,17 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @Entity
-@Table(name = "attendance_records")
+@Table(
+        name = "attendance_records",
+        indexes = {
+                @Index(name = "idx_attendance_records_empid_date", columnList = "empid, record_date"),
+                @Index(name = "idx_attendance_records_record_date", columnList = "record_date")
+        }
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,6 +34,14 @@ public class AttendanceCsvFile {
     @Column(name = "date")
     private String date;//changed now String to LocalDate
 
+    // typed copy of `date` used for range queries — kept in sync on every write
+    @Column(name = "record_date")
+    private LocalDate recordDate;
+
+    // true = `date` is set but not a valid date (never gets a record_date, skipped by the backfill)
+    @Column(name = "date_unparseable")
+    private Boolean dateUnparseable;
+
     @Column(name = "domain")
     private String domain;
 
@@ -35,4 +51,24 @@ public class AttendanceCsvFile {
 
     @Column(name = "status")
     private String status; // Present / Absent
+
+    private static final DateTimeFormatter LEGACY_FORMAT = DateTimeFormatter.ofPattern("M/d/yyyy");
+
+    @PrePersist
+    @PreUpdate
+    protected void syncRecordDate() {
+        this.recordDate = parseDate(this.date);
+        this.dateUnparseable = this.recordDate == null && this.date != null ? Boolean.TRUE : null;
+    }
+
+    // CSV uploads sent MM/dd/yyyy before the frontend switched to ISO; accept both
+    public static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            return v.contains("/") ? LocalDate.parse(v, LEGACY_FORMAT) : LocalDate.parse(v);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.employee_service_mama.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Materialized per-user counters for one payroll cycle (24th → 23rd).
+ * Maintained by AttendanceSummaryService whenever attendance changes.
+ */
+@Entity
+@Table(
+        name = "attendance_cycle_summary",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "cycle_start"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AttendanceCycleSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "cycle_start", nullable = false)
+    private LocalDate cycleStart;
+
+    @Column(name = "cycle_end", nullable = false)
+    private LocalDate cycleEnd;
+
+    @Column(name = "present_days", nullable = false)
+    private Integer presentDays;     // PRESENT + WEEKEND + HOLIDAY
+
+    @Column(name = "absent_days", nullable = false)
+    private Integer absentDays;
+
+    @Column(name = "half_days", nullable = false)
+    private Integer halfDays;
+
+    @Column(name = "late_days", nullable = false)
+    private Integer lateDays;
+
+    @Column(name = "paid_days_weighted", nullable = false)
+    private Double paidDaysWeighted; // PRESENT/WEEKEND = 1, HALF_DAY = 0.5
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.example.employee_service_mama.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One row per day of attendance_records, with status counts.
+ * Maintained by DailyAttendanceRollupService; backs /api/attendance/daily-summary.
+ */
+@Entity
+@Table(name = "daily_attendance_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyAttendanceRollup {
+
+    @Id
+    @Column(name = "date")
+    private LocalDate date;
+
+    @Column(name = "present_count", nullable = false)
+    private Long presentCount;
+
+    @Column(name = "absent_count", nullable = false)
+    private Long absentCount;
+
+    @Column(name = "leave_count", nullable = false)
+    private Long leaveCount;
+
+    @Column(name = "half_day_count", nullable = false)
+    private Long halfDayCount;
+
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+}
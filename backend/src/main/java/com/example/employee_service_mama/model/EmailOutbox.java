@@ -0,0 +1,61 @@
+package com.example.employee_service_mama.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/**
+ * One queued email. Request threads only insert here; EmailOutboxDispatcher claims,
+ * sends and retries rows in the background.
+ */
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "to_address", nullable = false)
+    private String toAddress;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "html_body", columnDefinition = "TEXT", nullable = false)
+    private String htmlBody;
+
+    @Column(nullable = false)
+    private String status;           // PENDING / SENDING / SENT / FAILED
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private OffsetDateTime claimedAt;
+
+    @Column(name = "sent_at")
+    private OffsetDateTime sentAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = OffsetDateTime.now();
+        if (this.nextAttemptAt == null) this.nextAttemptAt = this.createdAt;
+        if (this.status == null) this.status = "PENDING";
+    }
+}
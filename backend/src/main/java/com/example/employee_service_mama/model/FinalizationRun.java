@@ -0,0 +1,47 @@
+package com.example.employee_service_mama.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * One execution of the 18:40 CSV finalization: what it read, what it wrote, how long it took.
+ */
+@Entity
+@Table(name = "attendance_finalization_run")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FinalizationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    @Column(name = "matched_rows")
+    private Integer matchedRows;     // CSV rows joined to a user
+
+    @Column(name = "updated_rows")
+    private Integer updatedRows;     // existing attendance rows updated
+
+    @Column(name = "inserted_rows")
+    private Integer insertedRows;    // attendance rows created
+
+    @Column(nullable = false)
+    private String outcome;          // SUCCESS / NO_CSV / FAILED
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+}
@@ -0,0 +1,50 @@
+package com.example.employee_service_mama.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Ledger of what has been credited to a salary row for one (user, date).
+ * Accrual applies only the difference against this row, which keeps it idempotent.
+ */
+@Entity
+@Table(
+        name = "salary_accrual",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "date"})
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WalletAccrual {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Integer walletId;
+
+    private String status;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+}
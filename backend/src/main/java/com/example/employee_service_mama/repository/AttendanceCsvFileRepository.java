@@ -1,10 +1,13 @@
 package com.example.employee_service_mama.repository;
 
 import com.example.employee_service_mama.model.AttendanceCsvFile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +25,25 @@ public interface AttendanceCsvFileRepository extends JpaRepository<AttendanceCsv
             @Param("date") String date
     );
 
+    // Range queries on the typed record_date column (served by the record_date / (empid, record_date) indexes)
+    @Query("""
+            SELECT a FROM AttendanceCsvFile a
+            WHERE a.recordDate BETWEEN :from AND :to
+            ORDER BY a.recordDate, a.employeeId
+            """)
+    Page<AttendanceCsvFile> findInRange(@Param("from") LocalDate from,
+                                        @Param("to") LocalDate to,
+                                        Pageable pageable);
+
+    @Query("""
+            SELECT a FROM AttendanceCsvFile a
+            WHERE a.employeeId = :employeeId
+              AND a.recordDate BETWEEN :from AND :to
+            ORDER BY a.recordDate
+            """)
+    Page<AttendanceCsvFile> findInRangeForEmployee(@Param("employeeId") String employeeId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to,
+                                                   Pageable pageable);
+
 }
@@ -0,0 +1,387 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.dto.UserRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Set-based writes for the scheduled attendance jobs.
+ * Uses plain JDBC batches because Attendance ids are IDENTITY,
+ * which disables Hibernate insert batching.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Guarded insert → running the same job twice never creates duplicates
+    private static final String INSERT_IF_MISSING = """
+            INSERT INTO attendance (user_id, empid, date, status, remarks, created_at)
+            SELECT ?, ?, ?, ?, ?, now()
+            WHERE NOT EXISTS (
+                SELECT 1 FROM attendance WHERE user_id = ? AND date = ?
+            )
+            """;
+
+    // Login: the (user_id, date) unique key makes a second login on any replica a no-op
+    private static final String INSERT_LOGIN = """
+            INSERT INTO attendance (user_id, empid, date, login_time, status, remarks, created_at)
+            VALUES (?, ?, ?, ?, 'PRESENT', 'Login Recorded', now())
+            ON CONFLICT (user_id, date) DO NOTHING
+            """;
+
+    // ---- uk_attendance_user_date (see AttendanceSchemaMigration) ----
+
+    private static final String LOCK_USER_DATE_KEY =
+            "SELECT pg_advisory_xact_lock(hashtext('uk_attendance_user_date'))";
+
+    private static final String HAS_USER_DATE_KEY = """
+            SELECT EXISTS (
+                SELECT 1 FROM pg_constraint
+                WHERE conname = 'uk_attendance_user_date' AND conrelid = 'attendance'::regclass
+            )
+            """;
+
+    private static final String CREATE_DUPLICATE_ARCHIVE =
+            "CREATE TABLE IF NOT EXISTS attendance_duplicate_archive (LIKE attendance)";
+
+    // Per (user, date) keep the earliest login (then lowest id); the rest move to the archive table
+    private static final String ARCHIVE_DUPLICATE_DAYS = """
+            WITH ranked AS (
+                SELECT id, ROW_NUMBER() OVER (PARTITION BY user_id, date ORDER BY login_time NULLS LAST, id) AS rn
+                FROM attendance
+            ), moved AS (
+                DELETE FROM attendance a USING ranked r
+                WHERE a.id = r.id AND r.rn > 1
+                RETURNING a.*
+            )
+            INSERT INTO attendance_duplicate_archive SELECT * FROM moved
+            """;
+
+    private static final String ADD_USER_DATE_KEY =
+            "ALTER TABLE attendance ADD CONSTRAINT uk_attendance_user_date UNIQUE (user_id, date)";
+
+    private static final String SELECT_OPEN_SESSIONS = """
+            SELECT id, login_time
+            FROM attendance
+            WHERE date = ?
+              AND login_time IS NOT NULL
+              AND logout_time IS NULL
+            """;
+
+    // logout_time IS NULL guard → a user who logs out meanwhile is not overwritten
+    private static final String CLOSE_SESSION = """
+            UPDATE attendance
+            SET logout_time = ?, status = ?, remarks = ?, updated_at = now()
+            WHERE id = ? AND logout_time IS NULL
+            """;
+
+    // Single-statement upsert: update the row if it exists, otherwise insert it
+    private static final String UPSERT_STATUS = """
+            WITH updated AS (
+                UPDATE attendance
+                SET status = ?, remarks = ?, updated_at = now()
+                WHERE user_id = ? AND date = ?
+                RETURNING id
+            )
+            INSERT INTO attendance (user_id, empid, date, status, remarks, created_at)
+            SELECT ?, ?, ?, ?, ?, now()
+            WHERE NOT EXISTS (SELECT 1 FROM updated)
+            """;
+
+    // Recomputes cycle counters straight from attendance and upserts them
+    private static final String REFRESH_CYCLE_SUMMARY = """
+            INSERT INTO attendance_cycle_summary
+                (user_id, cycle_start, cycle_end, present_days, absent_days,
+                 half_days, late_days, paid_days_weighted, updated_at)
+            SELECT u.id, ?, ?,
+                   COUNT(a.id) FILTER (WHERE a.status IN ('PRESENT', 'WEEKEND', 'HOLIDAY')),
+                   COUNT(a.id) FILTER (WHERE a.status = 'ABSENT'),
+                   COUNT(a.id) FILTER (WHERE a.status = 'HALF_DAY'),
+                   COUNT(a.id) FILTER (WHERE a.login_time > ?),
+                   COALESCE(SUM(CASE a.status
+                                    WHEN 'PRESENT'  THEN 1
+                                    WHEN 'HALF_DAY' THEN 0.5
+                                    WHEN 'WEEKEND'  THEN 1
+                                    ELSE 0
+                                END), 0),
+                   now()
+            FROM users u
+            LEFT JOIN attendance a
+                   ON a.user_id = u.id AND a.date BETWEEN ? AND ?
+            %s
+            GROUP BY u.id
+            ON CONFLICT (user_id, cycle_start) DO UPDATE SET
+                cycle_end          = EXCLUDED.cycle_end,
+                present_days       = EXCLUDED.present_days,
+                absent_days        = EXCLUDED.absent_days,
+                half_days          = EXCLUDED.half_days,
+                late_days          = EXCLUDED.late_days,
+                paid_days_weighted = EXCLUDED.paid_days_weighted,
+                updated_at         = EXCLUDED.updated_at
+            """;
+
+    // CSV row for the day joined to its user and (if any) attendance row; last upload per user wins
+    private static final String SELECT_FINALIZE_INPUT = """
+            SELECT DISTINCT ON (u.id)
+                   u.id AS user_id, u.empid, r.status AS csv_status,
+                   a.id AS attendance_id, a.login_time, a.logout_time
+            FROM attendance_records r
+            JOIN users u ON u.empid = r.empid
+            LEFT JOIN attendance a ON a.user_id = u.id AND a.date = ?
+            WHERE r.record_date = ?
+            ORDER BY u.id, r.id DESC
+            """;
+
+    // Days that carry a login, with the day's standup-sheet status when one was uploaded
+    private static final String SELECT_CLASSIFIABLE = """
+            SELECT DISTINCT ON (a.id)
+                   a.id, a.user_id, a.empid, a.date, a.login_time, a.logout_time, a.status, a.remarks,
+                   r.status AS csv_status
+            FROM attendance a
+            LEFT JOIN attendance_records r ON r.empid = a.empid AND r.record_date = a.date
+            WHERE a.date BETWEEN ? AND ?
+              AND a.login_time IS NOT NULL
+            ORDER BY a.id, r.id DESC
+            """;
+
+    private static final String UPDATE_STATUS_BY_ID = """
+            UPDATE attendance
+            SET status = ?, remarks = ?, updated_at = now()
+            WHERE id = ?
+            """;
+
+    public record OpenSession(int id, LocalTime loginTime) {}
+
+    public record FinalizeInput(int userId, String empid, String csvStatus,
+                                Integer attendanceId, LocalTime loginTime, LocalTime logoutTime) {}
+
+    public record ClassifiableDay(int id, int userId, String empid, LocalDate date,
+                                  LocalTime loginTime, LocalTime logoutTime,
+                                  String status, String remarks, String csvStatus) {}
+
+    public record FinalStatus(int userId, String empid, Integer attendanceId,
+                              String status, String remarks) {}
+
+    public record SessionClose(int id, LocalTime logoutTime, String status, String remarks) {}
+
+    /**
+     * Inserts one status row per user for the given date, in JDBC batches.
+     * Returns the number of rows actually written.
+     */
+    public int insertStatusRows(List<UserRef> users, LocalDate date,
+                                String status, String remarks, int batchSize) {
+        if (users.isEmpty()) return 0;
+
+        Date sqlDate = Date.valueOf(date);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_MISSING, users, batchSize, (ps, u) -> {
+            ps.setInt(1, u.getId());
+            ps.setString(2, u.getEmpid());
+            ps.setDate(3, sqlDate);
+            ps.setString(4, status);
+            ps.setString(5, remarks);
+            ps.setInt(6, u.getId());
+            ps.setDate(7, sqlDate);
+        });
+        return sum(counts);
+    }
+
+    /**
+     * Sets the status of every (user, date) pair, creating missing rows.
+     * One batched statement for the whole set; returns (user, date) pairs written.
+     */
+    public int upsertStatusRows(List<UserRef> users, List<LocalDate> dates,
+                                String status, String remarks, int batchSize) {
+        if (users.isEmpty() || dates.isEmpty()) return 0;
+
+        List<Object[]> rows = new ArrayList<>(users.size() * dates.size());
+        for (UserRef u : users) {
+            for (LocalDate d : dates) {
+                rows.add(new Object[]{u.getId(), u.getEmpid(), Date.valueOf(d)});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_STATUS, rows, batchSize, (ps, r) -> {
+            ps.setString(1, status);
+            ps.setString(2, remarks);
+            ps.setInt(3, (Integer) r[0]);
+            ps.setDate(4, (Date) r[2]);
+            ps.setInt(5, (Integer) r[0]);
+            ps.setString(6, (String) r[1]);
+            ps.setDate(7, (Date) r[2]);
+            ps.setString(8, status);
+            ps.setString(9, remarks);
+        });
+        // The CTE only reports inserted rows, so count the pairs written instead
+        return rows.size();
+    }
+
+    /**
+     * Streams today's open sessions (login without logout) with a server-side cursor,
+     * so memory stays flat regardless of how many sessions are open.
+     * Must run inside a transaction — Postgres only honours fetch size with autocommit off.
+     */
+    public void forEachOpenSession(LocalDate date, int fetchSize, Consumer<OpenSession> action) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_OPEN_SESSIONS);
+            ps.setFetchSize(fetchSize);
+            ps.setDate(1, Date.valueOf(date));
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(
+                new OpenSession(rs.getInt("id"), rs.getTime("login_time").toLocalTime())));
+    }
+
+    // true if this call created today's row, false if the user already had one
+    public boolean insertLogin(int userId, String empid, LocalDate date, LocalTime loginTime) {
+        return jdbcTemplate.update(INSERT_LOGIN, userId, empid, Date.valueOf(date), Time.valueOf(loginTime)) == 1;
+    }
+
+    public boolean hasUserDateKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_USER_DATE_KEY, Boolean.class));
+    }
+
+    /**
+     * Creates uk_attendance_user_date if it is missing, archiving duplicate (user, date) rows first.
+     * Serialized across replicas by an advisory lock. Returns the number of rows archived.
+     */
+    @Transactional
+    public int ensureUserDateKey() {
+        jdbcTemplate.execute(LOCK_USER_DATE_KEY);
+        if (hasUserDateKey()) return 0;
+
+        jdbcTemplate.execute(CREATE_DUPLICATE_ARCHIVE);
+        int archived = jdbcTemplate.update(ARCHIVE_DUPLICATE_DAYS);
+        jdbcTemplate.execute(ADD_USER_DATE_KEY);
+        return archived;
+    }
+
+    // Closes one session; false if it was already closed (e.g. by a concurrent logout)
+    public boolean closeSession(SessionClose close) {
+        return jdbcTemplate.update(CLOSE_SESSION, Time.valueOf(close.logoutTime()),
+                close.status(), close.remarks(), close.id()) == 1;
+    }
+
+    // Writes one batch of closed sessions, returns rows updated
+    public int closeSessions(List<SessionClose> closes) {
+        if (closes.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate(CLOSE_SESSION, closes, closes.size(), (ps, c) -> {
+            ps.setTime(1, Time.valueOf(c.logoutTime()));
+            ps.setString(2, c.status());
+            ps.setString(3, c.remarks());
+            ps.setInt(4, c.id());
+        });
+        return sum(counts);
+    }
+
+    // One query for the whole day's CSV finalization input
+    public List<FinalizeInput> findFinalizeInput(LocalDate date) {
+        Date sqlDate = Date.valueOf(date);
+        return jdbcTemplate.query(SELECT_FINALIZE_INPUT, (rs, i) -> {
+            Time login = rs.getTime("login_time");
+            Time logout = rs.getTime("logout_time");
+            return new FinalizeInput(
+                    rs.getInt("user_id"),
+                    rs.getString("empid"),
+                    rs.getString("csv_status"),
+                    (Integer) rs.getObject("attendance_id"),
+                    login != null ? login.toLocalTime() : null,
+                    logout != null ? logout.toLocalTime() : null);
+        }, sqlDate, sqlDate);
+    }
+
+    // Streams every logged-in day in [from, to] for bulk re-evaluation; needs a transaction (see above)
+    public void forEachClassifiableDay(LocalDate from, LocalDate to, int fetchSize,
+                                       Consumer<ClassifiableDay> action) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_CLASSIFIABLE);
+            ps.setFetchSize(fetchSize);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Time logout = rs.getTime("logout_time");
+            action.accept(new ClassifiableDay(
+                    rs.getInt("id"),
+                    rs.getInt("user_id"),
+                    rs.getString("empid"),
+                    rs.getDate("date").toLocalDate(),
+                    rs.getTime("login_time").toLocalTime(),
+                    logout != null ? logout.toLocalTime() : null,
+                    rs.getString("status"),
+                    rs.getString("remarks"),
+                    rs.getString("csv_status")));
+        });
+    }
+
+    // Rows that already exist → batched UPDATE by id, returns rows updated
+    public int updateStatuses(List<FinalStatus> rows, int batchSize) {
+        if (rows.isEmpty()) return 0;
+
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_BY_ID, rows, batchSize, (ps, r) -> {
+            ps.setString(1, r.status());
+            ps.setString(2, r.remarks());
+            ps.setInt(3, r.attendanceId());
+        });
+        return sum(counts);
+    }
+
+    // Users with no attendance row yet → guarded batched INSERT, returns rows inserted
+    public int insertStatuses(List<FinalStatus> rows, LocalDate date, int batchSize) {
+        if (rows.isEmpty()) return 0;
+
+        Date sqlDate = Date.valueOf(date);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_MISSING, rows, batchSize, (ps, r) -> {
+            ps.setInt(1, r.userId());
+            ps.setString(2, r.empid());
+            ps.setDate(3, sqlDate);
+            ps.setString(4, r.status());
+            ps.setString(5, r.remarks());
+            ps.setInt(6, r.userId());
+            ps.setDate(7, sqlDate);
+        });
+        return sum(counts);
+    }
+
+    /**
+     * Rebuilds attendance_cycle_summary for one cycle, either for a single user
+     * or (userId == null) for every user in one statement. Returns rows upserted.
+     */
+    public int refreshCycleSummary(Integer userId, LocalDate cycleStart, LocalDate cycleEnd,
+                                   LocalTime lateAfter) {
+        Date start = Date.valueOf(cycleStart);
+        Date end = Date.valueOf(cycleEnd);
+        Time late = Time.valueOf(lateAfter);
+
+        if (userId == null) {
+            return jdbcTemplate.update(REFRESH_CYCLE_SUMMARY.formatted(""),
+                    start, end, late, start, end);
+        }
+        return jdbcTemplate.update(REFRESH_CYCLE_SUMMARY.formatted("WHERE u.id = ?"),
+                start, end, late, start, end, userId);
+    }
+
+    static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int c : batch) {
+                // SUCCESS_NO_INFO (-2) → driver did not report a count, assume one row
+                total += c >= 0 ? c : 1;
+            }
+        }
+        return total;
+    }
+}
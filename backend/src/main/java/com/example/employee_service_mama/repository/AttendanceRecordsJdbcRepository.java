@@ -0,0 +1,105 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.AttendanceCsvFile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched writes for attendance_records (CSV/standup sheet imports).
+ * AttendanceCsvFile ids are IDENTITY, so Hibernate would insert row by row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttendanceRecordsJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_ROW = """
+            INSERT INTO attendance_records (empid, name, date, domain, remark, status, record_date)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Everyone not on the sheet for that day is recorded ABSENT
+    private static final String INSERT_ABSENTEES = """
+            INSERT INTO attendance_records (empid, name, date, domain, remark, status, record_date)
+            SELECT u.empid, u.full_name, ?, u.domain, '', 'ABSENT', ?
+            FROM users u
+            WHERE u.empid IS NOT NULL
+              AND NOT EXISTS (
+                  SELECT 1 FROM attendance_records r
+                  WHERE r.empid = u.empid AND r.record_date = ?
+              )
+            """;
+
+    // Rows whose legacy String date was never examined (see AttendanceFilterService.backfillRecordDates)
+    private static final String SELECT_UNPARSED_DATES = """
+            SELECT id, date FROM attendance_records
+            WHERE record_date IS NULL AND date IS NOT NULL AND date_unparseable IS NULL
+            ORDER BY id
+            LIMIT ?
+            """;
+
+    private static final String UPDATE_RECORD_DATE =
+            "UPDATE attendance_records SET record_date = ?, date_unparseable = ? WHERE id = ?";
+
+    private static final String EXISTS_FOR_DAY =
+            "SELECT EXISTS (SELECT 1 FROM attendance_records WHERE record_date = ?)";
+
+    public int insertRows(List<AttendanceCsvFile> rows, int batchSize) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_ROW, rows, batchSize, (ps, r) -> {
+            ps.setString(1, r.getEmployeeId());
+            ps.setString(2, r.getName());
+            ps.setString(3, r.getDate());
+            ps.setString(4, r.getDomain());
+            ps.setString(5, r.getRemark());
+            ps.setString(6, r.getStatus());
+            LocalDate day = AttendanceCsvFile.parseDate(r.getDate());
+            if (day != null) {
+                ps.setDate(7, Date.valueOf(day));
+            } else {
+                ps.setNull(7, Types.DATE);
+            }
+        });
+        return AttendanceJdbcRepository.sum(counts);
+    }
+
+    public int insertAbsentees(String rawDate, LocalDate day) {
+        Date sqlDay = Date.valueOf(day);
+        return jdbcTemplate.update(INSERT_ABSENTEES, rawDate, sqlDay, sqlDay);
+    }
+
+    public record RawDate(int id, String date) {}
+
+    public List<RawDate> findUnparsedDates(int limit) {
+        return jdbcTemplate.query(SELECT_UNPARSED_DATES,
+                (rs, i) -> new RawDate(rs.getInt("id"), rs.getString("date")), limit);
+    }
+
+    // recordDate == null → the row is marked date_unparseable instead
+    public int updateRecordDates(Map<Integer, LocalDate> recordDateById) {
+        List<Map.Entry<Integer, LocalDate>> rows = new ArrayList<>(recordDateById.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_RECORD_DATE, rows, rows.size(), (ps, e) -> {
+            if (e.getValue() != null) {
+                ps.setDate(1, Date.valueOf(e.getValue()));
+                ps.setNull(2, Types.BOOLEAN);
+            } else {
+                ps.setNull(1, Types.DATE);
+                ps.setBoolean(2, true);
+            }
+            ps.setInt(3, e.getKey());
+        });
+        return AttendanceJdbcRepository.sum(counts);
+    }
+
+    public boolean existsForDay(LocalDate day) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_FOR_DAY, Boolean.class, Date.valueOf(day)));
+    }
+}
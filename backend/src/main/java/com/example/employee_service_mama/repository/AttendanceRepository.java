@@ -1,16 +1,24 @@
 package com.example.employee_service_mama.repository;
 
+import com.example.employee_service_mama.dto.AttendanceCycleCounts;
+import com.example.employee_service_mama.dto.AttendanceDayView;
+import com.example.employee_service_mama.dto.UserRef;
 import com.example.employee_service_mama.model.Attendance;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Integer> {
@@ -172,4 +180,80 @@ AND FUNCTION('DATE', a.date) = :date
             @Param("date") LocalDate date
     );
 
+    // Users with an ABSENT row on either of the given dates (sandwich policy: Friday / Monday)
+    @Query(value = """
+            SELECT DISTINCT a.user_id AS id, u.empid AS empid
+            FROM attendance a
+            JOIN users u ON u.id = a.user_id
+            WHERE a.date IN (:first, :last)
+              AND a.status = 'ABSENT'
+            """, nativeQuery = true)
+    List<UserRef> findUsersAbsentOnEither(@Param("first") LocalDate first,
+                                          @Param("last") LocalDate last);
+
+    // Accrual input: (user, date, status, times) for every row in range
+    @Query("""
+            SELECT a.user.id AS userId, a.date AS date, a.status AS status,
+                   a.loginTime AS loginTime, a.logoutTime AS logoutTime
+            FROM Attendance a
+            WHERE a.date BETWEEN :from AND :to
+            """)
+    List<AttendanceDayView> findDayViewsInRange(@Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+
+    @Query("""
+            SELECT a.user.id AS userId, a.date AS date, a.status AS status,
+                   a.loginTime AS loginTime, a.logoutTime AS logoutTime
+            FROM Attendance a
+            WHERE a.user.id = :userId
+              AND a.date BETWEEN :from AND :to
+            """)
+    List<AttendanceDayView> findDayViewsInRangeForUser(@Param("userId") Integer userId,
+                                                       @Param("from") LocalDate from,
+                                                       @Param("to") LocalDate to);
+
+    // All dashboard counters for a range in a single pass (replaces the four COUNT queries)
+    @Query(value = """
+            SELECT COUNT(*) FILTER (WHERE a.status IN ('PRESENT', 'WEEKEND', 'HOLIDAY')) AS "presentDays",
+                   COUNT(*) FILTER (WHERE a.status = 'ABSENT')                        AS "absentDays",
+                   COUNT(*) FILTER (WHERE a.status = 'HALF_DAY')                      AS "halfDays",
+                   COUNT(*) FILTER (WHERE a.login_time > :lateTime)                   AS "lateDays",
+                   CAST(COALESCE(SUM(CASE a.status
+                                         WHEN 'PRESENT'  THEN 1
+                                         WHEN 'HALF_DAY' THEN 0.5
+                                         WHEN 'WEEKEND'  THEN 1
+                                         ELSE 0
+                                     END), 0) AS double precision)                  AS "paidDays"
+            FROM attendance a
+            WHERE a.user_id = :userId
+              AND a.date BETWEEN :startDate AND :endDate
+            """, nativeQuery = true)
+    AttendanceCycleCounts countCycleStats(@Param("userId") Integer userId,
+                                          @Param("lateTime") LocalTime lateTime,
+                                          @Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate);
+
+    // Keyset pagination over full history, newest first, cursor = (date, id)
+    @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId ORDER BY a.date DESC, a.id DESC")
+    List<Attendance> findHistoryFirstPage(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("""
+            SELECT a FROM Attendance a
+            WHERE a.user.id = :userId
+              AND (a.date < :date OR (a.date = :date AND a.id < :id))
+            ORDER BY a.date DESC, a.id DESC
+            """)
+    List<Attendance> findHistoryPageAfter(@Param("userId") Integer userId,
+                                          @Param("date") LocalDate date,
+                                          @Param("id") Integer id,
+                                          Pageable pageable);
+
+    // Cursor-backed stream for NDJSON export — caller must hold a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Attendance a WHERE a.user.id = :userId ORDER BY a.date DESC, a.id DESC")
+    Stream<Attendance> streamHistory(@Param("userId") Integer userId);
+
 }
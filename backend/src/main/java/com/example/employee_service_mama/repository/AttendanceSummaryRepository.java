@@ -0,0 +1,14 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.AttendanceCycleSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceSummaryRepository extends JpaRepository<AttendanceCycleSummary, Integer> {
+
+    Optional<AttendanceCycleSummary> findByUserIdAndCycleStart(Integer userId, LocalDate cycleStart);
+}
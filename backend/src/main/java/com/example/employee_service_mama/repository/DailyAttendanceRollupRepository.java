@@ -0,0 +1,59 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.DailyAttendanceRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyAttendanceRollupRepository extends JpaRepository<DailyAttendanceRollup, LocalDate> {
+
+    List<DailyAttendanceRollup> findByDateBetweenOrderByDate(LocalDate from, LocalDate to);
+
+    List<DailyAttendanceRollup> findAllByOrderByDate();
+
+    // Recounts attendance_records per day in [from, to] and upserts the rollup rows
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_attendance_rollup
+                (date, present_count, absent_count, leave_count, half_day_count, total_count, updated_at)
+            SELECT r.record_date,
+                   COUNT(*) FILTER (WHERE UPPER(r.status) = 'PRESENT'),
+                   COUNT(*) FILTER (WHERE UPPER(r.status) = 'ABSENT'),
+                   COUNT(*) FILTER (WHERE UPPER(r.status) = 'LEAVE'),
+                   COUNT(*) FILTER (WHERE UPPER(REPLACE(REPLACE(r.status, '-', '_'), ' ', '_')) IN ('HALF_DAY', 'HALFDAY')),
+                   COUNT(*),
+                   now()
+            FROM attendance_records r
+            WHERE r.record_date BETWEEN :from AND :to
+            GROUP BY r.record_date
+            ON CONFLICT (date) DO UPDATE SET
+                present_count  = EXCLUDED.present_count,
+                absent_count   = EXCLUDED.absent_count,
+                leave_count    = EXCLUDED.leave_count,
+                half_day_count = EXCLUDED.half_day_count,
+                total_count    = EXCLUDED.total_count,
+                updated_at     = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Days whose records were all deleted
+    @Modifying
+    @Query(value = """
+            DELETE FROM daily_attendance_rollup d
+            WHERE d.date BETWEEN :from AND :to
+              AND NOT EXISTS (SELECT 1 FROM attendance_records r WHERE r.record_date = d.date)
+            """, nativeQuery = true)
+    int deleteEmptyDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = "SELECT MIN(record_date) FROM attendance_records", nativeQuery = true)
+    LocalDate findFirstRecordDate();
+
+    @Query(value = "SELECT MAX(record_date) FROM attendance_records", nativeQuery = true)
+    LocalDate findLastRecordDate();
+}
@@ -0,0 +1,70 @@
+package com.example.employee_service_mama.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claim / complete queries for the email outbox. Claiming uses FOR UPDATE SKIP LOCKED so
+ * several replicas can poll the same table without sending a row twice.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmailOutboxJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Due PENDING rows, plus SENDING rows whose worker died (claimed too long ago)
+    private static final String CLAIM_BATCH = """
+            UPDATE email_outbox o
+            SET status = 'SENDING', claimed_at = now()
+            WHERE o.id IN (
+                SELECT id FROM email_outbox
+                WHERE (status = 'PENDING' AND next_attempt_at <= now())
+                   OR (status = 'SENDING' AND claimed_at < now() - make_interval(secs => ?))
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING o.id, o.to_address, o.subject, o.html_body, o.attempts
+            """;
+
+    private static final String MARK_SENT = """
+            UPDATE email_outbox
+            SET status = 'SENT', sent_at = now(), attempts = attempts + 1, last_error = NULL
+            WHERE id = ?
+            """;
+
+    private static final String RESCHEDULE = """
+            UPDATE email_outbox
+            SET status = ?, attempts = ?, next_attempt_at = ?, last_error = ?
+            WHERE id = ?
+            """;
+
+    public record OutboxMail(long id, String to, String subject, String htmlBody, int attempts) {}
+
+    public List<OutboxMail> claimBatch(int limit, long staleAfterSeconds) {
+        return jdbcTemplate.query(CLAIM_BATCH,
+                (rs, i) -> new OutboxMail(
+                        rs.getLong("id"),
+                        rs.getString("to_address"),
+                        rs.getString("subject"),
+                        rs.getString("html_body"),
+                        rs.getInt("attempts")),
+                staleAfterSeconds, limit);
+    }
+
+    public void markSent(List<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbcTemplate.batchUpdate(MARK_SENT, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+    }
+
+    // status PENDING → retried at nextAttemptAt, FAILED → given up
+    public void reschedule(long id, String status, int attempts, Instant nextAttemptAt, String error) {
+        jdbcTemplate.update(RESCHEDULE, status, attempts, Timestamp.from(nextAttemptAt), error, id);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    long countByStatus(String status);
+}
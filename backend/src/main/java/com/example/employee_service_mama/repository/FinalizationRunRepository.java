@@ -0,0 +1,13 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.FinalizationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FinalizationRunRepository extends JpaRepository<FinalizationRun, Integer> {
+
+    List<FinalizationRun> findTop30ByOrderByStartedAtDesc();
+}
@@ -2,6 +2,7 @@ package com.example.employee_service_mama.repository;
 
 import com.example.employee_service_mama.model.Holiday;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -13,4 +14,8 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long> {
 
     boolean existsByDate(LocalDate date);
     List<Holiday> findAllByOrderByDateAsc();
+
+    // Dates only — feeds the in-memory DayCalendar
+    @Query("SELECT h.date FROM Holiday h")
+    List<LocalDate> findAllDates();
 }
\ No newline at end of file
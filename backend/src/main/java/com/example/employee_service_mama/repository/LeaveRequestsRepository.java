@@ -1,5 +1,6 @@
 package com.example.employee_service_mama.repository;
 
+import com.example.employee_service_mama.dto.ApprovedLeaveRef;
 import com.example.employee_service_mama.model.LeaveRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -31,6 +32,14 @@ public interface LeaveRequestsRepository extends JpaRepository<LeaveRequest, Int
             "AND :date BETWEEN l.startDate AND l.endDate")
     boolean existsApprovedLeaveForDate(Integer userId, LocalDate date);
 
+    // Every approved leave as a bare interval — LeaveIndex rebuild / consistency check
+    @Query("""
+           SELECT lr.id AS id, lr.user.id AS userId, lr.startDate AS startDate, lr.endDate AS endDate
+           FROM LeaveRequest lr
+           WHERE lr.status = 'approved'
+           """)
+    List<ApprovedLeaveRef> findApprovedIntervals();
+
     @Query("""
 SELECT l FROM LeaveRequest l
 WHERE l.user.id = :userId
@@ -1,10 +1,22 @@
 package com.example.employee_service_mama.repository;
 
+import com.example.employee_service_mama.dto.UserRef;
+import com.example.employee_service_mama.dto.UserRoleRef;
 import com.example.employee_service_mama.model.Users;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<Users, Integer> {
 
@@ -21,4 +33,50 @@ public interface UserRepository extends JpaRepository<Users, Integer> {
 
     @Query("SELECT COUNT(u) FROM Users u WHERE u.role = :role") // added by venkatasagar
     long countByRole(@Param("role") String role);
+
+    // Anti-join → users that have NO attendance row for the given date
+    @Query(value = """
+            SELECT u.id AS id, u.empid AS empid
+            FROM users u
+            LEFT JOIN attendance a ON a.user_id = u.id AND a.date = :date
+            WHERE a.id IS NULL
+            """, nativeQuery = true)
+    List<UserRef> findUsersWithoutAttendanceOn(@Param("date") LocalDate date);
+
+    // (id, empid) only — backs the login-path user cache (UserDirectory)
+    @Query("SELECT u.id AS id, u.empid AS empid FROM Users u WHERE u.id = :id")
+    Optional<UserRef> findRefById(@Param("id") Integer id);
+
+    // Rehash-on-login: touch only the password column
+    @Modifying
+    @Transactional
+    @Query("UPDATE Users u SET u.password = :hash WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Integer id, @Param("hash") String hash);
+
+    // All ids — UserIdRegistry
+    @Query("SELECT u.id FROM Users u")
+    List<Integer> findAllIds();
+
+    // (id, role) for every user — UserRoleIndex
+    @Query("SELECT u.id AS id, u.role AS role FROM Users u")
+    List<UserRoleRef> findAllRoles();
+
+    // empid index for validating uploaded sheets
+    @Query("SELECT u.empid FROM Users u WHERE u.empid IS NOT NULL")
+    List<String> findAllEmpids();
+
+    // Keyset pagination by id
+    @Query("SELECT u FROM Users u ORDER BY u.id")
+    List<Users> findFirstPage(Pageable pageable);
+
+    @Query("SELECT u FROM Users u WHERE u.id > :afterId ORDER BY u.id")
+    List<Users> findPageAfter(@Param("afterId") Integer afterId, Pageable pageable);
+
+    // Cursor-backed stream for NDJSON export — caller must hold a transaction and close it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM Users u ORDER BY u.id")
+    Stream<Users> streamAll();
 }
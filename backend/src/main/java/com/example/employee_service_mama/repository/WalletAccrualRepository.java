@@ -0,0 +1,28 @@
+package com.example.employee_service_mama.repository;
+
+import com.example.employee_service_mama.model.WalletAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WalletAccrualRepository extends JpaRepository<WalletAccrual, Integer> {
+
+    @Query("SELECT w FROM WalletAccrual w WHERE w.date BETWEEN :from AND :to")
+    List<WalletAccrual> findInRange(@Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("SELECT w FROM WalletAccrual w WHERE w.userId = :userId AND w.date BETWEEN :from AND :to")
+    List<WalletAccrual> findInRangeForUser(@Param("userId") Integer userId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    // Earliest day the ledger has credited — empty until the first accrual
+    @Query("SELECT MIN(w.date) FROM WalletAccrual w")
+    Optional<LocalDate> findFirstDate();
+}
@@ -1,8 +1,11 @@
 package com.example.employee_service_mama.repository;
 
+import com.example.employee_service_mama.dto.SalaryOverviewRow;
 import com.example.employee_service_mama.dto.WalletResponse;
 import com.example.employee_service_mama.model.Wallet;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -105,5 +108,71 @@ public interface WalletRepository extends JpaRepository<Wallet, Integer> {
 """)
     List<Wallet> findAllWithUser();
 
+    // Salary rows whose cycle overlaps [from, to], locked so accrual deltas never race
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+    SELECT w FROM Wallet w
+    WHERE w.cycleStart <= :to
+      AND (w.cycleEnd IS NULL OR w.cycleEnd >= :from)
+""")
+    List<Wallet> findCoveringForUpdate(@Param("from") LocalDate from,
+                                       @Param("to") LocalDate to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+    SELECT w FROM Wallet w
+    WHERE w.user.id = :userId
+      AND w.cycleStart <= :to
+      AND (w.cycleEnd IS NULL OR w.cycleEnd >= :from)
+""")
+    List<Wallet> findCoveringForUpdateByUser(@Param("userId") Integer userId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    /**
+     * Payroll overview for one cycle in a single grouped query.
+     * sortMode: 0 = by empid, 1 = net salary ascending, 2 = net salary descending.
+     */
+    @Query(value = """
+    SELECT * FROM (
+        SELECT w.empid                                        AS "empid",
+               u.full_name                                    AS "fullName",
+               u.role                                         AS "department",
+               w.monthly_salary                               AS "monthlySalary",
+               COALESCE(w.deduction, 0)                       AS "deduction",
+               COALESCE(p.paid_days, 0)                       AS "paidDays",
+               COALESCE(p.paid_days, 0) * w.daily_rate        AS "earnedSalary",
+               COALESCE(p.paid_days, 0) * w.daily_rate
+                   - COALESCE(w.deduction, 0)                 AS "netSalary"
+        FROM salary w
+        JOIN users u ON u.id = w.user_id
+        LEFT JOIN (
+            SELECT a.user_id,
+                   CAST(SUM(
+                       CASE a.status
+                           WHEN 'PRESENT'  THEN 1
+                           WHEN 'HALF_DAY' THEN 0.5
+                           WHEN 'WEEKEND'  THEN 1
+                           ELSE 0
+                       END
+                   ) AS double precision) AS paid_days
+            FROM attendance a
+            WHERE a.date BETWEEN :start AND :end
+            GROUP BY a.user_id
+        ) p ON p.user_id = w.user_id
+        WHERE w.cycle_start = :start
+          AND (w.cycle_end IS NULL OR w.cycle_end = :end)
+    ) o
+    ORDER BY
+        CASE WHEN :sortMode = 1 THEN o."netSalary" END ASC,
+        CASE WHEN :sortMode = 2 THEN o."netSalary" END DESC,
+        o."empid"
+    LIMIT :limit OFFSET :offset
+""", nativeQuery = true)
+    List<SalaryOverviewRow> findSalaryOverview(@Param("start") LocalDate start,
+                                               @Param("end") LocalDate end,
+                                               @Param("sortMode") int sortMode,
+                                               @Param("limit") int limit,
+                                               @Param("offset") int offset);
 
 }
@@ -0,0 +1,46 @@
+package com.example.employee_service_mama.rules;
+
+/**
+ * Result of classifying one attendance day. Each outcome maps to a stored status;
+ * remarks are only rendered when a row is actually written.
+ */
+public enum AttendanceOutcome {
+
+    FULL_DAY_TIME_MET("PRESENT"),
+    WORKED_FULL_DAY("PRESENT"),
+    WORKED_PARTIAL("HALF_DAY"),
+    LATE_LOGIN("HALF_DAY"),
+    UNDER_MIN_HOURS("ABSENT"),
+    NO_LOGIN("ABSENT"),
+    CSV_ABSENT("ABSENT"),
+    CSV_LEAVE("LEAVE"),
+    CSV_HALF_DAY("HALF_DAY"),
+    FORGOT_LOGOUT("HALF_DAY"),
+    FORGOT_LOGOUT_UNDER_MIN("ABSENT");
+
+    private final String status;
+
+    AttendanceOutcome(String status) {
+        this.status = status;
+    }
+
+    public String status() {
+        return status;
+    }
+
+    // workedHours = whole hours between login and logout (only used by the hour-based outcomes)
+    public String remark(long workedHours) {
+        return switch (this) {
+            case FULL_DAY_TIME_MET -> "Full Day Present — Time Condition Met";
+            case WORKED_FULL_DAY, WORKED_PARTIAL, UNDER_MIN_HOURS ->
+                    "Worked: " + workedHours + " Hrs ⇒ " + status;
+            case LATE_LOGIN -> "Late Login ⇒ HALF DAY";
+            case NO_LOGIN -> "No Login Found ⇒ Absent";
+            case CSV_ABSENT -> "Absent For Today's Standup Call";
+            case CSV_LEAVE -> "Finalized from CSV: Leave";
+            case CSV_HALF_DAY -> "Finalized from CSV: Half Day";
+            case FORGOT_LOGOUT -> "Auto Logout — Half Day (Forgot Logout)";
+            case FORGOT_LOGOUT_UNDER_MIN -> "Auto Absent — Less than 5 Hours";
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.employee_service_mama.rules;
+
+import java.time.LocalTime;
+
+/**
+ * The PRESENT / HALF_DAY / ABSENT rules, shared by live logout, the 18:35 auto-logout
+ * and the 18:40 CSV finalization. Immutable; thresholds are held as seconds-of-day so
+ * classify() does no allocation and can be run over years of history in bulk.
+ */
+public final class AttendancePolicy {
+
+    private static final int SECONDS_PER_HOUR = 3600;
+
+    private final LocalTime loginStart;
+    private final LocalTime fullPresentLimit;
+    private final LocalTime autoLogoutTime;
+
+    private final int fullPresentLimitSec;   // login at or before → on time
+    private final int fullDayEndSec;         // on-time login + logout at or after → full day
+    private final int autoLogoutSec;
+    private final int minWorkedSec;          // below → ABSENT
+    private final int fullDayWorkedSec;      // at or above → PRESENT
+
+    public AttendancePolicy(LocalTime loginStart, LocalTime fullPresentLimit, LocalTime fullDayEnd,
+                            LocalTime autoLogoutTime, int minHours, int fullDayHours) {
+        if (minHours > fullDayHours) {
+            throw new IllegalArgumentException("min-hours must not exceed full-day-hours");
+        }
+        this.loginStart = loginStart;
+        this.fullPresentLimit = fullPresentLimit;
+        this.autoLogoutTime = autoLogoutTime;
+        this.fullPresentLimitSec = fullPresentLimit.toSecondOfDay();
+        this.fullDayEndSec = fullDayEnd.toSecondOfDay();
+        this.autoLogoutSec = autoLogoutTime.toSecondOfDay();
+        this.minWorkedSec = minHours * SECONDS_PER_HOUR;
+        this.fullDayWorkedSec = fullDayHours * SECONDS_PER_HOUR;
+    }
+
+    /**
+     * Classifies a day from its login/logout times and the standup sheet mark.
+     * logout == null means the session is still open (counts as 0 hours worked).
+     */
+    public AttendanceOutcome classify(LocalTime login, LocalTime logout, CsvMark csv) {
+        switch (csv) {
+            case ABSENT:
+                return AttendanceOutcome.CSV_ABSENT;
+            case LEAVE:
+                return AttendanceOutcome.CSV_LEAVE;
+            case HALF_DAY:
+                return AttendanceOutcome.CSV_HALF_DAY;
+            default:
+                break;
+        }
+
+        if (login == null) return AttendanceOutcome.NO_LOGIN;
+
+        int loginSec = login.toSecondOfDay();
+        boolean onTime = loginSec <= fullPresentLimitSec;
+
+        // Special Full Day Rule → on-time login and logout after the full-day end
+        if (onTime && logout != null && logout.toSecondOfDay() >= fullDayEndSec) {
+            return AttendanceOutcome.FULL_DAY_TIME_MET;
+        }
+
+        int worked = logout != null ? logout.toSecondOfDay() - loginSec : 0;
+        if (worked < minWorkedSec) return AttendanceOutcome.UNDER_MIN_HOURS;
+        if (!onTime) return AttendanceOutcome.LATE_LOGIN;
+        return worked >= fullDayWorkedSec ? AttendanceOutcome.WORKED_FULL_DAY : AttendanceOutcome.WORKED_PARTIAL;
+    }
+
+    // Session still open at auto-logout time → never more than a half day
+    public AttendanceOutcome classifyForgottenLogout(LocalTime login) {
+        return autoLogoutSec - login.toSecondOfDay() < minWorkedSec
+                ? AttendanceOutcome.FORGOT_LOGOUT_UNDER_MIN
+                : AttendanceOutcome.FORGOT_LOGOUT;
+    }
+
+    // Whole hours worked, as shown in remarks
+    public long workedHours(LocalTime login, LocalTime logout) {
+        if (login == null || logout == null) return 0;
+        return (logout.toSecondOfDay() - login.toSecondOfDay()) / SECONDS_PER_HOUR;
+    }
+
+    public LocalTime loginStart() {
+        return loginStart;
+    }
+
+    public LocalTime fullPresentLimit() {
+        return fullPresentLimit;
+    }
+
+    public LocalTime autoLogoutTime() {
+        return autoLogoutTime;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.employee_service_mama.rules;
+
+/**
+ * What the standup sheet (attendance_records) says about a user for the day.
+ * NONE = no sheet involved (live logout, auto-logout).
+ */
+public enum CsvMark {
+    NONE, PRESENT, ABSENT, LEAVE, HALF_DAY;
+
+    // Sheet status → mark; blank/missing counts as ABSENT, unknown values as PRESENT (same as before)
+    public static CsvMark parse(String status) {
+        if (status == null || status.isBlank()) return ABSENT;
+        if (is(status, "ABSENT")) return ABSENT;
+        if (is(status, "LEAVE")) return LEAVE;
+        if (is(status, "HALF_DAY") || is(status, "HALF-DAY") || is(status, "HALFDAY") || is(status, "HALF DAY")) {
+            return HALF_DAY;
+        }
+        return PRESENT;
+    }
+
+    // Case-insensitive match ignoring surrounding whitespace, without trimming into a new String
+    private static boolean is(String value, String keyword) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && Character.isWhitespace(value.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) end--;
+        return end - start == keyword.length() && value.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+}
@@ -1,34 +1,48 @@
 package com.example.employee_service_mama.service;
 
-import com.example.employee_service_mama.model.Attendance;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.event.AttendanceRecordsChangedEvent;
 import com.example.employee_service_mama.model.AttendanceCsvFile;
-import com.example.employee_service_mama.model.Users;
+import com.example.employee_service_mama.model.FinalizationRun;
 import com.example.employee_service_mama.repository.AttendanceCsvFileRepository;
-import com.example.employee_service_mama.repository.AttendanceRepository;
-import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository.FinalStatus;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository.FinalizeInput;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import com.example.employee_service_mama.repository.FinalizationRunRepository;
+import com.example.employee_service_mama.rules.AttendanceOutcome;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import com.example.employee_service_mama.rules.CsvMark;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AttendanceCsvFileService {
 
     private final AttendanceCsvFileRepository repo;
-    private final UserRepository userRepo;
-    private final AttendanceRepository attendanceRepository; // used to update main attendance table
-
-    private final LocalTime LOGIN_START = LocalTime.of(9, 0);
-    private final LocalTime FULL_PRESENT_LIMIT = LocalTime.of(9, 5);
-    private final LocalTime AUTO_LOGOUT_TIME = LocalTime.of(18, 30);
-    private final int FULL_DAY_HOURS = 9;
-    private final int MIN_HOURS = 5;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttendanceRecordsJdbcRepository recordsJdbcRepository;
+    private final AttendanceJdbcRepository attendanceJdbcRepository;
+    private final FinalizationRunRepository finalizationRunRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.attendance.batch-size:500}")
+    private int batchSize;
+
+    private final AttendancePolicy attendancePolicy;
     // ===========================
     // BULK UPLOAD CSV (SAME AS YOUR LOGIC)
     // ===========================
@@ -46,17 +60,7 @@ public class AttendanceCsvFileService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("Invalid date format in CSV"));
 
-        // Prevent duplicate upload
-        if (!repo.findByDate(recordDate).isEmpty()) {
-            return "CSV for this date already exists!";
-        }
-
-        List<Users> allEmployees = userRepo.findAll();
-
-        // Collect empids present in sheet
-        Set<String> sheetEmpIds = sheetRecords.stream()
-                .map(AttendanceCsvFile::getEmployeeId)
-                .collect(Collectors.toSet());
+        LocalDate uploadedDay = AttendanceCsvFile.parseDate(recordDate);
 
         // Set Present for all uploaded rows (HR can later change status in UI if needed)
         sheetRecords.forEach(r -> {
@@ -66,25 +70,33 @@ public class AttendanceCsvFileService {
             if (r.getRemark() == null) r.setRemark("");
         });
 
-        // Add absentees for all employees not in sheet
-        List<AttendanceCsvFile> absentees = new ArrayList<>();
-        for (Users emp : allEmployees) {
-            if (!sheetEmpIds.contains(emp.getEmpid())) {
-                absentees.add(
-                        AttendanceCsvFile.builder()
-                                .employeeId(emp.getEmpid())
-                                .name(emp.getFullName())
-                                .domain(emp.getDomain())
-                                .date(recordDate)
-                                .status("ABSENT")
-                                .remark("")
-                                .build()
-                );
+        // Same transaction as finalizeDay: a failed batch or absentee insert leaves no half-imported day
+        Boolean imported = transactionTemplate.execute(tx -> {
+            // Prevent duplicate upload
+            boolean alreadyUploaded = uploadedDay != null
+                    ? recordsJdbcRepository.existsForDay(uploadedDay)
+                    : !repo.findByDate(recordDate).isEmpty();
+            if (alreadyUploaded) {
+                return false;
+            }
+
+            // JDBC batches — IDENTITY ids make saveAll insert one row per round trip
+            recordsJdbcRepository.insertRows(sheetRecords, batchSize);
+
+            // Add absentees for all employees not in sheet (one INSERT ... SELECT over users)
+            if (uploadedDay != null) {
+                recordsJdbcRepository.insertAbsentees(recordDate, uploadedDay);
             }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(imported)) {
+            return "CSV for this date already exists!";
         }
 
-        repo.saveAll(sheetRecords);
-        repo.saveAll(absentees);
+        // Only after commit — listeners re-read the day
+        if (uploadedDay != null) {
+            eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(uploadedDay));
+        }
 
         return "Attendance CSV imported successfully for " + recordDate;
     }
@@ -134,6 +146,11 @@ public class AttendanceCsvFileService {
 
         row.setStatus(newStatus);
         repo.save(row);
+
+        LocalDate day = AttendanceCsvFile.parseDate(row.getDate());
+        if (day != null) {
+            eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(day));
+        }
         return "Status updated";
     }
 
@@ -159,103 +176,64 @@ public class AttendanceCsvFileService {
     // ⭐ FINAL ATTENDANCE FINALIZATION FROM CSV + ATTENDANCE TABLE AFTER 6:30 PM ⭐
     // =====================================================================================
     @Scheduled(cron = "0 40 18 * * MON-FRI") // 6:40 PM — Only weekdays
-    public void finalizeDailyAttendanceFromCsv() {
-
-        LocalDate today = LocalDate.now();
-        String todayStr = today.toString();
-
-        List<AttendanceCsvFile> csvRecords = repo.findByDate(todayStr);
-        if (csvRecords.isEmpty()) return;
-
-        for (AttendanceCsvFile csv : csvRecords) {
-
-            String empid = csv.getEmployeeId();
-            if (empid == null || empid.trim().isEmpty()) continue;
-
-            Users user = userRepo.findByEmpid(empid).orElse(null);
-            if (user == null) continue;
-
-            Attendance att = attendanceRepository.findByUserIdAndDate(user.getId(), today);
-
-            String csvStatus = csv.getStatus() != null ? csv.getStatus().toUpperCase().trim() : "ABSENT";
-            if (csvStatus.isEmpty()) csvStatus = "ABSENT";
+    public FinalizationRun finalizeDailyAttendanceFromCsv() {
+        return finalizeDay(LocalDate.now());
+    }
 
-            long workedHours = 0;
-            LocalTime login = null;
-            LocalTime logout = null;
+    // One join query → rules in memory → batched writes in one transaction; every run is logged
+    public FinalizationRun finalizeDay(LocalDate day) {
+
+        long started = System.nanoTime();
+        FinalizationRun run = FinalizationRun.builder()
+                .runDate(day)
+                .startedAt(OffsetDateTime.now())
+                .build();
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                List<FinalizeInput> rows = attendanceJdbcRepository.findFinalizeInput(day);
+                run.setMatchedRows(rows.size());
+                if (rows.isEmpty()) return;
+
+                List<FinalStatus> updates = new ArrayList<>();
+                List<FinalStatus> inserts = new ArrayList<>();
+                for (FinalizeInput row : rows) {
+                    FinalStatus result = decideFinalStatus(row);
+                    (row.attendanceId() != null ? updates : inserts).add(result);
+                }
 
-            if (att != null) {
-                login = att.getLoginTime();
-                logout = att.getLogoutTime();
+                run.setUpdatedRows(attendanceJdbcRepository.updateStatuses(updates, batchSize));
+                run.setInsertedRows(attendanceJdbcRepository.insertStatuses(inserts, day, batchSize));
+            });
 
-                if (login != null && logout != null) {
-                    workedHours = Duration.between(login, logout).toHours();
-                }
+            run.setOutcome(run.getMatchedRows() == 0 ? "NO_CSV" : "SUCCESS");
+            if (run.getMatchedRows() > 0) {
+                eventPublisher.publishEvent(AttendanceChangedEvent.forDate(day));
             }
+        } catch (RuntimeException e) {
+            run.setOutcome("FAILED");
+            run.setError(e.getMessage());
+            log.error("CSV finalization failed for {}", day, e);
+        }
 
-            String finalStatus;
-            String finalRemark;
-
-            switch (csvStatus) {
-
-                case "ABSENT":
-                    finalStatus = "ABSENT";
-                    finalRemark = "Absent For Today's Standup Call";
-                    break;
-
-                case "LEAVE":
-                    finalStatus = "LEAVE";
-                    finalRemark = "Finalized from CSV: Leave";
-                    break;
-
-                case "HALF_DAY":
-                case "HALF-DAY":
-                case "HALFDAY":
-                    finalStatus = "HALF_DAY";
-                    finalRemark = "Finalized from CSV: Half Day";
-                    break;
-
-                default: // PRESENT or any other input
-                    if (att == null || login == null) {
-                        finalStatus = "ABSENT";
-                        finalRemark = "No Login Found ⇒ Absent";
-                    } else {
-                        if (!login.isAfter(FULL_PRESENT_LIMIT) &&
-                                logout != null &&
-                                !logout.isBefore(LocalTime.of(18, 0))) {
-
-                            finalStatus = "PRESENT";
-                            finalRemark = "Full Day Present — Time Condition Met";
-
-                        } else {
-                            if (workedHours < MIN_HOURS) {
-                                finalStatus = "ABSENT";
-                                finalRemark = "Worked: " + workedHours + " Hrs ⇒ ABSENT";
-                            } else if (login.isAfter(FULL_PRESENT_LIMIT)) {
-                                finalStatus = "HALF_DAY";
-                                finalRemark = "Late Login ⇒ HALF DAY";
-                            } else {
-                                finalStatus = (workedHours >= FULL_DAY_HOURS) ? "PRESENT" : "HALF_DAY";
-                                finalRemark = "Worked: " + workedHours + " Hrs ⇒ " + finalStatus;
-                            }
-                        }
-                    }
-                    break;
-            }
+        run.setDurationMs((System.nanoTime() - started) / 1_000_000);
+        finalizationRunRepository.save(run);
 
-            if (att == null) {
-                att = Attendance.builder()
-                        .user(user)
-                        .empid(user.getEmpid())
-                        .date(today)
-                        .build();
-            }
+        log.info("✔ Attendance Finalized using Login/Logout Rules - {}: {} matched, {} updated, {} inserted in {} ms ({})",
+                day, run.getMatchedRows(), run.getUpdatedRows(), run.getInsertedRows(),
+                run.getDurationMs(), run.getOutcome());
+        return run;
+    }
 
-            att.setStatus(finalStatus);
-            att.setRemarks(finalRemark);
-            attendanceRepository.save(att);
-        }
+    public List<FinalizationRun> getRecentFinalizationRuns() {
+        return finalizationRunRepository.findTop30ByOrderByStartedAtDesc();
+    }
 
-        System.out.println("✔ Attendance Finalized using Login/Logout Rules - " + todayStr);
+    // Shared rules (see AttendancePolicy), applied to the joined tuple
+    private FinalStatus decideFinalStatus(FinalizeInput row) {
+        AttendanceOutcome outcome = attendancePolicy.classify(
+                row.loginTime(), row.logoutTime(), CsvMark.parse(row.csvStatus()));
+        return new FinalStatus(row.userId(), row.empid(), row.attendanceId(), outcome.status(),
+                outcome.remark(attendancePolicy.workedHours(row.loginTime(), row.logoutTime())));
     }
 }
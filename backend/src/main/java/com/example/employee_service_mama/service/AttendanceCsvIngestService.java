@@ -0,0 +1,295 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.CsvIngestReport;
+import com.example.employee_service_mama.event.AttendanceRecordsChangedEvent;
+import com.example.employee_service_mama.model.AttendanceCsvFile;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming import of the daily standup sheet (CSV) into attendance_records.
+ * The file is read record by record, each row is validated against the empid index,
+ * and valid rows are written in JDBC batches; bad rows come back in the report.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceCsvIngestService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Column slots resolved from the header row
+    private static final int EMPID = 0, NAME = 1, DATE = 2, DOMAIN = 3, REMARK = 4, STATUS = 5;
+
+    // .xlsx is a ZIP archive: "PK\3\4" even when someone renames it to .csv
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+
+    private final AttendanceRecordsJdbcRepository recordsJdbcRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.attendance.batch-size:500}")
+    private int batchSize;
+
+    @Transactional
+    public CsvIngestReport ingest(MultipartFile file) {
+
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.toLowerCase().endsWith(".xlsx")) {
+            throw notCsv();
+        }
+
+        long started = System.nanoTime();
+        CsvIngestReport report = new CsvIngestReport();
+
+        Set<String> seen = new HashSet<>();
+        List<AttendanceCsvFile> batch = new ArrayList<>(batchSize);
+
+        String sheetDate = null;
+        LocalDate sheetDay = null;
+
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+
+            in.mark(ZIP_MAGIC.length);
+            if (Arrays.equals(in.readNBytes(ZIP_MAGIC.length), ZIP_MAGIC)) {
+                throw notCsv();
+            }
+            in.reset();
+
+            RecordReader reader = new RecordReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            List<String> header = reader.next();
+            if (header == null) {
+                throw new IllegalArgumentException("Sheet is empty!");
+            }
+            int[] columns = resolveColumns(header);
+            Set<String> knownEmpids = new HashSet<>(userRepository.findAllEmpids());
+
+            List<String> cells;
+            while ((cells = reader.next()) != null) {
+                long lineNo = reader.recordLine();
+                if (cells.size() == 1 && cells.get(0).isEmpty()) continue;
+                report.setTotalRows(report.getTotalRows() + 1);
+
+                String empid = cell(cells, columns[EMPID]);
+                String date = cell(cells, columns[DATE]);
+
+                if (empid.isEmpty()) {
+                    reject(report, lineNo, empid, "empid is required");
+                    continue;
+                }
+                if (!knownEmpids.contains(empid)) {
+                    reject(report, lineNo, empid, "Unknown empid");
+                    continue;
+                }
+
+                LocalDate day = AttendanceCsvFile.parseDate(date);
+                if (day == null) {
+                    reject(report, lineNo, empid, "Invalid date '" + date + "' (expected yyyy-MM-dd or MM/dd/yyyy)");
+                    continue;
+                }
+                if (sheetDay == null) {
+                    // One sheet = one day; the first valid row decides which
+                    if (recordsJdbcRepository.existsForDay(day)) {
+                        reject(report, lineNo, empid, "CSV for this date already exists!");
+                        report.setDate(day.toString());
+                        report.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+                        return report;
+                    }
+                    sheetDay = day;
+                    sheetDate = date;
+                } else if (!day.equals(sheetDay)) {
+                    reject(report, lineNo, empid, "Date " + date + " differs from sheet date " + sheetDate);
+                    continue;
+                }
+
+                if (!seen.add(empid)) {
+                    reject(report, lineNo, empid, "Duplicate empid in sheet");
+                    continue;
+                }
+
+                String status = cell(cells, columns[STATUS]).toUpperCase();
+                batch.add(AttendanceCsvFile.builder()
+                        .employeeId(empid)
+                        .name(cell(cells, columns[NAME]))
+                        .date(sheetDate)
+                        .domain(cell(cells, columns[DOMAIN]))
+                        .remark(cell(cells, columns[REMARK]))
+                        .status(status.isEmpty() ? "PRESENT" : status)
+                        .build());
+
+                if (batch.size() >= batchSize) {
+                    report.setImported(report.getImported() + recordsJdbcRepository.insertRows(batch, batchSize));
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read uploaded sheet", e);
+        }
+
+        if (!batch.isEmpty()) {
+            report.setImported(report.getImported() + recordsJdbcRepository.insertRows(batch, batchSize));
+        }
+
+        if (sheetDay != null) {
+            report.setDate(sheetDay.toString());
+            report.setAbsenteesAdded(recordsJdbcRepository.insertAbsentees(sheetDate, sheetDay));
+            eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(sheetDay));
+        }
+
+        report.setElapsedMs((System.nanoTime() - started) / 1_000_000);
+        log.info("CSV ingest {}: {} rows, {} imported, {} absentees, {} rejected in {} ms",
+                report.getDate(), report.getTotalRows(), report.getImported(),
+                report.getAbsenteesAdded(), report.getRejected(), report.getElapsedMs());
+        return report;
+    }
+
+    // -------------------- PARSING --------------------
+
+    private static void reject(CsvIngestReport report, long line, String empid, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new CsvIngestReport.RowError(line, empid, message));
+        }
+    }
+
+    // Header names as the template / Google Sheets export them ("empid", "Emp ID", "EmployeeID", ...)
+    private static int[] resolveColumns(List<String> header) {
+        int[] columns = new int[6];
+        Arrays.fill(columns, -1);
+
+        for (int i = 0; i < header.size(); i++) {
+            String key = header.get(i).toLowerCase().replaceAll("[\\s_]", "");
+            switch (key) {
+                case "empid", "employeeid" -> columns[EMPID] = i;
+                case "name", "fullname" -> columns[NAME] = i;
+                case "date" -> columns[DATE] = i;
+                case "domain" -> columns[DOMAIN] = i;
+                case "remark", "remarks" -> columns[REMARK] = i;
+                case "status" -> columns[STATUS] = i;
+                default -> { }
+            }
+        }
+
+        if (columns[EMPID] < 0 || columns[DATE] < 0) {
+            throw new IllegalArgumentException("Header row must contain 'empid' and 'date' columns");
+        }
+        return columns;
+    }
+
+    private static String cell(List<String> cells, int index) {
+        return index >= 0 && index < cells.size() ? cells.get(index) : "";
+    }
+
+    private static IllegalArgumentException notCsv() {
+        return new IllegalArgumentException("XLSX is not accepted here — export the sheet as CSV");
+    }
+
+    /**
+     * Reads one CSV record at a time: comma-separated, "quoted, fields" with "" escapes, and a
+     * quoted field may span line breaks (Sheets exports multi-line remarks that way), so a record
+     * is not always one physical line. Cells are trimmed; a BOM before the header is dropped.
+     */
+    static final class RecordReader {
+
+        private final Reader in;
+        private boolean atStart = true;
+        private int pushedBack = -1;
+        private long line = 1;
+        private long recordLine;
+
+        RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        // Physical line the last record started on (1-based), for the error report
+        long recordLine() {
+            return recordLine;
+        }
+
+        // null at end of input; a blank line comes back as a single empty cell
+        List<String> next() throws IOException {
+            int c = read();
+            if (atStart) {
+                atStart = false;
+                if (c == '\uFEFF') c = read();
+            }
+            if (c == -1) return null;
+            recordLine = line;
+
+            List<String> cells = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;   // re-examine the char after the closing quote
+                        }
+                        current.append('"');
+                    } else if (c == '\r' || c == '\n') {
+                        line++;
+                        current.append('\n');
+                        if (c == '\r') {
+                            c = read();
+                            if (c != '\n') continue;
+                        }
+                    } else {
+                        current.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(current.toString().trim());
+                    current.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int after = read();
+                        if (after != '\n') pushedBack = after;
+                    }
+                    if (c != -1) line++;
+                    cells.add(current.toString().trim());
+                    return cells;
+                } else {
+                    current.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -1) {
+                int c = pushedBack;
+                pushedBack = -1;
+                return c;
+            }
+            return in.read();
+        }
+    }
+}
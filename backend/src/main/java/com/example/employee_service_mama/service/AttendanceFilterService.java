@@ -1,28 +1,85 @@
 package com.example.employee_service_mama.service;
 
 import com.example.employee_service_mama.dto.AttendanceStatusUpdateDTO;
+import com.example.employee_service_mama.event.AttendanceRecordsChangedEvent;
 import com.example.employee_service_mama.model.AttendanceCsvFile;
 import com.example.employee_service_mama.repository.AttendanceCsvFileRepository;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.util.PayrollCycle;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.Month;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AttendanceFilterService {
 
     private final AttendanceCsvFileRepository repo;
-    public List<AttendanceCsvFile> filterAttendance(String month, String date) {
+    private final AttendanceRecordsJdbcRepository recordsJdbcRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int BACKFILL_BATCH = 1000;
+
+    private static final Sort RECORD_ORDER = Sort.by("recordDate", "employeeId");
+
+    /**
+     * Copies legacy String dates into record_date once the schema has the new column.
+     * Parsed with the same rules as new writes (AttendanceCsvFile.parseDate); rows that do not
+     * parse are marked date_unparseable, so each row is examined exactly once and a bad value
+     * can never abort startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillRecordDates() {
+        int parsed = 0;
+        int unparseable = 0;
+        try {
+            List<AttendanceRecordsJdbcRepository.RawDate> batch;
+            while (!(batch = recordsJdbcRepository.findUnparsedDates(BACKFILL_BATCH)).isEmpty()) {
+                Map<Integer, LocalDate> recordDates = new HashMap<>();
+                for (AttendanceRecordsJdbcRepository.RawDate row : batch) {
+                    LocalDate day = AttendanceCsvFile.parseDate(row.date());
+                    recordDates.put(row.id(), day);
+                    if (day != null) parsed++;
+                    else unparseable++;
+                }
+                recordsJdbcRepository.updateRecordDates(recordDates);
+            }
+        } catch (RuntimeException e) {
+            // Filters fall back to fewer matches until the next start picks up the rest
+            log.error("attendance_records: record_date backfill stopped after {} rows", parsed + unparseable, e);
+            return;
+        }
+        if (parsed + unparseable > 0) {
+            log.info("attendance_records: backfilled record_date on {} rows, {} rows have an unparseable date",
+                    parsed, unparseable);
+        }
+    }
 
-        List<AttendanceCsvFile> all = repo.findAll();
+    public Page<AttendanceCsvFile> filterAttendance(Integer year, String month, String date, Pageable pageable) {
 
         Integer targetMonth = null;
         LocalDate targetDate = null;
@@ -45,72 +102,52 @@ public class AttendanceFilterService {
             } catch (Exception ignore) {}
         }
 
-        Integer finalMonth = targetMonth;
-        LocalDate finalDate = targetDate;
-
-        return all.stream()
-                .filter(row -> {
-
-                    if (row.getDate() == null || row.getDate().isBlank()) {
-                        return false;
-                    }
-
-                    LocalDate recordDate;
-                    try {
-                        recordDate = LocalDate.parse(row.getDate()); // parse DB "YYYY-MM-DD"
-                    } catch (Exception e) {
-                        return false;
-                    }
-
-                    // Filter by date
-                    if (finalDate != null && !recordDate.equals(finalDate)) {
-                        return false;
-                    }
+        // Filter by date (must also fall in the selected month, if any)
+        if (targetDate != null) {
+            if (targetMonth != null && targetDate.getMonthValue() != targetMonth) {
+                return Page.empty(pageable);
+            }
+            return repo.findInRange(targetDate, targetDate, pageable);
+        }
 
-                    // Filter by month
-                    if (finalMonth != null && recordDate.getMonthValue() != finalMonth) {
-                        return false;
-                    }
+        // Filter by calendar month — defaults to the current year
+        if (targetMonth != null) {
+            YearMonth ym = YearMonth.of(year != null ? year : LocalDate.now().getYear(), targetMonth);
+            return repo.findInRange(ym.atDay(1), ym.atEndOfMonth(), pageable);
+        }
 
-                    return true;
-                })
-                .collect(Collectors.toList());
+        return repo.findAll(withOrder(pageable));
     }
     // @Cacheable(value = "attendanceAllCache")
-    public List<AttendanceCsvFile> filterAttendance(Integer userId,Integer year, Integer month, LocalDate date) {
+    public Page<AttendanceCsvFile> filterAttendance(Integer userId, Integer year, Integer month, LocalDate date,
+                                                    Pageable pageable) {
 
-        List<AttendanceCsvFile> all = repo.findAll();
+        String empid = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .getEmpid();
 
         // Filter by exact date
         if (date != null) {
-            return all.stream()
-                    .filter(a -> LocalDate.parse(a.getDate()).equals(date))
-                    .collect(Collectors.toList());
+            return repo.findInRangeForEmployee(empid, date, date, pageable);
         }
 
         // Filter by month + year
         if (year != null && month != null) {
-            LocalDate cycleStart = getCycleStartForMonth(year, month);
-            LocalDate cycleEnd = getCycleEndForMonth(year, month);
-
-            return all.stream()
-                    .filter(a -> {
-                        LocalDate d = LocalDate.parse(a.getDate());
-                        return !d.isBefore(cycleStart) && !d.isAfter(cycleEnd);
-                    })
-                    .collect(Collectors.toList());
+            return repo.findInRangeForEmployee(empid,
+                    PayrollCycle.startOfMonth(year, month),
+                    PayrollCycle.endOfMonth(year, month),
+                    pageable);
         }
 
         // Current Active Cycle Filter (Default)
-        LocalDate start = getCurrentCycleStart();
-        LocalDate end = getCurrentCycleEnd();
-
-        return all.stream()
-                .filter(a -> {
-                    LocalDate d = LocalDate.parse(a.getDate());
-                    return !d.isBefore(start) && !d.isAfter(end);
-                })
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        return repo.findInRangeForEmployee(empid, PayrollCycle.startOf(today), PayrollCycle.endOf(today), pageable);
+    }
+
+    private Pageable withOrder(Pageable pageable) {
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), RECORD_ORDER)
+                : Pageable.unpaged(RECORD_ORDER);
     }
 
 
@@ -121,34 +158,6 @@ public class AttendanceFilterService {
     public List<AttendanceCsvFile> getAll() {
         return repo.findAll();
     }
-    private LocalDate getCycleStartForMonth(int year, int month) {
-        // month = 12 → Cycle Start = 24 Nov (for Dec cycle)
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(24)
-                .minusMonths(1);
-    }
-
-    private LocalDate getCycleEndForMonth(int year, int month) {
-        // month = 12 → Cycle End = 23 Dec
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(23);
-    }
-
-    private LocalDate getCurrentCycleStart() {
-        LocalDate today = LocalDate.now();
-        if (today.getDayOfMonth() < 24) {
-            return today.withDayOfMonth(24).minusMonths(1);
-        }
-        return today.withDayOfMonth(24);
-    }
-
-    private LocalDate getCurrentCycleEnd() {
-        LocalDate today = LocalDate.now();
-        if (today.getDayOfMonth() < 24) {
-            return today.withDayOfMonth(23);
-        }
-        return today.withDayOfMonth(23).plusMonths(1);
-    }
     @Transactional
     public void updateBulkStatus(List<AttendanceStatusUpdateDTO> updates) {
 
@@ -159,6 +168,12 @@ public class AttendanceFilterService {
         for (AttendanceStatusUpdateDTO dto : updates) {
             updateSingle(dto);
         }
+
+        updates.stream()
+                .map(dto -> AttendanceCsvFile.parseDate(dto.getDate()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(d -> eventPublisher.publishEvent(new AttendanceRecordsChangedEvent(d)));
     }
 
     /* ================= CORE UPDATE ================= */
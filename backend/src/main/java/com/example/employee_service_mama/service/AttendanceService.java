@@ -1,102 +1,148 @@
 package com.example.employee_service_mama.service;
 
+import com.example.employee_service_mama.dto.AttendanceCycleCounts;
+import com.example.employee_service_mama.dto.AttendanceCycleStatsDTO;
 import com.example.employee_service_mama.dto.AttendanceResponseDTO;
 import com.example.employee_service_mama.dto.AttendanceStatusUpdateDTO;
+import com.example.employee_service_mama.dto.BulkJobResult;
+import com.example.employee_service_mama.dto.CursorPage;
+import com.example.employee_service_mama.dto.UserRef;
 import com.example.employee_service_mama.dto.WeeklyAttendanceDTO;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
 import com.example.employee_service_mama.model.Attendance;
 import com.example.employee_service_mama.model.Users;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
 import com.example.employee_service_mama.repository.AttendanceRepository;
-import com.example.employee_service_mama.repository.HolidayRepository;
-import com.example.employee_service_mama.repository.LeaveRequestsRepository;
 import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.rules.AttendanceOutcome;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import com.example.employee_service_mama.rules.CsvMark;
+import com.example.employee_service_mama.util.PayrollCycle;
+import com.example.employee_service_mama.util.StripedLocks;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.time.DayOfWeek;
 import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AttendanceService {
 
     private final AttendanceRepository attendanceRepository;
+    private final AttendanceJdbcRepository attendanceJdbcRepository;
     private final UserRepository userRepository;
-    private final LeaveRequestsRepository leaveRepository;
-    private final HolidayRepository holidayRepository;
-    private final LocalTime LOGIN_START = LocalTime.of(9, 0);
-    private final LocalTime FULL_PRESENT_LIMIT = LocalTime.of(9, 10);
-    private final LocalTime AUTO_LOGOUT_TIME = LocalTime.of(18, 30);
-    private final int FULL_DAY_HOURS = 9;
-    private final int MIN_HOURS = 5;
+    private final DayCalendar dayCalendar;
+    private final UserDirectory userDirectory;
+    private final HolidayCalendar holidayCalendar;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttendanceSummaryService attendanceSummaryService;
+    private final EntityManager entityManager;
+    private final AttendancePolicy attendancePolicy;
+    private final StripedLocks userLocks = new StripedLocks(256);
+
+    @Value("${app.attendance.batch-size:500}")
+    private int batchSize;
+
+    // Sessions closed so far by the running auto-logout job
+    private final AtomicInteger autoLogoutProgress = new AtomicInteger();
+
+    @PostConstruct
+    void registerMetrics() {
+        meterRegistry.gauge("attendance.auto_logout.progress", autoLogoutProgress);
+    }
 
     private boolean isWeekend(LocalDate date) {
         return date.getDayOfWeek().name().equals("SATURDAY") ||
                 date.getDayOfWeek().name().equals("SUNDAY");
     }
 
-    private long workedHours(LocalTime login, LocalTime logout) {
-        return Duration.between(login, logout).toHours();
+    // LOGIN
+    // Per-user lock instead of a service-wide monitor; the DB unique key covers other replicas
+    public String login(Integer userId) {
+        ReentrantLock lock = userLocks.forKey(userId);
+        lock.lock();
+        try {
+            return doLogin(userId);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    // LOGIN
-    // LOGIN (corrected to prevent duplicate entries)
-    public synchronized String login(Integer userId) {
-        Users user = userRepository.findById(userId)
+    // Hot path: user, holiday and leave checks are in-memory (UserDirectory / DayCalendar),
+    // so a successful login costs exactly one statement — the guarded insert. Listeners of the
+    // event below only queue work on the attendance executor (AttendanceServiceLoginTest).
+    private String doLogin(Integer userId) {
+        UserDirectory.KnownUser user = userDirectory.find(userId)
                 .orElseThrow(() -> new RuntimeException("User Not Found"));
 
         LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
-        boolean isOnLeave = leaveRepository.existsApprovedLeaveForDate(userId, today);
+        LocalTime now = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
         if (isHoliday(today)) return "Holiday — Login not allowed";
+        boolean isOnLeave = dayCalendar.isOnApprovedLeave(userId, today);
         if (isOnLeave) {
             return "You are on approved leave today — Login not allowed";
         }
         if (isWeekend(today)) return "Weekend — Login not allowed";
-        if (now.isBefore(LOGIN_START)) return "Login not allowed before 9:00 AM";
-
-
-        boolean exists = attendanceRepository.existsByUserIdAndDate(userId, today);
+        if (now.isBefore(attendancePolicy.loginStart())) {
+            return "Login not allowed before " + attendancePolicy.loginStart();
+        }
 
-        if (exists) {
+        // INSERT ... ON CONFLICT DO NOTHING → exactly one row per (user, day), whoever wins
+        if (!attendanceJdbcRepository.insertLogin(userId, user.empid(), today, now)) {
             Attendance att = attendanceRepository.findByUserIdAndDate(userId, today);
 
-            if (att.getLogoutTime() == null) {
+            if (att == null || att.getLogoutTime() == null) {
                 return "Already logged in today";
             }
             return "You have already logged out today — cannot login again";
         }
 
-        Attendance attendance = Attendance.builder()
-                .user(user)
-                .empid(user.getEmpid())
-                .date(today)
-                .loginTime(now)
-                .status("PRESENT")
-                .remarks("Login Recorded")
-                .build();
+        eventPublisher.publishEvent(AttendanceChangedEvent.forUser(userId, today));
+        return "Login Successful";
+    }
 
+    // LOGOUT Method
+    public String logout(Integer userId) {
+        ReentrantLock lock = userLocks.forKey(userId);
+        lock.lock();
         try {
-            attendanceRepository.save(attendance);
-        } catch (Exception e) {
-            return "Already logged in today";
+            return doLogout(userId);
+        } finally {
+            lock.unlock();
         }
-
-        return "Login Successful";
     }
 
-    // LOGOUT Method
-    public synchronized String logout(Integer userId) {
+    private String doLogout(Integer userId) {
         LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
+        LocalTime now = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
         if (isHoliday(today)) return "Holiday — Logout not allowed";
         if (isWeekend(today)) return "Weekend — Logout not needed";
 
-        boolean isOnLeave = leaveRepository.existsApprovedLeaveForDate(userId, today);
+        boolean isOnLeave = dayCalendar.isOnApprovedLeave(userId, today);
         if (isOnLeave) {
             return "You are on approved leave today — Logout not needed";
         }
@@ -111,91 +157,159 @@ public class AttendanceService {
             return "You have already logged out today";
         }
 
-        att.setLogoutTime(now);
+        // Shared rules (see AttendancePolicy) — no standup sheet involved yet
+        AttendanceOutcome outcome = attendancePolicy.classify(att.getLoginTime(), now, CsvMark.NONE);
+        String remarks = "Logout — " + outcome.remark(attendancePolicy.workedHours(att.getLoginTime(), now));
 
-        long hours = workedHours(att.getLoginTime(), now);
-
-        LocalTime login = att.getLoginTime();
-
-        // Special Full Day Rule
-        // Login between 09:00 - 09:05  AND Logout after 18:00
-        if (!login.isAfter(FULL_PRESENT_LIMIT) && !now.isBefore(LocalTime.of(18, 0))) {
-            att.setStatus("PRESENT");
-            att.setRemarks("Full Day Present — Time Condition Met");
-        } else {
-            // 🔹 Default Logic
-            if (hours < MIN_HOURS) {
-                att.setStatus("ABSENT");
-                att.setRemarks("Logout — Worked: " + hours + " Hrs | ABSENT");
-            } else {
-                if (login.isAfter(FULL_PRESENT_LIMIT)) {
-                    att.setStatus("HALF_DAY");
-                    att.setRemarks("Logout — Late Login | HALF DAY");
-                } else {
-                    String status = (hours >= FULL_DAY_HOURS) ? "PRESENT" : "HALF_DAY";
-                    att.setStatus(status);
-                    att.setRemarks("Logout — Worked: " + hours + " Hrs | " + status);
-                }
-            }
+        // Guarded on logout_time IS NULL → a concurrent logout on another replica wins cleanly
+        boolean closed = attendanceJdbcRepository.closeSession(
+                new AttendanceJdbcRepository.SessionClose(att.getId(), now, outcome.status(), remarks));
+        if (!closed) {
+            return "You have already logged out today";
         }
 
-        attendanceRepository.save(att);
-        return "Logout Updated: " + att.getStatus();
+        eventPublisher.publishEvent(AttendanceChangedEvent.forUser(userId, today));
+        return "Logout Updated: " + outcome.status();
     }
 
 
 
     // 1:05 PM AUTO ABSENT
+    // Set-based: one anti-join finds users without a row today, missing rows go in JDBC batches.
+    // Safe to run twice — the insert is guarded, so a second run writes nothing.
     @Scheduled(cron = "0 5 13 * * MON-FRI")
-    public void autoAbsentAfter1PM() {
+    @Transactional
+    public BulkJobResult autoAbsentAfter1PM() {
+        long started = System.currentTimeMillis();
         LocalDate today = LocalDate.now();
-        if (isWeekend(today)) return;
-
-        List<Users> users = userRepository.findAll();
-        for (Users user : users) {
-            Attendance att = attendanceRepository.findByUserIdAndDate(user.getId(), today);
+        if (isWeekend(today)) {
+            return new BulkJobResult("autoAbsent", today, 0, 0, 0);
+        }
 
-            if (att == null) {
-                Attendance a = Attendance.builder()
-                        .user(user)
-                        .empid(user.getEmpid())
-                        .date(today)
-                        .status("ABSENT")
-                        .remarks("Auto Absent — No Login Before 1 PM")
-                        .build();
-                attendanceRepository.save(a);
-            }
+        List<UserRef> missing = userRepository.findUsersWithoutAttendanceOn(today);
+        int written = attendanceJdbcRepository.insertStatusRows(
+                missing, today, "ABSENT", "Auto Absent — No Login Before 1 PM", batchSize);
+        if (written > 0) {
+            eventPublisher.publishEvent(AttendanceChangedEvent.forDate(today));
         }
+
+        BulkJobResult result = new BulkJobResult("autoAbsent", today, missing.size(), written,
+                System.currentTimeMillis() - started);
+        log.info("Auto absent for {}: missing={}, written={}, took={}ms",
+                today, result.getScanned(), result.getWritten(), result.getElapsedMs());
+        return result;
     }
 
     // 6:30 PM AUTO LOGOUT
+    // Streams only today's open sessions and closes them in batches of app.attendance.batch-size.
+    // Progress is exposed as attendance.auto_logout.progress / .duration / .closed metrics.
     @Scheduled(cron = "0 35 18 * * MON-FRI")
-    public void autoLogoutForForgotUsers() {
+    @Transactional
+    public BulkJobResult autoLogoutForForgotUsers() {
         LocalDate today = LocalDate.now();
-        if (isWeekend(today)) return;
+        if (isWeekend(today)) {
+            return new BulkJobResult("autoLogout", today, 0, 0, 0);
+        }
 
-        List<Users> users = userRepository.findAll();
-        for (Users user : users) {
-            Attendance att = attendanceRepository.findByUserIdAndDate(user.getId(), today);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.currentTimeMillis();
+        autoLogoutProgress.set(0);
 
-            if (att != null && att.getLoginTime() != null && att.getLogoutTime() == null) {
+        List<AttendanceJdbcRepository.SessionClose> pending = new ArrayList<>(batchSize);
+        int[] totals = new int[2]; // [0] scanned, [1] written
 
-                att.setLogoutTime(AUTO_LOGOUT_TIME);
-                long hours = workedHours(att.getLoginTime(), AUTO_LOGOUT_TIME);
+        attendanceJdbcRepository.forEachOpenSession(today, batchSize, session -> {
+            pending.add(closeForgottenSession(session.id(), session.loginTime()));
+            totals[0]++;
+            if (pending.size() >= batchSize) {
+                totals[1] += flushClosedSessions(pending);
+            }
+        });
+        totals[1] += flushClosedSessions(pending);
+        if (totals[1] > 0) {
+            eventPublisher.publishEvent(AttendanceChangedEvent.forDate(today));
+        }
 
-                if (hours < MIN_HOURS) {
-                    att.setStatus("ABSENT");
-                    att.setRemarks("Auto Absent — Less than 5 Hours");
-                } else {
-                    att.setStatus(att.getLoginTime().isAfter(FULL_PRESENT_LIMIT)
-                            ? "HALF_DAY"
-                            : "HALF_DAY");
-                    att.setRemarks("Auto Logout — Half Day (Forgot Logout)");
-                }
+        sample.stop(meterRegistry.timer("attendance.auto_logout.duration"));
+        BulkJobResult result = new BulkJobResult("autoLogout", today, totals[0], totals[1],
+                System.currentTimeMillis() - started);
+        log.info("Auto logout for {}: open={}, closed={}, took={}ms",
+                today, result.getScanned(), result.getWritten(), result.getElapsedMs());
+        return result;
+    }
 
-                attendanceRepository.save(att);
+    private AttendanceJdbcRepository.SessionClose closeForgottenSession(int attendanceId, LocalTime login) {
+        LocalTime logoutAt = attendancePolicy.autoLogoutTime();
+        AttendanceOutcome outcome = attendancePolicy.classifyForgottenLogout(login);
+        return new AttendanceJdbcRepository.SessionClose(attendanceId, logoutAt,
+                outcome.status(), outcome.remark(attendancePolicy.workedHours(login, logoutAt)));
+    }
+
+    // RE-EVALUATION AFTER A POLICY CHANGE
+    // Streams every logged-in day in [from, to] through the current AttendancePolicy.
+    // dryRun → only counts the days whose status would change; otherwise rewrites them in batches.
+    // HR-marked days are left alone.
+    @Transactional
+    public BulkJobResult reclassify(LocalDate from, LocalDate to, boolean dryRun) {
+        long started = System.currentTimeMillis();
+
+        List<AttendanceJdbcRepository.FinalStatus> pending = new ArrayList<>(batchSize);
+        Set<LocalDate> touched = new TreeSet<>();
+        int[] totals = new int[3]; // [0] scanned, [1] changed, [2] written
+
+        attendanceJdbcRepository.forEachClassifiableDay(from, to, batchSize, day -> {
+            totals[0]++;
+            if (day.remarks() != null && day.remarks().contains("by HR")) return;
+
+            AttendanceOutcome outcome = classifyStoredDay(day);
+            if (outcome == null || outcome.status().equals(day.status())) return;
+
+            totals[1]++;
+            if (dryRun) return;
+
+            touched.add(day.date());
+            pending.add(new AttendanceJdbcRepository.FinalStatus(day.userId(), day.empid(), day.id(),
+                    outcome.status(),
+                    "Reclassified — " + outcome.remark(attendancePolicy.workedHours(day.loginTime(), day.logoutTime()))));
+            if (pending.size() >= batchSize) {
+                totals[2] += attendanceJdbcRepository.updateStatuses(pending, batchSize);
+                pending.clear();
             }
+        });
+        totals[2] += attendanceJdbcRepository.updateStatuses(pending, batchSize);
+
+        // Cycle summaries / wallet accruals catch up per touched date
+        touched.forEach(d -> eventPublisher.publishEvent(AttendanceChangedEvent.forDate(d)));
+
+        BulkJobResult result = new BulkJobResult(dryRun ? "reclassify-dry-run" : "reclassify", from,
+                totals[0], dryRun ? totals[1] : totals[2], System.currentTimeMillis() - started);
+        log.info("Reclassify {} → {} (dryRun={}): scanned={}, changed={}, written={}, took={}ms",
+                from, to, dryRun, totals[0], totals[1], totals[2], result.getElapsedMs());
+        return result;
+    }
+
+    // Same decision path the day originally went through: sheet → finalization, auto-closed → forgot logout
+    private AttendanceOutcome classifyStoredDay(AttendanceJdbcRepository.ClassifiableDay day) {
+        if (day.csvStatus() != null) {
+            return attendancePolicy.classify(day.loginTime(), day.logoutTime(), CsvMark.parse(day.csvStatus()));
         }
+        if (day.logoutTime() == null) return null; // session still open
+
+        boolean autoClosed = day.logoutTime().equals(attendancePolicy.autoLogoutTime())
+                && day.remarks() != null && day.remarks().startsWith("Auto ");
+        return autoClosed
+                ? attendancePolicy.classifyForgottenLogout(day.loginTime())
+                : attendancePolicy.classify(day.loginTime(), day.logoutTime(), CsvMark.NONE);
+    }
+
+    private int flushClosedSessions(List<AttendanceJdbcRepository.SessionClose> pending) {
+        if (pending.isEmpty()) return 0;
+
+        int written = attendanceJdbcRepository.closeSessions(pending);
+        autoLogoutProgress.addAndGet(pending.size());
+        meterRegistry.counter("attendance.auto_logout.closed").increment(written);
+        pending.clear();
+        return written;
     }
 
     // WEEKEND MARKING
@@ -219,54 +333,46 @@ public class AttendanceService {
                 attendanceRepository.save(att);
             }
         }
+        eventPublisher.publishEvent(AttendanceChangedEvent.forDate(today));
     }
 
     // SANDWICH POLICY — Friday or Monday Absent → Sat & Sun Absent
+    // Runs every night, not just once Friday / Monday are final: an HR correction, CSV finalization
+    // or reclassify can mark that Friday or Monday ABSENT later in the week, and the next night picks
+    // it up (until Friday, when the window moves on). One query plus one batch, so nightly is cheap.
     @Scheduled(cron = "0 10 0 * * *") // 12:10 AM Daily
-    public void sandwichPolicyFix() {
-        LocalDate today = LocalDate.now();
-        List<Users> users = userRepository.findAll();
-
-        for (Users user : users) {
-
-            LocalDate friday = today.with(java.time.DayOfWeek.FRIDAY);
-            if (friday.isAfter(today)) friday = friday.minusWeeks(1);
-
-            LocalDate saturday = friday.plusDays(1);
-            LocalDate sunday = friday.plusDays(2);
-            LocalDate monday = friday.plusDays(3);
-
-            Attendance friAtt = attendanceRepository.findByUserIdAndDate(user.getId(), friday);
-            Attendance monAtt = attendanceRepository.findByUserIdAndDate(user.getId(), monday);
-
-            boolean isFridayAbsent = friAtt != null && "ABSENT".equals(friAtt.getStatus());
-            boolean isMondayAbsent = monAtt != null && "ABSENT".equals(monAtt.getStatus());
-
-            // Apply sandwich for both cases
-            if (isFridayAbsent || isMondayAbsent) {
-                markAbsentOrUpdate(user, saturday);
-                markAbsentOrUpdate(user, sunday);
-            }
-        }
+    @Transactional
+    public BulkJobResult sandwichPolicyFix() {
+        return applySandwichPolicy(LocalDate.now());
     }
 
-    private void markAbsentOrUpdate(Users user, LocalDate date) {
-        Attendance att = attendanceRepository.findByUserIdAndDate(user.getId(), date);
-
-        if (att == null) {
-            att = Attendance.builder()
-                    .user(user)
-                    .empid(user.getEmpid())
-                    .date(date)
-                    .remarks("Sandwich Applied")
-                    .build();
-        } else {
-            att.setRemarks("Sandwich Applied");
+    @Transactional
+    public BulkJobResult applySandwichPolicy(LocalDate today) {
+        long started = System.currentTimeMillis();
+
+        LocalDate friday = today.with(DayOfWeek.FRIDAY);
+        if (friday.isAfter(today)) friday = friday.minusWeeks(1);
+
+        LocalDate saturday = friday.plusDays(1);
+        LocalDate sunday = friday.plusDays(2);
+        LocalDate monday = friday.plusDays(3);
+
+        // One range query for the whole company instead of two lookups per user
+        List<UserRef> affected = attendanceRepository.findUsersAbsentOnEither(friday, monday);
+        int written = attendanceJdbcRepository.upsertStatusRows(
+                affected, List.of(saturday, sunday), "ABSENT", "Sandwich Applied", batchSize);
+        if (written > 0) {
+            eventPublisher.publishEvent(AttendanceChangedEvent.forDate(saturday));
+            eventPublisher.publishEvent(AttendanceChangedEvent.forDate(sunday));
         }
 
-        att.setStatus("ABSENT");
-        attendanceRepository.save(att);
+        BulkJobResult result = new BulkJobResult("sandwich", today, affected.size(), written,
+                System.currentTimeMillis() - started);
+        log.info("Sandwich policy for {} → {}: users={}, rows={}, took={}ms",
+                saturday, sunday, result.getScanned(), result.getWritten(), result.getElapsedMs());
+        return result;
     }
+
     public List<AttendanceResponseDTO> getAllAttendance(String search, String date) {
 
         LocalDate filterDate;
@@ -315,30 +421,14 @@ public class AttendanceService {
 
         return dto;
     }
-    // ==================== MONTHLY (24 → 23) CYCLE HELPER ====================
-    private LocalDate getCycleStart(LocalDate today) {
-        if (today.getDayOfMonth() >= 24) {
-            return today.withDayOfMonth(24);
-        } else {
-            return today.minusMonths(1).withDayOfMonth(24);
-        }
-    }
-
-    private LocalDate getCycleEnd(LocalDate today) {
-        if (today.getDayOfMonth() >= 24) {
-            return today.plusMonths(1).withDayOfMonth(23);
-        } else {
-            return today.withDayOfMonth(23);
-        }
-    }
 
 // ==================== REPORTS (Monthly Cycle Applied) ====================
 
     // Return all monthly records sorted by date DESC
     public List<Attendance> getAttendanceByUserId(Integer userId) {
         LocalDate today = LocalDate.now();
-        LocalDate start = getCycleStart(today);
-        LocalDate end = getCycleEnd(today);
+        LocalDate start = PayrollCycle.startOf(today);
+        LocalDate end = PayrollCycle.endOf(today);
         return attendanceRepository.findAttendanceHistoryForRange(userId, start, end);
     }
 
@@ -347,31 +437,65 @@ public class AttendanceService {
         return attendanceRepository.findByUserIdAndDate(userId, LocalDate.now());
     }
 
+    // Cycle counters come from the materialized attendance_cycle_summary row
     public Integer presentdays(Integer userId) {
-        LocalDate today = LocalDate.now();
-        return attendanceRepository.countPresentDaysInRange(userId, getCycleStart(today), getCycleEnd(today));
+        return attendanceSummaryService.currentCycle(userId).getPresentDays();
     }
 
     public Integer absentdays(Integer userId) {
-        LocalDate today = LocalDate.now();
-        return attendanceRepository.countAbsentDaysInRange(userId, getCycleStart(today), getCycleEnd(today));
+        return attendanceSummaryService.currentCycle(userId).getAbsentDays();
     }
 
     public Integer halfdays(Integer userId) {
-        LocalDate today = LocalDate.now();
-        return attendanceRepository.countHalfDaysInRange(userId, getCycleStart(today), getCycleEnd(today));
+        return attendanceSummaryService.currentCycle(userId).getHalfDays();
     }
 
     public Integer late(Integer userId) {
-        LocalDate today = LocalDate.now();
-        return attendanceRepository.countLateLoginDaysInRange(userId, FULL_PRESENT_LIMIT,
-                getCycleStart(today), getCycleEnd(today));
+        return attendanceSummaryService.currentCycle(userId).getLateDays();
+    }
+
+    /**
+     * Every cycle counter for the employee dashboard in one query.
+     * year/month select a payroll cycle (default: current one); weekly hours are optional.
+     */
+    public AttendanceCycleStatsDTO getCycleStats(Integer userId, Integer year, Integer month,
+                                                 boolean includeWeekly) {
+        LocalDate start;
+        LocalDate end;
+        if (year != null && month != null) {
+            start = PayrollCycle.startOfMonth(year, month);
+            end = PayrollCycle.endOfMonth(year, month);
+        } else {
+            LocalDate today = LocalDate.now();
+            start = PayrollCycle.startOf(today);
+            end = PayrollCycle.endOf(today);
+        }
+
+        AttendanceCycleCounts counts =
+                attendanceRepository.countCycleStats(userId, attendancePolicy.fullPresentLimit(), start, end);
+
+        AttendanceCycleStatsDTO dto = new AttendanceCycleStatsDTO();
+        dto.setUserId(userId);
+        dto.setCycleStart(start);
+        dto.setCycleEnd(end);
+        dto.setPresentDays(counts.getPresentDays() == null ? 0 : counts.getPresentDays());
+        dto.setAbsentDays(counts.getAbsentDays() == null ? 0 : counts.getAbsentDays());
+        dto.setHalfDays(counts.getHalfDays() == null ? 0 : counts.getHalfDays());
+        dto.setLateDays(counts.getLateDays() == null ? 0 : counts.getLateDays());
+        dto.setPaidDays(counts.getPaidDays() == null ? 0.0 : counts.getPaidDays());
+        dto.setTotalPayrollDays((int) (end.toEpochDay() - start.toEpochDay() + 1));
+        dto.setWorkingDays(holidayCalendar.workingDaysBetween(start, end));
+
+        if (includeWeekly) {
+            dto.setWeekly(getWeeklyAttendance(userId));
+        }
+        return dto;
     }
 
     // Monthly history for UI attendance table
     public List<Attendance> getAttendancehistory(Integer userId) {
         LocalDate today = LocalDate.now();
-        return attendanceRepository.findAttendanceHistoryForRange(userId, getCycleStart(today), getCycleEnd(today));
+        return attendanceRepository.findAttendanceHistoryForRange(userId, PayrollCycle.startOf(today), PayrollCycle.endOf(today));
     }
     public int getTotalDaysOfPayrollMonth(Integer year, Integer month) {
 
@@ -379,21 +503,21 @@ public class AttendanceService {
             throw new RuntimeException("Month and year are required");
         }
 
-        LocalDate cycleStart = getCycleStartForMonth(year, month);
-        LocalDate cycleEnd = getCycleEndForMonth(year, month);
+        LocalDate cycleStart = PayrollCycle.startOfMonth(year, month);
+        LocalDate cycleEnd = PayrollCycle.endOfMonth(year, month);
 
         // +1 because both start and end date included
         return (int) (cycleEnd.toEpochDay() - cycleStart.toEpochDay() + 1);
     }
-    private LocalDate getCycleStartForMonth(int year, int month) {
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(24)
-                .minusMonths(1);
-    }
 
-    private LocalDate getCycleEndForMonth(int year, int month) {
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(23);
+    // Weekdays minus holidays in the payroll cycle (in-memory, see HolidayCalendar)
+    public int getWorkingDaysOfPayrollMonth(Integer year, Integer month) {
+
+        if (year == null || month == null) {
+            throw new RuntimeException("Month and year are required");
+        }
+        return holidayCalendar.workingDaysBetween(
+                PayrollCycle.startOfMonth(year, month), PayrollCycle.endOfMonth(year, month));
     }
 
     //Weekly data
@@ -436,6 +560,42 @@ public class AttendanceService {
     public List<Attendance> getFullAttendanceHistory(Integer userId) {
         return attendanceRepository.findByUserIdOrderByDateDesc(userId);
     }
+
+    // Keyset page of full history, newest first. Cursor format: "<yyyy-MM-dd>_<id>"
+    public CursorPage<Attendance> getFullAttendanceHistoryPage(Integer userId, String cursor, Integer size) {
+        Pageable page = PageRequest.of(0, CursorPage.clampSize(size));
+
+        List<Attendance> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = attendanceRepository.findHistoryFirstPage(userId, page);
+        } else {
+            int sep = cursor.lastIndexOf('_');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDate date = LocalDate.parse(cursor.substring(0, sep));
+            Integer id = Integer.valueOf(cursor.substring(sep + 1));
+            rows = attendanceRepository.findHistoryPageAfter(userId, date, id, page);
+        }
+
+        String next = null;
+        if (rows.size() == page.getPageSize()) {
+            Attendance last = rows.get(rows.size() - 1);
+            next = last.getDate() + "_" + last.getId();
+        }
+        return new CursorPage<>(rows, next);
+    }
+
+    // Streams full history row by row; rows are detached once handed off so the context stays small
+    @Transactional
+    public void streamFullAttendanceHistory(Integer userId, Consumer<Attendance> sink) {
+        try (Stream<Attendance> rows = attendanceRepository.streamHistory(userId)) {
+            rows.forEach(row -> {
+                sink.accept(row);
+                entityManager.detach(row);
+            });
+        }
+    }
     @Transactional
     public void updateBulkStatusByEmpidAndDate(
             List<AttendanceStatusUpdateDTO> updates
@@ -485,6 +645,7 @@ public class AttendanceService {
         );
 
         attendanceRepository.save(attendance);
+        eventPublisher.publishEvent(AttendanceChangedEvent.forUser(user.getId(), date));
     }
     public List<Attendance> getAttendanceHistory(
             Integer userId,
@@ -503,8 +664,8 @@ public class AttendanceService {
 
         // 2️⃣ Year + Month → payroll cycle
         if (year != null && month != null) {
-            LocalDate start = getCycleStartForMonth(year, month);
-            LocalDate end   = getCycleEndForMonth(year, month);
+            LocalDate start = PayrollCycle.startOfMonth(year, month);
+            LocalDate end   = PayrollCycle.endOfMonth(year, month);
 
             return attendanceRepository
                     .findAttendanceHistoryForRange(userId, start, end);
@@ -523,23 +684,13 @@ public class AttendanceService {
         LocalDate today = LocalDate.now();
         return attendanceRepository.findAttendanceHistoryForRange(
                 userId,
-                getCurrentCycleStart(today),
-                getCurrentCycleEnd(today)
+                PayrollCycle.startOf(today),
+                PayrollCycle.endOf(today)
         );
     }
-    private LocalDate getCurrentCycleStart(LocalDate today) {
-        return today.getDayOfMonth() < 24
-                ? today.withDayOfMonth(24).minusMonths(1)
-                : today.withDayOfMonth(24);
-    }
 
-    private LocalDate getCurrentCycleEnd(LocalDate today) {
-        return today.getDayOfMonth() < 24
-                ? today.withDayOfMonth(23)
-                : today.withDayOfMonth(23).plusMonths(1);
-    }
     private boolean isHoliday(LocalDate date) {
-        return holidayRepository.existsByDate(date);
+        return dayCalendar.isHoliday(date);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.config.AsyncConfig;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.model.AttendanceCycleSummary;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceSummaryRepository;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import com.example.employee_service_mama.util.PayrollCycle;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps attendance_cycle_summary in step with the attendance table, so the
+ * dashboard counters are one primary-key read instead of four COUNT scans.
+ */
+@Service
+@Slf4j
+public class AttendanceSummaryService {
+
+    private final AttendanceSummaryRepository summaryRepository;
+    private final AttendanceJdbcRepository attendanceJdbcRepository;
+    private final AttendancePolicy attendancePolicy;
+    private final Executor attendanceEventExecutor;
+
+    // (user, cycle) rows with changes not yet folded in → change count; present = the row may be stale
+    private final ConcurrentHashMap<CycleKey, Long> pending = new ConcurrentHashMap<>();
+
+    private record CycleKey(Integer userId, LocalDate cycleStart) {
+    }
+
+    public AttendanceSummaryService(AttendanceSummaryRepository summaryRepository,
+                                    AttendanceJdbcRepository attendanceJdbcRepository,
+                                    AttendancePolicy attendancePolicy,
+                                    @Qualifier(AsyncConfig.ATTENDANCE_EVENTS) Executor attendanceEventExecutor) {
+        this.summaryRepository = summaryRepository;
+        this.attendanceJdbcRepository = attendanceJdbcRepository;
+        this.attendancePolicy = attendancePolicy;
+        this.attendanceEventExecutor = attendanceEventExecutor;
+    }
+
+    // -------------------- INCREMENTAL MAINTENANCE --------------------
+
+    // One user's login / logout / edit. No statement here — this can run inside publishEvent on the
+    // login thread. The row is marked stale and one refresh per burst is queued on the attendance
+    // executor; until it lands, currentCycle recomputes for the reader.
+    @TransactionalEventListener(fallbackExecution = true, condition = "!#event.bulk")
+    public void onUserAttendanceChanged(AttendanceChangedEvent event) {
+        CycleKey key = new CycleKey(event.userId(), PayrollCycle.startOf(event.date()));
+        if (pending.merge(key, 1L, Long::sum) == 1L) {
+            attendanceEventExecutor.execute(() -> refreshPending(key, event.date()));
+        }
+    }
+
+    private void refreshPending(CycleKey key, LocalDate date) {
+        Long seen = pending.get(key);
+        if (seen == null) return;
+        try {
+            refresh(key.userId(), date);
+        } catch (Exception e) {
+            log.error("Cycle summary refresh failed for userId={} on {}", key.userId(), date, e);
+        }
+        // A change counted after `seen` may have committed too late for this statement → once more
+        if (!pending.remove(key, seen)) {
+            attendanceEventExecutor.execute(() -> refreshPending(key, date));
+        }
+    }
+
+    // Bulk jobs touch every user → off the caller's thread
+    @Async(AsyncConfig.ATTENDANCE_EVENTS)
+    @TransactionalEventListener(fallbackExecution = true, condition = "#event.bulk")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBulkAttendanceChanged(AttendanceChangedEvent event) {
+        try {
+            refresh(event.userId(), event.date());
+        } catch (Exception e) {
+            log.error("Cycle summary refresh failed for userId={} on {}", event.userId(), event.date(), e);
+        }
+    }
+
+    // -------------------- REBUILD --------------------
+
+    // Recomputes the named cycle (e.g. 2025/12 → 24 Nov .. 23 Dec) for every user
+    @Transactional
+    public int rebuildCycle(int year, int month) {
+        LocalDate start = PayrollCycle.startOfMonth(year, month);
+        LocalDate end = PayrollCycle.endOfMonth(year, month);
+
+        int rows = attendanceJdbcRepository.refreshCycleSummary(null, start, end, attendancePolicy.fullPresentLimit());
+        log.info("Rebuilt attendance cycle summary {} → {} ({} users)", start, end, rows);
+        return rows;
+    }
+
+    // -------------------- READS --------------------
+
+    // Current-cycle summary; recomputed on read while a refresh for the user is still queued or the row
+    // was never materialized, all zeros if nothing to count
+    @Transactional
+    public AttendanceCycleSummary currentCycle(Integer userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate cycleStart = PayrollCycle.startOf(today);
+
+        if (pending.containsKey(new CycleKey(userId, cycleStart))) {
+            refresh(userId, today);
+        }
+        return summaryRepository.findByUserIdAndCycleStart(userId, cycleStart)
+                .orElseGet(() -> {
+                    refresh(userId, today);
+                    return summaryRepository.findByUserIdAndCycleStart(userId, cycleStart)
+                            .orElseGet(() -> empty(userId, cycleStart, PayrollCycle.endOf(today)));
+                });
+    }
+
+    private static AttendanceCycleSummary empty(Integer userId, LocalDate cycleStart, LocalDate cycleEnd) {
+        return AttendanceCycleSummary.builder()
+                .userId(userId)
+                .cycleStart(cycleStart)
+                .cycleEnd(cycleEnd)
+                .presentDays(0)
+                .absentDays(0)
+                .halfDays(0)
+                .lateDays(0)
+                .paidDaysWeighted(0.0)
+                .build();
+    }
+
+    private void refresh(Integer userId, LocalDate date) {
+        attendanceJdbcRepository.refreshCycleSummary(userId, PayrollCycle.startOf(date), PayrollCycle.endOf(date),
+                attendancePolicy.fullPresentLimit());
+    }
+}
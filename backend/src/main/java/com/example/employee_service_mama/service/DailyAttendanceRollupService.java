@@ -0,0 +1,92 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.AttendanceStatsDTO;
+import com.example.employee_service_mama.event.AttendanceRecordsChangedEvent;
+import com.example.employee_service_mama.model.DailyAttendanceRollup;
+import com.example.employee_service_mama.repository.DailyAttendanceRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps daily_attendance_rollup in step with attendance_records, so the
+ * daily-summary chart reads one row per day instead of the whole table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyAttendanceRollupService {
+
+    private final DailyAttendanceRollupRepository rollupRepository;
+
+    // -------------------- INCREMENTAL MAINTENANCE --------------------
+
+    // Runs after the writer commits, so the recount sees the new rows
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onRecordsChanged(AttendanceRecordsChangedEvent event) {
+        try {
+            refresh(event.date(), event.date());
+        } catch (Exception e) {
+            log.error("Daily rollup refresh failed for {}", event.date(), e);
+        }
+    }
+
+    @Transactional
+    public void refresh(LocalDate from, LocalDate to) {
+        rollupRepository.upsertRange(from, to);
+        rollupRepository.deleteEmptyDays(from, to);
+    }
+
+    // -------------------- REBUILD --------------------
+
+    // First start after the table was added: build it from history (after record_date backfill)
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @Transactional
+    public void buildIfEmpty() {
+        if (rollupRepository.count() > 0) return;
+        rebuildAll();
+    }
+
+    @Transactional
+    public int rebuildAll() {
+        LocalDate first = rollupRepository.findFirstRecordDate();
+        LocalDate last = rollupRepository.findLastRecordDate();
+        if (first == null) return 0;
+
+        int rows = rollupRepository.upsertRange(first, last);
+        log.info("Rebuilt daily attendance rollup {} → {} ({} days)", first, last, rows);
+        return rows;
+    }
+
+    // -------------------- READS --------------------
+
+    // No range → every day on record (previous behaviour of the endpoint)
+    public List<AttendanceStatsDTO> getDailySummary(LocalDate from, LocalDate to) {
+        List<DailyAttendanceRollup> rows = (from == null && to == null)
+                ? rollupRepository.findAllByOrderByDate()
+                : rollupRepository.findByDateBetweenOrderByDate(
+                        from != null ? from : LocalDate.of(1970, 1, 1),
+                        to != null ? to : LocalDate.now());
+
+        return rows.stream()
+                .map(r -> new AttendanceStatsDTO(
+                        r.getDate().toString(),
+                        r.getPresentCount(),
+                        r.getAbsentCount(),
+                        r.getLeaveCount(),
+                        r.getHalfDayCount()))
+                .toList();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.employee_service_mama.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+// In-memory view of "what kind of day is it" for the login/logout hot path.
+// Holidays come from HolidayCalendar, approved leaves from LeaveIndex — both kept
+// current by their CDC consumers, so neither check touches the database.
+@Service
+@RequiredArgsConstructor
+public class DayCalendar {
+
+    private final HolidayCalendar holidayCalendar;
+    private final LeaveIndex leaveIndex;
+
+    public boolean isHoliday(LocalDate date) {
+        return holidayCalendar.isHoliday(date);
+    }
+
+    public boolean isOnApprovedLeave(Integer userId, LocalDate date) {
+        return leaveIndex.isOnLeave(userId, date);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.EmailOutboxJdbcRepository;
+import com.example.employee_service_mama.repository.EmailOutboxJdbcRepository.OutboxMail;
+import com.example.employee_service_mama.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background sender for email_outbox.
+ *
+ * Each poll claims up to one batch per idle worker (never more — the semaphore bounds it),
+ * and each worker sends its batch through a single JavaMailSender.send(MimeMessage...) call,
+ * i.e. one SMTP connection per batch. Failed rows are retried with exponential backoff
+ * until max-attempts, then marked FAILED.
+ *
+ * Only JavaMailSender is used, so pointing spring.mail.host/port at a local fake SMTP
+ * server (GreenMail, MailHog, smtp4dev) exercises the whole path.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxJdbcRepository outboxJdbcRepository;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-base-seconds:30}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.mail.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.mail.outbox.stale-after-seconds:600}")
+    private long staleAfterSeconds;
+
+    private ExecutorService pool;
+    private Semaphore idleWorkers;
+
+    private final AtomicLong pending = new AtomicLong();
+    private Timer sendLatency;
+    private Counter sent;
+    private Counter retried;
+    private Counter failed;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNo = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "email-outbox-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        idleWorkers = new Semaphore(workers);
+
+        meterRegistry.gauge("email.outbox.pending", pending);
+        sendLatency = meterRegistry.timer("email.send.latency");   // one SMTP batch
+        sent = meterRegistry.counter("email.sent");
+        retried = meterRegistry.counter("email.retried");
+        failed = meterRegistry.counter("email.failed");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // Runs on the shared scheduler thread → only claims and hands off, never talks to SMTP itself
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:2000}")
+    public void poll() {
+        if (!enabled) return;
+
+        pending.set(outboxRepository.countByStatus("PENDING"));
+
+        while (idleWorkers.tryAcquire()) {
+            List<OutboxMail> batch;
+            try {
+                batch = outboxJdbcRepository.claimBatch(batchSize, staleAfterSeconds);
+            } catch (RuntimeException e) {
+                idleWorkers.release();
+                throw e;
+            }
+            if (batch.isEmpty()) {
+                idleWorkers.release();
+                return;
+            }
+            pool.execute(() -> {
+                try {
+                    sendBatch(batch);
+                } catch (RuntimeException e) {
+                    log.error("Email batch of {} crashed — rows stay SENDING and are reclaimed after {}s",
+                            batch.size(), staleAfterSeconds, e);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        }
+    }
+
+    private void sendBatch(List<OutboxMail> batch) {
+        Map<MimeMessage, OutboxMail> byMessage = new IdentityHashMap<>();
+        for (OutboxMail mail : batch) {
+            try {
+                byMessage.put(emailService.buildMessage(mail.to(), mail.subject(), mail.htmlBody()), mail);
+            } catch (Exception e) {
+                retryOrFail(mail, e);
+            }
+        }
+        if (byMessage.isEmpty()) return;
+
+        Map<Object, Exception> failures = Map.of();
+        long started = System.nanoTime();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures (also "all of them" when the connection itself failed)
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                failures = allFailed(byMessage, e);
+            }
+        } catch (MailException e) {
+            failures = allFailed(byMessage, e);
+        } finally {
+            sendLatency.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        for (Map.Entry<MimeMessage, OutboxMail> entry : byMessage.entrySet()) {
+            Exception error = failures.get(entry.getKey());
+            if (error == null) {
+                sentIds.add(entry.getValue().id());
+            } else {
+                retryOrFail(entry.getValue(), error);
+            }
+        }
+        outboxJdbcRepository.markSent(sentIds);
+        sent.increment(sentIds.size());
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, OutboxMail> byMessage, Exception e) {
+        Map<Object, Exception> all = new IdentityHashMap<>();
+        for (MimeMessage m : byMessage.keySet()) all.put(m, e);
+        return all;
+    }
+
+    // 30s, 60s, 120s ... capped at backoff-max; FAILED after max-attempts
+    private void retryOrFail(OutboxMail mail, Exception error) {
+        int attempts = mail.attempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        if (attempts >= maxAttempts) {
+            outboxJdbcRepository.reschedule(mail.id(), "FAILED", attempts, Instant.now(), message);
+            failed.increment();
+            log.error("Email {} to {} failed permanently after {} attempts: {}", mail.id(), mail.to(), attempts, message);
+            return;
+        }
+        long delay = Math.min(backoffBaseSeconds << Math.min(attempts - 1, 20), backoffMaxSeconds);
+        outboxJdbcRepository.reschedule(mail.id(), "PENDING", attempts, Instant.now().plusSeconds(delay), message);
+        retried.increment();
+        log.warn("Email {} to {} failed (attempt {}), retrying in {}s: {}", mail.id(), mail.to(), attempts, delay, message);
+    }
+}
@@ -1,18 +1,34 @@
 package com.example.employee_service_mama.service;
 
+import com.example.employee_service_mama.model.EmailOutbox;
+import com.example.employee_service_mama.repository.EmailOutboxRepository;
+import jakarta.activation.DataHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
 
     // CID name used inside HTML template <img src="cid:priaccLogo">
     private static final String LOGO_CONTENT_ID = "priaccLogo";
@@ -20,42 +36,80 @@ public class EmailService {
     // MUST match: src/main/resources/static/priacc_logo.png
     private static final String LOGO_CLASSPATH = "static/priacc_logo.png";
 
+    // Logo read and base64-encoded once; every message gets a part over these same bytes
+    private byte[] encodedLogo;
+
+    @PostConstruct
+    void loadLogo() {
+        Resource logoResource = new ClassPathResource(LOGO_CLASSPATH);
+        if (!logoResource.exists()) {
+            log.warn("Mail logo not found at {}; emails go out without it", LOGO_CLASSPATH);
+            return;
+        }
+        try (InputStream in = logoResource.getInputStream()) {
+            encodedLogo = Base64.getMimeEncoder().encode(in.readAllBytes());
+            log.debug("Mail logo cached for inline CID ({} bytes encoded)", encodedLogo.length);
+        } catch (Exception e) {
+            log.warn("Could not read mail logo {}; emails go out without it", LOGO_CLASSPATH, e);
+        }
+    }
+
     /**
-     * Sends an HTML email with an inline logo if available.
-     * This is fully production-ready and works after deploy too,
-     * because ClassPathResource loads files packaged inside the JAR.
+     * Queues an HTML email. Only an outbox insert happens on the caller's thread;
+     * EmailOutboxDispatcher sends it (with retries) in the background.
      */
     public void sendHtmlEmail(String to, String subject, String htmlBody) {
-        System.out.println("📧 Preparing email → " + to);
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-
-            // true = multipart message (needed for inline images)
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        outboxRepository.save(EmailOutbox.builder()
+                .toAddress(to)
+                .subject(subject)
+                .htmlBody(htmlBody)
+                .build());
+        log.debug("Email queued for {}", to);
+    }
 
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true); // true = HTML
+    public record OutgoingMail(String to, String subject, String htmlBody) {}
 
-            System.out.println("📎 Loading inline logo...");
-            Resource logoResource = new ClassPathResource(LOGO_CLASSPATH);
+    /**
+     * Queues many emails at once (bulk notifications, see MailTemplateService.renderAll).
+     */
+    public void sendHtmlEmails(List<OutgoingMail> mails) {
+        List<EmailOutbox> rows = new ArrayList<>(mails.size());
+        for (OutgoingMail m : mails) {
+            rows.add(EmailOutbox.builder()
+                    .toAddress(m.to())
+                    .subject(m.subject())
+                    .htmlBody(m.htmlBody())
+                    .build());
+        }
+        outboxRepository.saveAll(rows);
+        log.debug("{} emails queued", rows.size());
+    }
 
-            if (logoResource.exists()) {
-                System.out.println("✅ Logo found. Attaching inline as CID...");
-                helper.addInline(LOGO_CONTENT_ID, logoResource);
-            } else {
-                System.out.println("⚠️ Logo NOT found at: " + LOGO_CLASSPATH);
-            }
+    /**
+     * Builds the MIME message for one outbox row, with the cached logo attached inline if available.
+     */
+    public MimeMessage buildMessage(String to, String subject, String htmlBody) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
 
-            System.out.println("📨 Sending email...");
-            mailSender.send(message);
+        // true = multipart message (needed for inline images)
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-            System.out.println("✅ Email sent successfully!");
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlBody, true); // true = HTML
 
-        } catch (Exception e) {
-            System.out.println("❌ Failed to send email: " + e.getMessage());
-            throw new RuntimeException("Email sending failed", e);
+        if (encodedLogo != null) {
+            helper.getMimeMultipart().addBodyPart(logoPart());
         }
+        return message;
+    }
+
+    // Already base64 → written as-is, no per-message encoding pass
+    private PreencodedMimeBodyPart logoPart() throws MessagingException {
+        PreencodedMimeBodyPart part = new PreencodedMimeBodyPart("base64");
+        part.setDataHandler(new DataHandler(new ByteArrayDataSource(encodedLogo, "image/png")));
+        part.setDisposition(Part.INLINE);
+        part.setContentID("<" + LOGO_CONTENT_ID + ">");
+        return part;
     }
 }
@@ -0,0 +1,147 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holiday table held in memory — it changes a few times a year but is read on every login/logout.
+ *
+ * The snapshot covers whole years (every holiday year plus last / this / next year) as one
+ * epoch-day bitset, with a running count of weekday holidays next to it, so both
+ * {@link #isHoliday} and {@link #workingDaysBetween} are O(1). A new snapshot is built on
+ * holiday CDC events and swapped in atomically; readers never see a half-built one.
+ * When the snapshot ages out, one reader reloads it while the rest keep using the old one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HolidayCalendar {
+
+    private final HolidayRepository holidayRepository;
+
+    @Value("${app.attendance.calendar-max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    // firstDay = epoch day of Jan 1 of the first covered year, bit i = firstDay + i
+    // weekdayHolidaysBefore[i] = holidays on Mon–Fri in [firstDay, firstDay + i)
+    private record Snapshot(long firstDay, int length, BitSet holidays,
+                            int[] weekdayHolidaysBefore, long loadedAt) {}
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        reload();
+    }
+
+    // 🔄 Called from HolidayConsumer on any insert / update / delete
+    public synchronized void reload() {
+        List<LocalDate> dates = holidayRepository.findAllDates();
+        Snapshot s = build(dates);
+        current.set(s);
+        log.debug("Holiday calendar: {} holidays, {} days covered", dates.size(), s.length());
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        Snapshot s = snapshot();
+        long i = date.toEpochDay() - s.firstDay();
+        return i >= 0 && i < s.length() && s.holidays().get((int) i);
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return !isWeekend(date) && !isHoliday(date);
+    }
+
+    /** Mon–Fri days in [from, to] (both inclusive) that are not holidays. */
+    public int workingDaysBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return 0;
+        long start = from.toEpochDay();
+        long endExclusive = to.toEpochDay() + 1;
+        return (int) (weekdaysBefore(endExclusive) - weekdaysBefore(start)
+                - weekdayHolidaysIn(snapshot(), start, endExclusive));
+    }
+
+    public static boolean isWeekend(LocalDate date) {
+        DayOfWeek dow = date.getDayOfWeek();
+        return dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot s = current.get();
+        if (s == null) {
+            return loadFirst();
+        }
+        // Other replicas' consumers may have taken the event → reload on age as well, one thread at a time
+        if (System.currentTimeMillis() - s.loadedAt() > maxAgeSeconds * 1000 && reloading.compareAndSet(false, true)) {
+            try {
+                reload();
+                return current.get();
+            } catch (RuntimeException e) {
+                log.warn("Holiday calendar reload failed, keeping the previous snapshot: {}", e.getMessage());
+            } finally {
+                reloading.set(false);
+            }
+        }
+        return s;
+    }
+
+    // Nothing to fall back on yet → callers wait for the first load
+    private synchronized Snapshot loadFirst() {
+        if (current.get() == null) {
+            reload();
+        }
+        return current.get();
+    }
+
+    private static Snapshot build(List<LocalDate> dates) {
+        int thisYear = LocalDate.now().getYear();
+        int firstYear = thisYear - 1;
+        int lastYear = thisYear + 1;
+        for (LocalDate d : dates) {
+            firstYear = Math.min(firstYear, d.getYear());
+            lastYear = Math.max(lastYear, d.getYear());
+        }
+
+        long firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        int length = (int) (LocalDate.of(lastYear + 1, 1, 1).toEpochDay() - firstDay);
+
+        BitSet bits = new BitSet(length);
+        for (LocalDate d : dates) {
+            bits.set((int) (d.toEpochDay() - firstDay));
+        }
+
+        int[] before = new int[length + 1];
+        for (int i = 0; i < length; i++) {
+            boolean weekdayHoliday = bits.get(i) && !isWeekend(LocalDate.ofEpochDay(firstDay + i));
+            before[i + 1] = before[i] + (weekdayHoliday ? 1 : 0);
+        }
+        return new Snapshot(firstDay, length, bits, before, System.currentTimeMillis());
+    }
+
+    // Weekday holidays in epoch days [start, endExclusive), clipped to the covered years
+    private static int weekdayHolidaysIn(Snapshot s, long start, long endExclusive) {
+        long lo = Math.max(start - s.firstDay(), 0);
+        long hi = Math.min(endExclusive - s.firstDay(), s.length());
+        if (hi <= lo) return 0;
+        return s.weekdayHolidaysBefore()[(int) hi] - s.weekdayHolidaysBefore()[(int) lo];
+    }
+
+    // Mon–Fri days in [1969-12-29, epochDay) — 1969-12-29 is a Monday (epoch day -3); negative counts work too
+    private static long weekdaysBefore(long epochDay) {
+        long sinceMonday = epochDay + 3;
+        return Math.floorDiv(sinceMonday, 7) * 5 + Math.min(Math.floorMod(sinceMonday, 7), 5);
+    }
+}
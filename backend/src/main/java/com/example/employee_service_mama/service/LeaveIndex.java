@@ -0,0 +1,316 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.ApprovedLeaveRef;
+import com.example.employee_service_mama.model.LeaveRequest;
+import com.example.employee_service_mama.repository.LeaveRequestsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approved leaves held in memory so "on leave today", range overlap and the dashboard
+ * counter never hit Postgres.
+ *
+ * Per user the approved leaves are merged into sorted, disjoint [start, end] epoch-day
+ * intervals stored flat in a long[] (s0, e0, s1, e1, ...) — point and overlap queries are a
+ * binary search. A per-day count of users on leave is kept next to it for countOnDate, but only
+ * for a window around the build date — a bogus end_date (9999-12-31) costs one interval, not
+ * millions of day entries; dates outside the window are counted from the intervals instead.
+ *
+ * Writes (CDC events from LeaveRequestConsumer, HR approve / reject) are serialized and only
+ * re-merge the affected user. Built on startup; checkConsistency re-reads the table on a
+ * schedule and swaps in a fresh build if anything drifted (e.g. an event consumed by another replica).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaveIndex {
+
+    private static final long[] NONE = new long[0];
+
+    // Per-day counts are kept for [build date - 1 year, build date + 2 years]
+    private static final int COUNT_WINDOW_PAST_DAYS = 366;
+    private static final int COUNT_WINDOW_FUTURE_DAYS = 2 * 366;
+
+    private final LeaveRequestsRepository leaveRepository;
+    private final MeterRegistry meterRegistry;
+
+    private record Leave(int userId, long start, long end) {}
+
+    // Everything a reader needs, swapped as a whole on rebuild
+    private static final class State {
+        final long windowStart;
+        final long windowEnd;
+        final Map<Integer, Leave> byLeaveId = new HashMap<>();                  // writer-only, under lock
+        final Map<Integer, Map<Integer, Leave>> byUser = new HashMap<>();       // writer-only, under lock
+        final Map<Integer, long[]> mergedByUser = new ConcurrentHashMap<>();    // read path
+        final Map<Long, Integer> usersOnDay = new ConcurrentHashMap<>();        // read path, window only
+
+        State(LocalDate today) {
+            windowStart = today.toEpochDay() - COUNT_WINDOW_PAST_DAYS;
+            windowEnd = today.toEpochDay() + COUNT_WINDOW_FUTURE_DAYS;
+        }
+
+        boolean inWindow(long day) {
+            return day >= windowStart && day <= windowEnd;
+        }
+    }
+
+    public record Span(LocalDate from, LocalDate to) {}
+
+    public record CheckResult(int approvedLeaves, int users, int usersDiffering, boolean rebuilt) {}
+
+    private volatile State state;
+    private Counter driftCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        driftCounter = meterRegistry.counter("leave.index.drift");
+        meterRegistry.gauge("leave.index.users", this, idx -> idx.state == null ? 0 : idx.state.mergedByUser.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        State fresh = build(leaveRepository.findApprovedIntervals());
+        state = fresh;
+        log.info("Leave index built: {} approved leaves, {} users", fresh.byLeaveId.size(), fresh.mergedByUser.size());
+    }
+
+    /* =====================================================
+       QUERIES
+    ===================================================== */
+
+    public boolean isOnLeave(Integer userId, LocalDate date) {
+        return overlaps(userId, date, date);
+    }
+
+    // Any approved leave touching [from, to]
+    public boolean overlaps(Integer userId, LocalDate from, LocalDate to) {
+        long[] iv = intervalsOf(userId);
+        int i = lastStartingAtOrBefore(iv, to.toEpochDay());
+        return i >= 0 && iv[2 * i + 1] >= from.toEpochDay();
+    }
+
+    // Merged leave spans clipped to [from, to], in date order
+    public List<Span> spansBetween(Integer userId, LocalDate from, LocalDate to) {
+        long[] iv = intervalsOf(userId);
+        long lo = from.toEpochDay();
+        long hi = to.toEpochDay();
+        List<Span> spans = new ArrayList<>();
+        for (int i = Math.max(lastStartingAtOrBefore(iv, lo), 0); i < iv.length / 2; i++) {
+            long s = iv[2 * i];
+            long e = iv[2 * i + 1];
+            if (s > hi) break;
+            if (e < lo) continue;
+            spans.add(new Span(LocalDate.ofEpochDay(Math.max(s, lo)), LocalDate.ofEpochDay(Math.min(e, hi))));
+        }
+        return spans;
+    }
+
+    // Distinct users on approved leave that day
+    public long countOnDate(LocalDate date) {
+        State s = current();
+        long day = date.toEpochDay();
+        if (s.inWindow(day)) {
+            return s.usersOnDay.getOrDefault(day, 0);
+        }
+        long count = 0;
+        for (long[] iv : s.mergedByUser.values()) {
+            int i = lastStartingAtOrBefore(iv, day);
+            if (i >= 0 && iv[2 * i + 1] >= day) count++;
+        }
+        return count;
+    }
+
+    /* =====================================================
+       UPDATES
+    ===================================================== */
+
+    // Approve / reject / edit from the service layer
+    public void apply(LeaveRequest leave) {
+        if (leave.getId() == null || leave.getUser() == null) return;
+        apply(leave.getId(), leave.getUser().getId(), leave.getStatus(), leave.getStartDate(), leave.getEndDate());
+    }
+
+    // Upsert when approved, drop otherwise (pending / rejected / cancelled)
+    public synchronized void apply(Integer leaveId, Integer userId, String status, LocalDate start, LocalDate end) {
+        if (leaveId == null) return;
+        if (!"approved".equalsIgnoreCase(status) || userId == null || start == null || end == null
+                || end.isBefore(start)) {
+            remove(leaveId);
+            return;
+        }
+        State s = current();
+        Leave leave = new Leave(userId, start.toEpochDay(), end.toEpochDay());
+        Leave old = s.byLeaveId.put(leaveId, leave);
+        if (old != null) {
+            userLeaves(s, old.userId()).remove(leaveId);
+            if (old.userId() != userId) remerge(s, old.userId());
+        }
+        userLeaves(s, userId).put(leaveId, leave);
+        remerge(s, userId);
+    }
+
+    public synchronized void remove(Integer leaveId) {
+        if (leaveId == null) return;
+        State s = current();
+        Leave old = s.byLeaveId.remove(leaveId);
+        if (old == null) return;
+        userLeaves(s, old.userId()).remove(leaveId);
+        remerge(s, old.userId());
+    }
+
+    /* =====================================================
+       CONSISTENCY
+    ===================================================== */
+
+    @Scheduled(cron = "${app.leave-index.check-cron:0 */5 * * * *}")
+    public synchronized CheckResult checkConsistency() {
+        State fresh = build(leaveRepository.findApprovedIntervals());
+        State s = current();
+
+        Set<Integer> users = new HashSet<>(fresh.mergedByUser.keySet());
+        users.addAll(s.mergedByUser.keySet());
+        int differing = 0;
+        for (Integer userId : users) {
+            long[] expected = fresh.mergedByUser.getOrDefault(userId, NONE);
+            long[] actual = s.mergedByUser.getOrDefault(userId, NONE);
+            if (!Arrays.equals(expected, actual)) differing++;
+        }
+
+        // Long uptime: the day-count window no longer sits around today → re-centre it
+        boolean windowStale = !s.inWindow(LocalDate.now().plusDays(COUNT_WINDOW_FUTURE_DAYS / 2).toEpochDay());
+        boolean rebuilt = differing > 0 || windowStale;
+        if (differing > 0) {
+            driftCounter.increment();
+            log.warn("Leave index drifted for {} users — replaced with a fresh build", differing);
+        }
+        if (rebuilt) {
+            state = fresh;
+        }
+        return new CheckResult(fresh.byLeaveId.size(), fresh.mergedByUser.size(), differing, rebuilt);
+    }
+
+    /* =====================================================
+       INTERNALS
+    ===================================================== */
+
+    private State current() {
+        State s = state;
+        if (s == null) {
+            // Query before ApplicationReadyEvent — build on the spot
+            synchronized (this) {
+                if (state == null) rebuild();
+                s = state;
+            }
+        }
+        return s;
+    }
+
+    private long[] intervalsOf(Integer userId) {
+        if (userId == null) return NONE;
+        return current().mergedByUser.getOrDefault(userId, NONE);
+    }
+
+    private static State build(List<ApprovedLeaveRef> rows) {
+        State s = new State(LocalDate.now());
+        for (ApprovedLeaveRef r : rows) {
+            if (r.getId() == null || r.getUserId() == null || r.getStartDate() == null
+                    || r.getEndDate() == null || r.getEndDate().isBefore(r.getStartDate())) {
+                continue;
+            }
+            Leave leave = new Leave(r.getUserId(), r.getStartDate().toEpochDay(), r.getEndDate().toEpochDay());
+            s.byLeaveId.put(r.getId(), leave);
+            userLeaves(s, r.getUserId()).put(r.getId(), leave);
+        }
+        for (Integer userId : new ArrayList<>(s.byUser.keySet())) {
+            remerge(s, userId);
+        }
+        return s;
+    }
+
+    private static Map<Integer, Leave> userLeaves(State s, int userId) {
+        return s.byUser.computeIfAbsent(userId, k -> new HashMap<>());
+    }
+
+    // Recompute one user's merged intervals and move their day counts from the old set to the new one
+    private static void remerge(State s, int userId) {
+        Map<Integer, Leave> leaves = s.byUser.getOrDefault(userId, Map.of());
+        long[] merged = merge(leaves.values());
+        long[] previous = s.mergedByUser.getOrDefault(userId, NONE);
+
+        adjustDays(s, previous, -1);
+        adjustDays(s, merged, +1);
+
+        if (merged.length == 0) {
+            s.mergedByUser.remove(userId);
+            s.byUser.remove(userId);
+        } else {
+            s.mergedByUser.put(userId, merged);
+        }
+    }
+
+    private static long[] merge(Iterable<Leave> leaves) {
+        List<long[]> list = new ArrayList<>();
+        for (Leave l : leaves) list.add(new long[]{l.start(), l.end()});
+        if (list.isEmpty()) return NONE;
+        list.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        long[] out = new long[list.size() * 2];
+        int n = 0;
+        for (long[] iv : list) {
+            // Overlapping or back-to-back leaves collapse into one span
+            if (n > 0 && iv[0] <= out[2 * n - 1] + 1) {
+                out[2 * n - 1] = Math.max(out[2 * n - 1], iv[1]);
+            } else {
+                out[2 * n] = iv[0];
+                out[2 * n + 1] = iv[1];
+                n++;
+            }
+        }
+        return n * 2 == out.length ? out : Arrays.copyOf(out, n * 2);
+    }
+
+    private static void adjustDays(State s, long[] intervals, int delta) {
+        for (int i = 0; i < intervals.length; i += 2) {
+            long from = Math.max(intervals[i], s.windowStart);
+            long to = Math.min(intervals[i + 1], s.windowEnd);
+            for (long day = from; day <= to; day++) {
+                s.usersOnDay.merge(day, delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    // Index of the last interval whose start <= day, or -1
+    private static int lastStartingAtOrBefore(long[] iv, long day) {
+        int lo = 0;
+        int hi = iv.length / 2 - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (iv[2 * mid] <= day) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
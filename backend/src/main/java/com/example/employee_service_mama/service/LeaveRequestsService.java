@@ -4,6 +4,7 @@ import com.example.employee_service_mama.model.LeaveRequest;
 import com.example.employee_service_mama.model.Users;
 import com.example.employee_service_mama.repository.LeaveRequestsRepository;
 import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.util.PayrollCycle;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -19,11 +20,19 @@ public class LeaveRequestsService {
     private final LeaveRequestsRepository leaveRepo;
     private final UserRepository userRepo;
     private final EmailService emailService;
+    private final LeaveIndex leaveIndex;
+    private final HolidayCalendar holidayCalendar;
+    private final MailTemplateService mailTemplates;
 
-    public LeaveRequestsService(LeaveRequestsRepository leaveRepo, UserRepository userRepo,EmailService emailService) {
+    public LeaveRequestsService(LeaveRequestsRepository leaveRepo, UserRepository userRepo,EmailService emailService,
+                                LeaveIndex leaveIndex, HolidayCalendar holidayCalendar,
+                                MailTemplateService mailTemplates) {
         this.leaveRepo = leaveRepo;
         this.userRepo = userRepo;
         this.emailService= emailService;
+        this.leaveIndex = leaveIndex;
+        this.holidayCalendar = holidayCalendar;
+        this.mailTemplates = mailTemplates;
     }
 
     public LeaveRequest applyLeave(Integer userId, String start, String end, String reason) {
@@ -64,6 +73,7 @@ public class LeaveRequestsService {
         leave.setApprovedBy(hr);
         leave.setEmpid(user.getEmpid());
         leaveRepo.save(leave);
+        leaveIndex.apply(leave); // don't wait for CDC — a same-day approval must block login right away
 
         // 📧 Send approval mail
         String subject = "Leave Request Approved - Priacc Innovations";
@@ -86,6 +96,7 @@ public class LeaveRequestsService {
         leave.setApprovedBy(hr);
         leave.setEmpid(user.getEmpid());
         leaveRepo.save(leave);
+        leaveIndex.apply(leave);
 
         // 📧 Send rejected mail
         String subject = "Leave Request Rejected - Priacc Innovations";
@@ -98,116 +109,23 @@ public class LeaveRequestsService {
 
     // -------------------- EMAIL TEMPLATES --------------------
 
-    /**
-     * HTML template for APPROVED leave.
-     */
+    // Bodies live in resources/templates/mail (see MailTemplateService)
     private String buildApprovedEmail(Users user, Users hr, LeaveRequest leave) {
-
-        return """
-<html>
-<body style='font-family: Arial, sans-serif; background:#f7f7f7; padding:20px;'>
-    <div style='background:#ffffff; border-radius:8px; padding:20px; max-width:600px; margin:auto;'>
-
-        <h2 style='color:#4B0082; margin-bottom:10px;'>Leave Request Approved</h2>
-
-        <p>Hi <strong>%s</strong>,</p>
-        <p>Great news! Your leave request has been successfully approved.</p>
-
-        <div style='background:#f8f8f8; padding:12px 16px; border-left:4px solid #4B0082; margin:18px 0;'>
-            <p style='margin:4px 0;'><strong>Leave Duration :</strong> %s to %s</p>
-            <p style='margin:4px 0;'><strong>Reason Provided:</strong> %s</p>
-            <p style='margin:4px 0;'><strong>Approved By :</strong> %s</p>
-        </div>
-
-        <p>We hope you have a restful and refreshing time during your leave.</p>
-        <p>If you have any questions, please feel free to contact the HR team.</p>
-
-        <p style='margin-top:24px;'>
-            Warm regards,<br/>
-            <strong>%s</strong><br/>
-            Human Resources<br/>
-            Priacc Innovations
-        </p>
-
-        <!-- FOOTER WITH LOGO LEFT + COPYRIGHT RIGHT -->
-        <table width='100%%' style='margin-top:30px;'>
-            <tr>
-                <td style='text-align:left;'>
-                    <img src='cid:priaccLogo' alt='Priacc Innovations' style='width:140px;' />
-                </td>
-                <td style='text-align:right; font-size:12px; color:#777;'>
-                    © Priacc Innovations — New Revolution in Software
-                </td>
-            </tr>
-        </table>
-
-    </div>
-</body>
-</html>
-""".formatted(
-                user.getFullName(),
-                leave.getStartDate(),
-                leave.getEndDate(),
-                leave.getReason(),
-                hr.getFullName(),
-                hr.getFullName()
-        );
+        return mailTemplates.render("leave-approved", leaveMailModel(user, hr, leave));
     }
 
-    /**
-     * HTML template for REJECTED leave.
-     */
     private String buildRejectedEmail(Users user, Users hr, LeaveRequest leave) {
+        return mailTemplates.render("leave-rejected", leaveMailModel(user, hr, leave));
+    }
 
-        return """
-<html>
-<body style='font-family: Arial, sans-serif; background:#f7f7f7; padding:20px;'>
-    <div style='background:#ffffff; border-radius:8px; padding:20px; max-width:600px; margin:auto;'>
-
-        <h2 style='color:#C62828; margin-bottom:10px;'>Leave Request Rejected</h2>
-
-        <p>Hi <strong>%s</strong>,</p>
-        <p>Thank you for submitting your leave request.</p>
-        <p>After review, we are unable to approve your request at this time.</p>
-
-        <div style='background:#f8f8f8; padding:12px 16px; border-left:4px solid #C62828; margin:18px 0;'>
-            <p style='margin:4px 0;'><strong>Leave Duration :</strong> %s to %s</p>
-            <p style='margin:4px 0;'><strong>Reason Provided:</strong> %s</p>
-            <p style='margin:4px 0;'><strong>Reviewed By :</strong> %s</p>
-        </div>
-
-        <p>If you have any questions, please feel free to contact the HR team.</p>
-
-        <p style='margin-top:24px;'>
-            Warm regards,<br/>
-            <strong>%s</strong><br/>
-            Human Resources<br/>
-            Priacc Innovations
-        </p>
-
-        <!-- FOOTER WITH LOGO LEFT + COPYRIGHT RIGHT -->
-        <table width='100%%' style='margin-top:30px;'>
-            <tr>
-                <td style='text-align:left;'>
-                    <img src='cid:priaccLogo' alt='Priacc Innovations' style='width:140px;' />
-                </td>
-                <td style='text-align:right; font-size:12px; color:#777;'>
-                    © Priacc Innovations — New Revolution in Software
-                </td>
-            </tr>
-        </table>
-
-    </div>
-</body>
-</html>
-""".formatted(
-                user.getFullName(),
-                leave.getStartDate(),
-                leave.getEndDate(),
-                leave.getReason(),
-                hr.getFullName(),
-                hr.getFullName()
-        );
+    private static Map<String, Object> leaveMailModel(Users user, Users hr, LeaveRequest leave) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("employeeName", user.getFullName());
+        model.put("startDate", leave.getStartDate());
+        model.put("endDate", leave.getEndDate());
+        model.put("reason", leave.getReason());
+        model.put("reviewerName", hr.getFullName());
+        return model;
     }
 
 
@@ -215,61 +133,33 @@ public class LeaveRequestsService {
         return new HashMap<>();
     }
 
-    private LocalDate getCycleStartForMonth(int year, int month) {
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(24)
-                .minusMonths(1);
-    }
-
-    private LocalDate getCycleEndForMonth(int year, int month) {
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(23);
-    }
     public int getApprovedLeaveDaysForCurrentCycle(Integer userId) {
 
         LocalDate today = LocalDate.now();
 
-        LocalDate cycleStart = getCurrentCycleStart(today);
-        LocalDate cycleEnd   = getCurrentCycleEnd(today);
-
-        List<LeaveRequest> leaves =
-                leaveRepo.findApprovedLeavesInRange(
-                        userId, cycleStart, cycleEnd);
+        LocalDate cycleStart = PayrollCycle.startOf(today);
+        LocalDate cycleEnd   = PayrollCycle.endOf(today);
 
+        // Spans come from the in-memory index, already merged (overlapping requests count once) and clipped
         int totalDays = 0;
-
-        for (LeaveRequest leave : leaves) {
-
-            LocalDate effectiveStart =
-                    leave.getStartDate().isBefore(cycleStart)
-                            ? cycleStart
-                            : leave.getStartDate();
-
-            LocalDate effectiveEnd =
-                    leave.getEndDate().isAfter(cycleEnd)
-                            ? cycleEnd
-                            : leave.getEndDate();
-
-            totalDays +=
-                    (int) (effectiveEnd.toEpochDay()
-                            - effectiveStart.toEpochDay() + 1);
+        for (LeaveIndex.Span span : leaveIndex.spansBetween(userId, cycleStart, cycleEnd)) {
+            totalDays += (int) (span.to().toEpochDay() - span.from().toEpochDay() + 1);
         }
 
         return totalDays;
     }
-    private LocalDate getCurrentCycleStart(LocalDate today) {
-        if (today.getDayOfMonth() >= 24) {
-            return today.withDayOfMonth(24);
-        } else {
-            return today.minusMonths(1).withDayOfMonth(24);
-        }
-    }
 
-    private LocalDate getCurrentCycleEnd(LocalDate today) {
-        if (today.getDayOfMonth() >= 24) {
-            return today.plusMonths(1).withDayOfMonth(23);
-        } else {
-            return today.withDayOfMonth(23);
+    // Same overlap as above, but only days that would otherwise be worked (no weekends / holidays)
+    public int getApprovedLeaveWorkingDaysForCurrentCycle(Integer userId) {
+
+        LocalDate today = LocalDate.now();
+        LocalDate cycleStart = PayrollCycle.startOf(today);
+        LocalDate cycleEnd   = PayrollCycle.endOf(today);
+
+        int workingDays = 0;
+        for (LeaveIndex.Span span : leaveIndex.spansBetween(userId, cycleStart, cycleEnd)) {
+            workingDays += holidayCalendar.workingDaysBetween(span.from(), span.to());
         }
+        return workingDays;
     }
 }
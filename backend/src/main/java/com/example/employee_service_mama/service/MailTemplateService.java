@@ -0,0 +1,116 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.util.MailTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mail bodies from classpath:templates/mail/*.html, parsed once at startup.
+ *
+ * Locale variants sit next to the base file: leave-approved_hi.html, leave-approved_en_IN.html ...
+ * Lookup goes language_COUNTRY → language → base name, like ResourceBundle.
+ */
+@Slf4j
+@Service
+public class MailTemplateService {
+
+    private static final String LOCATION = "classpath*:templates/mail/*.html";
+
+    // Buffers that grew past this are not kept for the next render on that thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    @Value("${app.mail.default-locale:en}")
+    private String defaultLocaleTag;
+
+    private Locale defaultLocale;
+    private Map<String, MailTemplate> templates = Map.of();
+
+    @PostConstruct
+    void load() throws IOException {
+        defaultLocale = Locale.forLanguageTag(defaultLocaleTag);
+
+        Map<String, MailTemplate> parsed = new HashMap<>();
+        for (Resource r : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String file = r.getFilename();
+            if (file == null) continue;
+            String key = file.substring(0, file.length() - ".html".length());
+            String source = new String(r.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            parsed.put(key, MailTemplate.parse(key, source));
+        }
+        templates = Map.copyOf(parsed);
+        log.info("Mail templates loaded: {}", templates.keySet());
+    }
+
+    public String render(String name, Map<String, ?> model) {
+        return render(name, defaultLocale, model);
+    }
+
+    public String render(String name, Locale locale, Map<String, ?> model) {
+        MailTemplate template = resolve(name, locale);
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        try {
+            template.renderTo(sb, model);
+            return sb.toString();
+        } finally {
+            if (sb.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Same template for many recipients (payroll-ready, announcements ...):
+     * resolved once, rendered into one reused buffer.
+     */
+    public List<String> renderAll(String name, Locale locale, List<? extends Map<String, ?>> models) {
+        MailTemplate template = resolve(name, locale);
+        List<String> out = new ArrayList<>(models.size());
+        StringBuilder sb = BUFFER.get();
+        try {
+            for (Map<String, ?> model : models) {
+                sb.setLength(0);
+                template.renderTo(sb, model);
+                out.add(sb.toString());
+            }
+        } finally {
+            if (sb.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+        return out;
+    }
+
+    private MailTemplate resolve(String name, Locale locale) {
+        Locale l = locale == null ? defaultLocale : locale;
+        MailTemplate t = null;
+        if (!l.getCountry().isEmpty()) {
+            t = templates.get(name + "_" + l.getLanguage() + "_" + l.getCountry());
+        }
+        if (t == null && !l.getLanguage().isEmpty()) {
+            t = templates.get(name + "_" + l.getLanguage());
+        }
+        if (t == null) {
+            t = templates.get(name);
+        }
+        if (t == null) {
+            throw new IllegalArgumentException("Mail template not found: " + name);
+        }
+        return t;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.ExceptionHandler.PasswordHashingBusyException;
+import com.example.employee_service_mama.config.SecurityConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * All Argon2 work goes through here instead of running on Tomcat threads.
+ *
+ * Each hash needs {@link SecurityConfig#ARGON2_MEMORY_KB} of memory, so the pool gets
+ * memory-budget / per-hash threads and a bounded queue. A full queue, or no result within
+ * queue-timeout (queue wait + hash), fails fast with PasswordHashingBusyException
+ * (503 + Retry-After) instead of letting a 9 AM signin storm allocate its way into an OOM.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.password-hashing.memory-budget-mb:512}")
+    private int memoryBudgetMb;
+
+    @Value("${app.password-hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.password-hashing.queue-timeout-ms:3000}")
+    private long queueTimeoutMs;
+
+    private ThreadPoolExecutor pool;
+    private Timer queueWait;
+    private Timer encodeLatency;
+    private Timer matchLatency;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, memoryBudgetMb * 1024 / SecurityConfig.ARGON2_MEMORY_KB);
+        AtomicInteger threadNo = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        queueWait = meterRegistry.timer("password.hash.queue.wait");
+        encodeLatency = meterRegistry.timer("password.hash.latency", "op", "encode");
+        matchLatency = meterRegistry.timer("password.hash.latency", "op", "matches");
+        rejected = meterRegistry.counter("password.hash.rejected");
+        meterRegistry.gauge("password.hash.queue.size", pool, p -> p.getQueue().size());
+        log.info("Password hashing pool: {} threads ({} MB budget), queue {}", threads, memoryBudgetMb, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(() -> passwordEncoder.encode(rawPassword), encodeLatency));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(() -> passwordEncoder.matches(rawPassword, encodedPassword), matchLatency));
+    }
+
+    // Bulk import: at most one pool's worth in flight, so a big sheet can't fill the queue on its own
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int window = pool.getMaximumPoolSize();
+        List<String> out = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<Future<String>> inFlight = new ArrayList<>(window);
+            for (String raw : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))) {
+                inFlight.add(submit(() -> passwordEncoder.encode(raw), encodeLatency));
+            }
+            for (Future<String> f : inFlight) {
+                out.add(await(f));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * After a successful login: if the stored hash uses weaker parameters than the current
+     * encoder, hash the password again in the background and hand the new hash to the callback.
+     * Skipped silently when the pool is busy — the next login tries again.
+     */
+    public void rehashIfNeeded(String rawPassword, String encodedPassword, Consumer<String> onRehashed) {
+        if (!passwordEncoder.upgradeEncoding(encodedPassword)) return;
+        try {
+            pool.execute(() -> {
+                try {
+                    onRehashed.accept(encodeLatency.record(() -> passwordEncoder.encode(rawPassword)));
+                } catch (RuntimeException e) {
+                    log.warn("Password rehash failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Password rehash skipped, hashing pool busy");
+        }
+    }
+
+    private <T> Future<T> submit(Callable<T> work, Timer latency) {
+        long enqueued = System.nanoTime();
+        try {
+            return pool.submit(() -> {
+                queueWait.record(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+                return latency.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);   // still queued → never runs
+            rejected.increment();
+            throw new PasswordHashingBusyException("Too many sign-in requests, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// userId → empid cache for the login path. Loaded on first use per user,
+// evicted by UserConsumer when the users table changes.
+@Service
+@RequiredArgsConstructor
+public class UserDirectory {
+
+    private final UserRepository userRepository;
+
+    // empid may be null in the table, so callers get the pair rather than a bare String
+    public record KnownUser(Integer id, String empid) {}
+
+    private final Map<Integer, KnownUser> byId = new ConcurrentHashMap<>();
+
+    // Empty → no such user. Misses are not cached, so a freshly created user is seen on the next call.
+    public Optional<KnownUser> find(Integer userId) {
+        if (userId == null) return Optional.empty();
+        KnownUser cached = byId.get(userId);
+        if (cached != null) return Optional.of(cached);
+
+        Optional<KnownUser> loaded = userRepository.findRefById(userId)
+                .map(ref -> new KnownUser(ref.getId(), ref.getEmpid()));
+        loaded.ifPresent(u -> byId.put(userId, u));
+        return loaded;
+    }
+
+    public void evict(Integer userId) {
+        if (userId != null) byId.remove(userId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.BitSet;
+
+/**
+ * Which user ids exist, as one bit per id — lets the CDC consumers check a user
+ * without a findById per Kafka message.
+ *
+ * Copy-on-write: readers get the current BitSet without locking; the rare writes
+ * (users CDC events, reloads) build a new one and publish it. A miss falls back to the
+ * database once, because the users event for a brand-new user can arrive after events
+ * that reference it; ids found that way are added.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserIdRegistry {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile BitSet ids = new BitSet();
+
+    private Counter hits;
+    private Counter missesFound;
+    private Counter missesAbsent;
+
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("user.registry.lookups", "result", "hit");
+        missesFound = meterRegistry.counter("user.registry.lookups", "result", "miss_found");
+        missesAbsent = meterRegistry.counter("user.registry.lookups", "result", "miss_absent");
+        meterRegistry.gauge("user.registry.size", this, r -> r.ids.cardinality());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.user-registry.reload-ms:600000}", initialDelayString = "${app.user-registry.reload-ms:600000}")
+    public void reload() {
+        BitSet fresh = new BitSet();
+        for (Integer id : userRepository.findAllIds()) {
+            if (id != null && id >= 0) fresh.set(id);
+        }
+        synchronized (this) {
+            ids = fresh;
+        }
+        log.debug("User id registry loaded: {} users", fresh.cardinality());
+    }
+
+    public boolean exists(Integer userId) {
+        if (userId == null || userId < 0) return false;
+        if (ids.get(userId)) {
+            hits.increment();
+            return true;
+        }
+        if (userRepository.existsById(userId)) {
+            missesFound.increment();
+            add(userId);
+            return true;
+        }
+        missesAbsent.increment();
+        return false;
+    }
+
+    // 🔄 users CDC insert
+    public synchronized void add(Integer userId) {
+        if (userId == null || userId < 0 || ids.get(userId)) return;
+        BitSet next = (BitSet) ids.clone();
+        next.set(userId);
+        ids = next;
+    }
+
+    // 🔄 users CDC delete
+    public synchronized void remove(Integer userId) {
+        if (userId == null || userId < 0 || !ids.get(userId)) return;
+        BitSet next = (BitSet) ids.clone();
+        next.clear(userId);
+        ids = next;
+    }
+}
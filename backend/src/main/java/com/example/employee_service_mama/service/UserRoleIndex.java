@@ -0,0 +1,97 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.UserRoleRef;
+import com.example.employee_service_mama.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * role → user ids, in memory. Loaded once, then kept current by UserConsumer
+ * (plus a periodic reload, since another replica may have taken the CDC event).
+ * Roles are normalized to lower case.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserRoleIndex {
+
+    private final UserRepository userRepository;
+
+    private volatile Map<Integer, String> roleByUser = new ConcurrentHashMap<>();
+    private volatile Map<String, Set<Integer>> usersByRole = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.user-role-index.reload-ms:600000}", initialDelayString = "${app.user-role-index.reload-ms:600000}")
+    public synchronized void reload() {
+        Map<Integer, String> byUser = new ConcurrentHashMap<>();
+        Map<String, Set<Integer>> byRole = new ConcurrentHashMap<>();
+        for (UserRoleRef ref : userRepository.findAllRoles()) {
+            String role = normalize(ref.getRole());
+            byUser.put(ref.getId(), role);
+            byRole.computeIfAbsent(role, r -> ConcurrentHashMap.newKeySet()).add(ref.getId());
+        }
+        roleByUser = byUser;
+        usersByRole = byRole;
+        log.debug("User role index: {} users in roles {}", byUser.size(), byRole.keySet());
+    }
+
+    // 🔄 users CDC insert / update
+    public synchronized void put(Integer userId, String role) {
+        if (userId == null) return;
+        String normalized = normalize(role);
+        String previous = roleByUser.put(userId, normalized);
+        if (previous != null && !previous.equals(normalized)) {
+            Set<Integer> old = usersByRole.get(previous);
+            if (old != null) old.remove(userId);
+        }
+        usersByRole.computeIfAbsent(normalized, r -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    // 🔄 users CDC delete
+    public synchronized void remove(Integer userId) {
+        if (userId == null) return;
+        String previous = roleByUser.remove(userId);
+        if (previous != null) {
+            Set<Integer> old = usersByRole.get(previous);
+            if (old != null) old.remove(userId);
+        }
+    }
+
+    // Normalized role, or null for an unknown user
+    public String roleOf(Integer userId) {
+        return userId == null ? null : roleByUser.get(userId);
+    }
+
+    public Set<Integer> usersInRole(String role) {
+        return Set.copyOf(usersByRole.getOrDefault(normalize(role), Set.of()));
+    }
+
+    public int countInRole(String role) {
+        return usersByRole.getOrDefault(normalize(role), Set.of()).size();
+    }
+
+    public int totalUsers() {
+        return roleByUser.size();
+    }
+
+    // Snapshot of role → member count
+    public Map<String, Integer> roleSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        usersByRole.forEach((role, ids) -> sizes.put(role, ids.size()));
+        return sizes;
+    }
+
+    public static String normalize(String role) {
+        return role == null ? "" : role.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.employee_service_mama.service;
 
+import com.example.employee_service_mama.dto.CursorPage;
 import com.example.employee_service_mama.dto.ForgotPasswordRequest;
 import com.example.employee_service_mama.model.Users;
 import com.example.employee_service_mama.repository.*;
 import com.example.employee_service_mama.util.JwtUtil;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
@@ -14,19 +18,23 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
     private final UserRepository userRepository;
     private final AttendanceRepository attendanceRepository;
-    private final LeaveRequestsRepository leaveRequestsRepository;
+    private final LeaveIndex leaveIndex;
     private final AttendanceRecordsRepository recordsRepo;
     private final EmailService emailService;
+    private final MailTemplateService mailTemplates;
     private final S3Client s3;
     private final JwtUtil jwtUtil;
+    private final EntityManager entityManager;
 
     private static final String BUCKET = "teamhub-storage";
     private static final String S3_BASE_URL =
@@ -40,11 +48,15 @@ public class UserService {
         Users user = userRepository.findByEmailOnly(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(rawPassword, user.getPassword())) {
+        // Argon2 runs on the bounded hashing pool, not on this request thread
+        if (!passwordHashing.matches(rawPassword, user.getPassword())) {
             throw new RuntimeException("Invalid password");
         }
+        Integer userId = user.getId();
+        passwordHashing.rehashIfNeeded(rawPassword, user.getPassword(),
+                hash -> userRepository.updatePasswordHash(userId, hash));
 
-        String token = jwtUtil.generateToken(email);
+        String token = jwtUtil.generateToken(email, user.getId());
 
         user.setPassword(null);
         user.setResetOtp(null);
@@ -129,8 +141,34 @@ public class UserService {
         return users;
     }
 
+    // Keyset page ordered by id; cursor is the last id of the previous page
+    public CursorPage<Users> getUsersPage(Integer cursor, Integer size) {
+        Pageable page = PageRequest.of(0, CursorPage.clampSize(size));
+        List<Users> users = cursor == null
+                ? userRepository.findFirstPage(page)
+                : userRepository.findPageAfter(cursor, page);
+        users.forEach(this::attachPublicPhotoUrl);
+
+        String next = users.size() == page.getPageSize()
+                ? String.valueOf(users.get(users.size() - 1).getId())
+                : null;
+        return new CursorPage<>(users, next);
+    }
+
+    // Streams every user; detached before the photo URL is rewritten so nothing is flushed back
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<Users> sink) {
+        try (Stream<Users> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                entityManager.detach(user);
+                attachPublicPhotoUrl(user);
+                sink.accept(user);
+            });
+        }
+    }
+
     public Users addEmployee(Users data) {
-        data.setPassword(passwordEncoder.encode(data.getPassword()));
+        data.setPassword(passwordHashing.encode(data.getPassword()));
         return userRepository.save(data);
     }
 
@@ -148,11 +186,16 @@ public class UserService {
             if (userRepository.findByEmailOnly(u.getEmail()).isEmpty()
                     && userRepository.findByEmpid(u.getEmpid()).isEmpty()) {
 
-                u.setPassword(passwordEncoder.encode(u.getPassword()));
                 validUsers.add(u);
             }
         }
 
+        // Hashed together, one pool-width at a time
+        List<String> hashes = passwordHashing.encodeAll(validUsers.stream().map(Users::getPassword).toList());
+        for (int i = 0; i < validUsers.size(); i++) {
+            validUsers.get(i).setPassword(hashes.get(i));
+        }
+
         return validUsers.isEmpty() ? List.of() : userRepository.saveAll(validUsers);
     }
 
@@ -182,7 +225,7 @@ public class UserService {
     }
 
     public long getOnLeaveTodayCount() {
-        return leaveRequestsRepository.countLeaveToday(LocalDate.now());
+        return leaveIndex.countOnDate(LocalDate.now()); // distinct users, from memory
     }
 
     public long getPresentTodayCount() {
@@ -223,7 +266,7 @@ public class UserService {
         if (user.getResetOtpExpiry().isBefore(LocalDateTime.now()))
             throw new RuntimeException("OTP expired");
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashing.encode(newPassword));
         user.setResetOtp(null);
         user.setResetOtpExpiry(null);
 
@@ -302,18 +345,10 @@ public class UserService {
 
 
     private String buildForgotPasswordEmail(Users user, String otp) {
-        return """
-        <html>
-        <body style="font-family:Arial,sans-serif;">
-            <h2>Password Reset OTP</h2>
-            <p>Hello <strong>%s</strong>,</p>
-            <p>Your OTP:</p>
-            <h1 style="letter-spacing:6px;">%s</h1>
-            <p>This OTP is valid for 10 minutes.</p>
-            <p>— TeamHub Support</p>
-        </body>
-        </html>
-        """.formatted(user.getFullName(), otp);
+        Map<String, Object> model = new HashMap<>();
+        model.put("employeeName", user.getFullName());
+        model.put("otp", otp);
+        return mailTemplates.render("password-reset-otp", model);
     }
 
     public void deleteuser(Integer userId) {
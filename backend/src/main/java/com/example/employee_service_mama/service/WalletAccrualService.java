@@ -0,0 +1,255 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.config.AsyncConfig;
+import com.example.employee_service_mama.dto.AttendanceDayView;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.model.Wallet;
+import com.example.employee_service_mama.model.WalletAccrual;
+import com.example.employee_service_mama.repository.AttendanceRepository;
+import com.example.employee_service_mama.repository.WalletAccrualRepository;
+import com.example.employee_service_mama.repository.WalletRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Incremental salary accrual driven by attendance changes.
+ *
+ * For every (user, date) the amount already credited is kept in salary_accrual.
+ * Re-applying a day only moves currentMonthEarned by the difference, so events can be
+ * replayed or delivered twice, and HR corrections made after the day closed still land.
+ *
+ * Days before the ledger's first date were credited by the old 18:45 per-day job and have
+ * no ledger row to diff against, so they are never accrued again (see ledgerStart).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletAccrualService {
+
+    private final AttendanceRepository attendanceRepository;
+    private final WalletRepository walletRepository;
+    private final WalletAccrualRepository accrualRepository;
+
+    // The retired per-day job credited today's status at this time
+    private static final LocalTime LEGACY_DAILY_JOB = LocalTime.of(18, 45);
+
+    // Fixed once the ledger has a row: writes before it are refused, so MIN(date) never moves back
+    private volatile LocalDate ledgerStart;
+
+    // -------------------- EVENT ENTRY POINT --------------------
+
+    // Runs after the attendance write commits, off the request thread
+    @Async(AsyncConfig.ATTENDANCE_EVENTS)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAttendanceChanged(AttendanceChangedEvent event) {
+        try {
+            if (event.isBulk()) {
+                accrue(null, event.date(), event.date());
+            } else {
+                accrue(event.userId(), event.date(), event.date());
+            }
+        } catch (Exception e) {
+            // Next catch-up run repairs the day
+            log.error("Accrual failed for userId={} on {}", event.userId(), event.date(), e);
+        }
+    }
+
+    // -------------------- BATCH CATCH-UP --------------------
+
+    /**
+     * Re-applies every attendance row in [from, to]. Idempotent — days that are already
+     * credited correctly are left untouched, days before the ledger start are skipped.
+     * Returns the number of (user, date) pairs changed.
+     */
+    @Transactional
+    public int catchUp(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return accrue(null, from, to);
+    }
+
+    // -------------------- CORE --------------------
+
+    private int accrue(Integer userId, LocalDate from, LocalDate to) {
+
+        LocalDate start = ledgerStart();
+        if (to.isBefore(start)) {
+            log.warn("Accrual {} → {} skipped: before ledger start {} (already credited by the old daily job)",
+                    from, to, start);
+            return 0;
+        }
+        if (from.isBefore(start)) {
+            log.warn("Accrual {} → {} clipped to ledger start {}", from, to, start);
+            from = start;
+        }
+
+        // Lock first, read after: an event that waited on the lock must see the attendance and
+        // ledger rows the previous holder committed, not a day read before it started waiting
+        List<Wallet> wallets = userId == null
+                ? walletRepository.findCoveringForUpdate(from, to)
+                : walletRepository.findCoveringForUpdateByUser(userId, from, to);
+
+        List<AttendanceDayView> days = userId == null
+                ? attendanceRepository.findDayViewsInRange(from, to)
+                : attendanceRepository.findDayViewsInRangeForUser(userId, from, to);
+
+        List<WalletAccrual> ledger = userId == null
+                ? accrualRepository.findInRange(from, to)
+                : accrualRepository.findInRangeForUser(userId, from, to);
+
+        Map<Integer, List<Wallet>> walletsByUser = new HashMap<>();
+        for (Wallet w : wallets) {
+            walletsByUser.computeIfAbsent(w.getUser().getId(), k -> new ArrayList<>()).add(w);
+        }
+
+        Map<String, WalletAccrual> ledgerByDay = new HashMap<>();
+        for (WalletAccrual a : ledger) {
+            ledgerByDay.put(key(a.getUserId(), a.getDate()), a);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<WalletAccrual> changedLedger = new ArrayList<>();
+
+        for (AttendanceDayView day : days) {
+
+            Wallet wallet = findCovering(walletsByUser.get(day.getUserId()), day.getDate());
+            if (wallet == null) {
+                log.warn("No salary row covers userId={} on {}. Skipping accrual.",
+                        day.getUserId(), day.getDate());
+                continue;
+            }
+
+            double amount = isOpenSession(day, today)
+                    ? 0.0
+                    : calculateAmountToAdd(day.getStatus(), wallet.getDailyRate());
+
+            WalletAccrual entry = ledgerByDay.get(key(day.getUserId(), day.getDate()));
+            double alreadyCredited = entry == null ? 0.0 : entry.getAmount();
+            double delta = amount - alreadyCredited;
+
+            if (entry != null && delta == 0 && Objects.equals(day.getStatus(), entry.getStatus())) {
+                continue;
+            }
+
+            if (delta != 0) {
+                wallet.setCurrentMonthEarned(safeDouble(wallet.getCurrentMonthEarned()) + delta);
+                wallet.setLastUpdated(OffsetDateTime.now());
+            }
+
+            if (entry == null) {
+                entry = WalletAccrual.builder()
+                        .userId(day.getUserId())
+                        .date(day.getDate())
+                        .build();
+            }
+            entry.setWalletId(wallet.getId());
+            entry.setStatus(day.getStatus());
+            entry.setAmount(amount);
+            changedLedger.add(entry);
+
+            log.debug("Accrued userId={} on {}: status={}, amount={}, delta={}",
+                    day.getUserId(), day.getDate(), day.getStatus(), amount, delta);
+        }
+
+        // Wallets are managed + locked → dirty checking flushes the new totals
+        accrualRepository.saveAll(changedLedger);
+
+        if (!changedLedger.isEmpty()) {
+            log.info("Wallet accrual {} → {}{}: {} day(s) changed",
+                    from, to, userId == null ? "" : " (userId=" + userId + ")", changedLedger.size());
+        }
+        return changedLedger.size();
+    }
+
+    // -------------------- HELPERS --------------------
+
+    /**
+     * First date the ledger is in charge of: the earliest salary_accrual row, or — on an empty
+     * ledger, i.e. the first run after the switch-over — today, or tomorrow once 18:45 has passed
+     * (the old job has then already paid today).
+     */
+    LocalDate ledgerStart() {
+        LocalDate start = ledgerStart;
+        if (start != null) return start;
+
+        Optional<LocalDate> first = accrualRepository.findFirstDate();
+        if (first.isPresent()) {
+            ledgerStart = first.get();
+            return first.get();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return now.toLocalTime().isBefore(LEGACY_DAILY_JOB) ? now.toLocalDate() : now.toLocalDate().plusDays(1);
+    }
+
+    // Session still open today → nothing is earned until logout / auto-logout closes it
+    private boolean isOpenSession(AttendanceDayView day, LocalDate today) {
+        return day.getDate().equals(today)
+                && day.getLoginTime() != null
+                && day.getLogoutTime() == null;
+    }
+
+    private Wallet findCovering(List<Wallet> wallets, LocalDate date) {
+        if (wallets == null) return null;
+        for (Wallet w : wallets) {
+            if (w.getCycleStart() != null && !date.isBefore(w.getCycleStart())
+                    && (w.getCycleEnd() == null || !date.isAfter(w.getCycleEnd()))) {
+                return w;
+            }
+        }
+        return null;
+    }
+
+    private static String key(Integer userId, LocalDate date) {
+        return userId + "|" + date;
+    }
+
+    private double safeDouble(Double value) {
+        return value == null ? 0.0 : value;
+    }
+
+    double calculateAmountToAdd(String status, Double dailyRateObj) {
+
+        double dailyRate = safeDouble(dailyRateObj);
+
+        if (dailyRate == 0.0 || status == null) {
+            return 0.0;
+        }
+
+        switch (status) {
+            case "PRESENT":
+            case "WEEKEND":
+            case "HOLIDAY":
+
+                return dailyRate;
+
+            case "HALF_DAY":
+                return dailyRate / 2.0;
+
+            case "LEAVE":
+                // If your company wants paid leave, change this:
+                return 0.0;
+
+            default:
+                // Unknown / Absent statuses → no pay
+                return 0.0;
+        }
+    }
+}
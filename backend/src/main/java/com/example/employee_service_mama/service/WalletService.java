@@ -1,10 +1,8 @@
 package com.example.employee_service_mama.service;
 
 import com.example.employee_service_mama.dto.WalletResponse;
-import com.example.employee_service_mama.model.Attendance;
 import com.example.employee_service_mama.model.Users;
 import com.example.employee_service_mama.model.Wallet;
-import com.example.employee_service_mama.repository.AttendanceRepository;
 import com.example.employee_service_mama.repository.UserRepository;
 import com.example.employee_service_mama.repository.WalletRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +11,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.employee_service_mama.dto.SalaryOverviewDTO;
+import com.example.employee_service_mama.dto.SalaryOverviewRow;
+import com.example.employee_service_mama.util.PayrollCycle;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -25,8 +25,8 @@ import java.util.Optional;
 public class WalletService {
 
     private final WalletRepository walletRepository;
-    private final AttendanceRepository attendanceRepository;
     private final UserRepository userRepository;
+    private final WalletAccrualService walletAccrualService;
 
     // -------------------- SMALL HELPERS --------------------
 
@@ -99,48 +99,63 @@ public class WalletService {
     public List<WalletResponse> getAllSalaryResponses() {
         return walletRepository.findAllAsResponse();
     }
-    public List<SalaryOverviewDTO> getSalaryOverview(int year, int month) {
+    /**
+     * Aggregated payroll overview: one query for the whole cycle instead of
+     * one countPaidDaysWeighted call per wallet.
+     *
+     * @param page  zero-based page, null → all rows
+     * @param size  page size, null → all rows
+     * @param sort  "asc" / "desc" by net salary, null → by employee id
+     */
+    public List<SalaryOverviewDTO> getSalaryOverview(int year, int month,
+                                                     Integer page, Integer size, String sort) {
 
-        LocalDate start = getCycleStartForMonth(year, month);
-        LocalDate end   = getCycleEndForMonth(year, month);
+        LocalDate start = PayrollCycle.startOfMonth(year, month);
+        LocalDate end   = PayrollCycle.endOfMonth(year, month);
 
         int totalPayrollDays =
                 (int) (end.toEpochDay() - start.toEpochDay() + 1);
 
-        List<Wallet> wallets = walletRepository.findAllWithUser();
+        int sortMode = 0;
+        if ("asc".equalsIgnoreCase(sort)) sortMode = 1;
+        else if ("desc".equalsIgnoreCase(sort)) sortMode = 2;
 
-        return wallets.stream().map(w -> {
-
-            Double paidDays = attendanceRepository.countPaidDaysWeighted(
-                    w.getUser().getId(), start, end
-            );
-
-            if (paidDays == null) paidDays = 0.0;
+        int limit = Integer.MAX_VALUE;
+        int offset = 0;
+        if (page != null && size != null) {
+            if (page < 0 || size <= 0) {
+                throw new IllegalArgumentException("page must be >= 0 and size > 0");
+            }
+            limit = size;
+            offset = page * size;
+        }
 
-            double dailyRate = w.getDailyRate();
-            double earnedSalary = paidDays * dailyRate;
+        return walletRepository.findSalaryOverview(start, end, sortMode, limit, offset)
+                .stream()
+                .map(row -> toOverviewDTO(row, totalPayrollDays))
+                .toList();
+    }
 
-            double deduction = w.getDeduction() == null ? 0 : w.getDeduction();
-            double netSalary = earnedSalary - deduction;
+    private SalaryOverviewDTO toOverviewDTO(SalaryOverviewRow row, int totalPayrollDays) {
 
-            SalaryOverviewDTO dto = new SalaryOverviewDTO();
+        double paidDays = safeDouble(row.getPaidDays());
 
-            dto.setEmpid(w.getEmpid());
-            dto.setFullName(w.getUser().getFullName());
-            dto.setDepartment(w.getUser().getRole());
+        SalaryOverviewDTO dto = new SalaryOverviewDTO();
 
-            dto.setMonthlySalary(w.getMonthlySalary());
-            dto.setDeduction(deduction);
-            dto.setEarnedSalary(earnedSalary);
-            dto.setNetSalary(netSalary);
+        dto.setEmpid(row.getEmpid());
+        dto.setFullName(row.getFullName());
+        dto.setDepartment(row.getDepartment());
 
-            dto.setPaidDays(paidDays);
-            dto.setTotalPayrollDays(totalPayrollDays);
-            dto.setAttendanceSummary(paidDays + " / " + totalPayrollDays);
+        dto.setMonthlySalary(row.getMonthlySalary());
+        dto.setDeduction(safeDouble(row.getDeduction()));
+        dto.setEarnedSalary(safeDouble(row.getEarnedSalary()));
+        dto.setNetSalary(safeDouble(row.getNetSalary()));
 
-            return dto;
+        dto.setPaidDays(paidDays);
+        dto.setTotalPayrollDays(totalPayrollDays);
+        dto.setAttendanceSummary(paidDays + " / " + totalPayrollDays);
 
-        }).toList();
+        return dto;
     }
 
 
@@ -161,58 +176,25 @@ public class WalletService {
     // -------------------- SCHEDULED JOBS --------------------
 
     /**
-     * Updates daily earnings based on attendance.
-     * Runs Mon–Fri at 18:45 after attendance is finalized.
+     * Safety-net catch-up for today's earnings.
+     * Runs daily at 18:45 after attendance is finalized.
      *
      * IMPORTANT:
+     *  - Earnings are normally applied incrementally by WalletAccrualService
+     *    as attendance changes; this run only repairs missed events.
      *  - Does NOT create wallet rows.
-     *  - Only updates the active wallet (cycle_end IS NULL).
      */
     @Scheduled(cron = "0 45 18 * * * ")
-    @Transactional
     public void updateDailySalary() {
 
         LocalDate today = LocalDate.now();
-        List<Attendance> attendanceList = attendanceRepository.findByDate(today);
-
-        if (attendanceList.isEmpty()) {
-            log.info("No attendance records found for {}", today);
-            return;
-        }
-
-        for (Attendance att : attendanceList) {
-
-            Users user = att.getUser();
-            Optional<Wallet> walletOpt = walletRepository.findActiveWalletForUser(user.getId());
-
-            if (walletOpt.isEmpty()) {
-                // No active cycle for this user → do NOT auto-create here
-                log.warn("No active wallet found for userId={} (empId={}) on {}. " +
-                                "Skipping salary update. Make sure monthly cycle is created on 24th.",
-                        user.getId(), user.getEmpid(), today);
-                continue;
-            }
-
-            Wallet wallet = walletOpt.get();
-            double addAmount = calculateAmountToAdd(att.getStatus(), wallet.getDailyRate());
-
-            if (addAmount == 0) {
-                log.debug("No salary added for userId={} on {} due to status={}",
-                        user.getId(), today, att.getStatus());
-                continue;
-            }
-
-            double currentEarned = safeDouble(wallet.getCurrentMonthEarned());
-
-            wallet.setCurrentMonthEarned(currentEarned + addAmount);
-            wallet.setLastUpdated(OffsetDateTime.now());
-            walletRepository.save(wallet);
+        int changed = walletAccrualService.catchUp(today, today);
 
-            log.info("Updated wallet for userId={} on {}. Added={}, totalEarned={}",
-                    user.getId(), today, addAmount, wallet.getCurrentMonthEarned());
-        }
+        log.info("Daily salary catch-up completed for {} ({} day(s) corrected)", today, changed);
+    }
 
-        log.info("Daily salary update completed for {}", today);
+    public int catchUpAccruals(LocalDate from, LocalDate to) {
+        return walletAccrualService.catchUp(from, to);
     }
 
     /**
@@ -267,34 +249,6 @@ public class WalletService {
 
     // -------------------- HELPER METHODS --------------------
 
-    private double calculateAmountToAdd(String status, Double dailyRateObj) {
-
-        double dailyRate = safeDouble(dailyRateObj);
-
-        if (dailyRate == 0.0 || status == null) {
-            return 0.0;
-        }
-
-        switch (status) {
-            case "PRESENT":
-            case "WEEKEND":
-            case "HOLIDAY":
-
-                return dailyRate;
-
-            case "HALF_DAY":
-                return dailyRate / 2.0;
-
-            case "LEAVE":
-                // If your company wants paid leave, change this:
-                return 0.0;
-
-            default:
-                // Unknown / Absent statuses → no pay
-                return 0.0;
-        }
-    }
-
     private Wallet buildNewCycleWallet(Users user, Wallet previousActiveWallet, LocalDate cycleStartDate) {
 
         double monthlySalary;
@@ -337,7 +291,7 @@ public class WalletService {
             return activeWalletOpt.get();
         }
 
-        LocalDate cycleStart = getCurrentCycleStartDate();
+        LocalDate cycleStart = PayrollCycle.startOf(LocalDate.now());
 
         Wallet wallet = buildNewCycleWallet(user, null, cycleStart);
         walletRepository.save(wallet);
@@ -346,29 +300,6 @@ public class WalletService {
         return wallet;
     }
 
-    private LocalDate getCurrentCycleStartDate() {
-        LocalDate today = LocalDate.now();
-        if (today.getDayOfMonth() < 24) {
-            return today.withDayOfMonth(24).minusMonths(1);
-        } else {
-            return today.withDayOfMonth(24);
-        }
-    }
-    // ******** FILTER HELPERS ********
-
-    private LocalDate getCycleStartForMonth(int year, int month) {
-        // Example: month = 12 (Dec)
-        // Cycle Start = 24 Nov
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(24)
-                .minusMonths(1);
-    }
-
-    private LocalDate getCycleEndForMonth(int year, int month) {
-        // Cycle End = 23 Dec
-        return LocalDate.of(year, month, 1)
-                .withDayOfMonth(23);
-    }
     // ******** FILTER LOGIC ********
 
     public Wallet filterWalletByUser(Integer userId, Integer year, Integer month) {
@@ -379,8 +310,8 @@ public class WalletService {
 
         // Filter by Month + Year
         if (year != null && month != null) {
-            LocalDate cycleStart = getCycleStartForMonth(year, month);
-            LocalDate cycleEnd = getCycleEndForMonth(year, month);
+            LocalDate cycleStart = PayrollCycle.startOfMonth(year, month);
+            LocalDate cycleEnd = PayrollCycle.endOfMonth(year, month);
 
             return walletRepository.findWalletInRange(userId, cycleStart, cycleEnd).orElse(null);
         }
@@ -394,10 +325,10 @@ public class WalletService {
         return walletRepository.findActiveWalletForUser(userId).orElse(null);
     }
 
-    public List<SalaryOverviewDTO> getCurrentMonthOverview() {
+    public List<SalaryOverviewDTO> getCurrentMonthOverview(Integer page, Integer size, String sort) {
         int year = getCurrentYear();
         int month = getCurrentMonth();
-        return getSalaryOverview(year, month);
+        return getSalaryOverview(year, month, page, size, sort);
     }
     private int getCurrentYear() { return LocalDate.now().getYear(); }
 
@@ -4,21 +4,30 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.example.employee_service_mama.service.UserRoleIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+    // Verified principal for the rest of the request — read this instead of parsing the header again
+    public static final String PRINCIPAL_ATTRIBUTE = JwtFilter.class.getName() + ".principal";
+
     @Autowired
     JwtUtil jwtutil;
 
+    @Autowired
+    UserRoleIndex userRoleIndex;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -26,12 +35,20 @@ public class JwtFilter extends OncePerRequestFilter {
         String headerreq=request.getHeader("Authorization");
         if(headerreq !=null && headerreq.startsWith("Bearer ")){
             String token=headerreq.substring(7);
-if(jwtutil.validateToken(token)){
-    String email=jwtutil. extractEmail(token);
-    var auth1=new UsernamePasswordAuthenticationToken(email,null, List.of());
-    SecurityContextHolder.getContext().setAuthentication(auth1);
-}
+            // One verification per request (and none at all for a recently seen token)
+            jwtutil.verify(token).ifPresent(principal -> {
+                request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+                var auth1=new UsernamePasswordAuthenticationToken(principal.email(),null, authorities(principal));
+                SecurityContextHolder.getContext().setAuthentication(auth1);
+            });
         }
         filterChain.doFilter(request,response);
     }
+
+    // Current role from the in-memory index (not the token), so a role change applies without re-login
+    private List<SimpleGrantedAuthority> authorities(JwtUtil.JwtPrincipal principal) {
+        String role = userRoleIndex.roleOf(principal.userId());
+        if (role == null || role.isEmpty()) return List.of();
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase(Locale.ROOT)));
+    }
 }
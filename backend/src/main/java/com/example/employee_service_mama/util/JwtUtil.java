@@ -1,15 +1,23 @@
 package com.example.employee_service_mama.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtUtil {
@@ -20,38 +28,103 @@ public class JwtUtil {
     @Value("${app.jwt.expiration-ms:86400000}") // Default: 1 day
     private long EXPIRATION;
 
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    // Verified tokens remembered (by SHA-256 digest, never the raw token) until they expire
+    @Value("${app.jwt.cache-size:10000}")
+    private int CACHE_SIZE;
+
+    // Key and parser are immutable and thread-safe → built once
+    private Key signKey;
+    private JwtParser parser;
+
+    private Map<String, JwtPrincipal> verified;
+
+    // Users.id — lets the filter resolve the current role without a DB query
+    private static final String USER_ID_CLAIM = "uid";
+
+    /** What a valid token proves: who, and until when. userId is null for tokens issued before it was added. */
+    public record JwtPrincipal(String email, Integer userId, long expiresAtMillis) {
+        boolean isExpired(long now) {
+            return now >= expiresAtMillis;
+        }
     }
 
-    public String generateToken(String email) {
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(signKey).build();
+
+        // access-ordered LinkedHashMap = LRU; guarded by its own monitor
+        verified = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JwtPrincipal> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+
+    public String generateToken(String email, Integer userId) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(USER_ID_CLAIM, userId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        return extractAllClaims(token).getSubject();
-    }
+    /**
+     * Verifies the token once: a cache hit skips signature checking, a miss parses and caches it.
+     * Empty for invalid or expired tokens.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        token = token.replace("Bearer ", ""); // Removes prefix if present
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
 
-    public boolean validateToken(String token) {
+        synchronized (verified) {
+            JwtPrincipal cached = verified.get(digest);
+            if (cached != null) {
+                if (!cached.isExpired(now)) return Optional.of(cached);
+                verified.remove(digest);
+            }
+        }
+
+        JwtPrincipal principal;
         try {
-            extractAllClaims(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date exp = claims.getExpiration();
+            principal = new JwtPrincipal(claims.getSubject(), claims.get(USER_ID_CLAIM, Integer.class),
+                    exp == null ? Long.MAX_VALUE : exp.getTime());
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
+
+        synchronized (verified) {
+            verified.put(digest, principal);
+        }
+        return Optional.of(principal);
     }
 
-    private Claims extractAllClaims(String token) {
-        token = token.replace("Bearer ", ""); // Removes prefix if present
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractEmail(String token) {
+        return verify(token).map(JwtPrincipal::email)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid JWT"));
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    private static String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
     }
 }
@@ -0,0 +1,70 @@
+package com.example.employee_service_mama.util;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML mail template parsed once into alternating literal / {{variable}} segments.
+ * Rendering is a straight walk over the segments — no format-string parsing per call.
+ * Variable values are HTML-escaped; a missing variable renders as empty text.
+ */
+public final class MailTemplate {
+
+    private final String name;
+    private final String[] literals;    // literals.length == variables.length + 1
+    private final String[] variables;
+    private final int literalLength;
+
+    private MailTemplate(String name, String[] literals, String[] variables) {
+        this.name = name;
+        this.literals = literals;
+        this.variables = variables;
+        int len = 0;
+        for (String l : literals) len += l.length();
+        this.literalLength = len;
+    }
+
+    public static MailTemplate parse(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            int close = open < 0 ? -1 : source.indexOf("}}", open + 2);
+            if (open < 0 || close < 0) break;
+            String var = source.substring(open + 2, close).trim();
+            if (var.isEmpty()) {
+                throw new IllegalArgumentException("Empty {{}} in mail template " + name + " at " + open);
+            }
+            literals.add(source.substring(pos, open));
+            variables.add(var);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+        return new MailTemplate(name, literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    // Rough output size, used to pre-size the buffer
+    public int estimatedLength() {
+        return literalLength + variables.length * 32;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, ?> model) {
+        out.ensureCapacity(out.length() + estimatedLength());
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(variables[i]);
+            if (value != null) {
+                out.append(HtmlUtils.htmlEscape(value.toString()));
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+}
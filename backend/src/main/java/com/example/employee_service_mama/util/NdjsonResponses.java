@@ -0,0 +1,46 @@
+package com.example.employee_service_mama.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Newline-delimited JSON responses: one object per line, written as rows arrive
+public final class NdjsonResponses {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 200;
+
+    private NdjsonResponses() {
+    }
+
+    // producer receives a sink and pushes rows into it; it runs on the async request thread
+    public static <T> ResponseEntity<StreamingResponseBody> of(ObjectMapper mapper,
+                                                               Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            int[] written = {0};
+            try {
+                producer.accept(row -> {
+                    try {
+                        out.write(mapper.writeValueAsBytes(row));
+                        out.write('\n');
+                        if (++written[0] % FLUSH_EVERY == 0) {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.employee_service_mama.util;
+
+import java.time.LocalDate;
+
+/**
+ * Payroll cycle arithmetic: a cycle runs from the 24th of one month
+ * to the 23rd of the next, and is named after the month it ends in.
+ */
+public final class PayrollCycle {
+
+    private PayrollCycle() {
+    }
+
+    // Cycle containing the given day
+    public static LocalDate startOf(LocalDate day) {
+        return day.getDayOfMonth() >= 24
+                ? day.withDayOfMonth(24)
+                : day.minusMonths(1).withDayOfMonth(24);
+    }
+
+    public static LocalDate endOf(LocalDate day) {
+        return day.getDayOfMonth() >= 24
+                ? day.plusMonths(1).withDayOfMonth(23)
+                : day.withDayOfMonth(23);
+    }
+
+    // Cycle named after year/month (month = 12 → 24 Nov .. 23 Dec)
+    public static LocalDate startOfMonth(int year, int month) {
+        return LocalDate.of(year, month, 1).withDayOfMonth(24).minusMonths(1);
+    }
+
+    public static LocalDate endOfMonth(int year, int month) {
+        return LocalDate.of(year, month, 23);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.employee_service_mama.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks picked by key hash. Requests for different users almost
+ * never share a stripe, so they run in parallel; the same user's double-clicks
+ * still serialize. Only guards this JVM — cross-replica safety comes from the DB.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int shift;
+
+    // stripes is rounded up to a power of two
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.shift = 32 - Integer.numberOfTrailingZeros(size);
+    }
+
+    // Fibonacci hashing: top bits of hash * golden ratio spread sequential ids evenly
+    public ReentrantLock forKey(Object key) {
+        return stripes[(key.hashCode() * 0x9E3779B9) >>> shift];
+    }
+}
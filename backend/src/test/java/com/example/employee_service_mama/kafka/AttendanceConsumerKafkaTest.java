@@ -0,0 +1,154 @@
+package com.example.employee_service_mama.kafka;
+
+import com.example.employee_service_mama.config.KafkaConsumerConfig;
+import com.example.employee_service_mama.service.UserIdRegistry;
+import com.example.employee_service_mama.service.WebSocketService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The attendance CDC listener on the real KafkaConsumerConfig containers, against an embedded broker:
+ * per-topic concurrency, whole polls delivered as one batch, bad records skipped without redelivery,
+ * and Kafka client metrics (records-lag) reaching Micrometer. WebSocket and the user registry are mocked.
+ */
+@SpringJUnitConfig
+@EmbeddedKafka(partitions = 2, topics = AttendanceConsumerKafkaTest.TOPIC)
+@TestPropertySource(properties = {
+		"spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		"spring.kafka.consumer.group-id=attendance-consumer-test",
+		// fresh topic and group: read from the start so nothing produced around the assignment is missed
+		"spring.kafka.consumer.auto-offset-reset=earliest",
+		"app.kafka.concurrency.attendance=2",
+		// broker holds a fetch up to 1s waiting for 64 KB, so a burst comes back in a few large polls
+		"app.kafka.consumer.fetch-min-bytes=65536",
+		"app.kafka.consumer.fetch-max-wait-ms=1000"
+})
+class AttendanceConsumerKafkaTest {
+
+	static final String TOPIC = "employee_service.public.attendance";
+
+	@Configuration
+	@Import({KafkaConsumerConfig.class, AttendanceConsumer.class, UserTopicPublisher.class, CdcEnvelopeParser.class})
+	static class Config {
+
+		@Bean
+		static PropertySourcesPlaceholderConfigurer placeholders() {
+			return new PropertySourcesPlaceholderConfigurer();
+		}
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		ObjectMapper objectMapper() {
+			return new ObjectMapper();
+		}
+	}
+
+	@Autowired
+	private EmbeddedKafkaBroker broker;
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@MockBean
+	private WebSocketService webSocketService;
+	@MockBean
+	private UserIdRegistry userIdRegistry;
+	@SpyBean
+	private UserTopicPublisher userTopicPublisher;
+
+	@Test
+	void burstIsConsumedInBatchesAndBadRecordsAreSkipped() throws Exception {
+		for (MessageListenerContainer container : registry.getListenerContainers()) {
+			assertEquals(2, ((ConcurrentMessageListenerContainer<?, ?>) container).getConcurrency());
+			// partitions assigned before producing, so the burst is measured against live consumers
+			ContainerTestUtils.waitForAssignment(container, 2);
+		}
+		when(userIdRegistry.exists(7)).thenReturn(true);
+		when(userIdRegistry.exists(8)).thenReturn(true);
+
+		List<String> forUser7 = new ArrayList<>();
+		DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(
+				KafkaTestUtils.producerProps(broker), new StringSerializer(), new StringSerializer());
+		try {
+			KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory);
+
+			// key = user id → a user's rows share a partition and must be pushed in order
+			for (int i = 0; i < 40; i++) {
+				String row = change(7, i);
+				forUser7.add(row);
+				template.send(new ProducerRecord<>(TOPIC, "7", row));
+				template.send(new ProducerRecord<>(TOPIC, "8", change(8, i)));
+			}
+			template.send(new ProducerRecord<>(TOPIC, "8", "{not json"));
+			template.send(new ProducerRecord<>(TOPIC, "9", change(9, 0)));   // unknown user
+			template.flush();
+		} finally {
+			producerFactory.destroy();
+		}
+
+		verify(webSocketService, timeout(15_000).times(40)).sendMessage(eq("/topic/attendance/7"), anyString());
+		verify(webSocketService, timeout(15_000).times(40)).sendMessage(eq("/topic/attendance/8"), anyString());
+
+		var order = inOrder(webSocketService);
+		for (String row : forUser7) {
+			order.verify(webSocketService).sendMessage("/topic/attendance/7", row);
+		}
+		verify(webSocketService, never()).sendMessage(eq("/topic/attendance/9"), anyString());
+
+		// 82 records arrived in far fewer listener calls, and nothing was redelivered after the bad one
+		ArgumentCaptor<List<String>> batches = ArgumentCaptor.captor();
+		verify(userTopicPublisher, atLeastOnce()).publish(batches.capture(), eq("/topic/attendance/"));
+		assertEquals(82, batches.getAllValues().stream().mapToInt(List::size).sum());
+		assertTrue(batches.getAllValues().size() <= 10, "listener calls: " + batches.getAllValues().size());
+
+		assertFalse(meterRegistry.find("kafka.consumer.fetch.manager.records.lag.max").meters().isEmpty());
+	}
+
+	private static String change(int userId, int seq) {
+		return "{\"before\":null,\"after\":{\"id\":" + (userId * 1000 + seq) + ",\"user_id\":" + userId
+				+ ",\"status\":\"PRESENT\"},\"op\":\"u\"}";
+	}
+}
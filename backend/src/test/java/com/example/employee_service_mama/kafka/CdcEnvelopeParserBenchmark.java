@@ -0,0 +1,145 @@
+package com.example.employee_service_mama.kafka;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one leave_request change event: the JsonNode path the consumers used before
+ * CdcEnvelopeParser against the streaming parser.
+ *
+ * The message is a Debezium update (before and after rows, source block), either plain as
+ * produced with value.converter.schemas.enable=false, or wrapped in {schema, payload} with
+ * the full connector schema (~4 KB), which is what the connector emits by default.
+ * All three paths return the user id and the "after" JSON forwarded to the browser.
+ * newMapperTree is LeaveRequestConsumer as it was (a new ObjectMapper per message),
+ * sharedMapperTree is UserTopicPublisher as it was (one mapper, still a full tree).
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="CdcEnvelopeParserBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CdcEnvelopeParserBenchmark {
+
+	@Param({"plain", "schema"})
+	public String envelope;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final CdcEnvelopeParser parser = new CdcEnvelopeParser(mapper);
+	private String message;
+
+	@Setup
+	public void setUp() throws Exception {
+		String payload = "{\"before\":" + row("PENDING", null, null)
+				+ ",\"after\":" + row("APPROVED", "\"2026-10-16T09:12:44.118532Z\"", "3")
+				+ ",\"source\":{\"version\":\"2.5.0.Final\",\"connector\":\"postgresql\",\"name\":\"employee_service\","
+				+ "\"ts_ms\":1792142764118,\"snapshot\":\"false\",\"db\":\"employee_db\","
+				+ "\"sequence\":\"[\\\"24023128\\\",\\\"24023184\\\"]\",\"schema\":\"public\",\"table\":\"leave_request\","
+				+ "\"txId\":1893,\"lsn\":24023184,\"xmin\":null},"
+				+ "\"op\":\"u\",\"ts_ms\":1792142764342,\"transaction\":null}";
+		message = envelope.equals("schema") ? "{\"schema\":" + schema() + ",\"payload\":" + payload + "}" : payload;
+
+		CdcEvent event = parser.parse(message);
+		if (event.after().userId() != 42 || !event.afterJson().equals(tree(mapper, message).get("after").toString())) {
+			throw new IllegalStateException("parsers disagree on " + envelope + " envelope");
+		}
+	}
+
+	@Benchmark
+	public void newMapperTree(Blackhole bh) throws Exception {
+		JsonNode after = tree(new ObjectMapper(), message).get("after");
+		bh.consume(after.get("user_id").asInt());
+		bh.consume(after.toString());
+	}
+
+	@Benchmark
+	public void sharedMapperTree(Blackhole bh) throws Exception {
+		JsonNode after = tree(mapper, message).get("after");
+		bh.consume(after.get("user_id").asInt());
+		bh.consume(after.toString());
+	}
+
+	@Benchmark
+	public void streaming(Blackhole bh) throws Exception {
+		CdcEvent event = parser.parse(message);
+		bh.consume(event.after().userId());
+		bh.consume(event.afterJson());
+	}
+
+	private static JsonNode tree(ObjectMapper mapper, String message) throws Exception {
+		JsonNode root = mapper.readTree(message);
+		return root.has("payload") ? root.get("payload") : root;
+	}
+
+	private static String row(String status, String approvalDate, String approvedBy) {
+		return "{\"id\":1187,\"user_id\":42,\"empid\":\"EMP0042\",\"start_date\":20758,\"end_date\":20760,"
+				+ "\"reason\":\"Sister's wedding in Madurai — travelling on the 21st, back on the 24th.\","
+				+ "\"status\":\"" + status + "\",\"approval_date\":" + approvalDate + ",\"approved_by\":" + approvedBy
+				+ ",\"created_at\":\"2026-10-14T05:31:07.402911Z\"}";
+	}
+
+	// Shape of the schema the Debezium postgres connector sends with JsonConverter schemas.enable=true
+	private static String schema() {
+		String columns = String.join(",",
+				field("id", "int32", false, null),
+				field("user_id", "int32", true, null),
+				field("empid", "string", false, null),
+				field("start_date", "int32", false, "io.debezium.time.Date"),
+				field("end_date", "int32", false, "io.debezium.time.Date"),
+				field("reason", "string", false, null),
+				field("status", "string", false, null),
+				field("approval_date", "string", true, "io.debezium.time.ZonedTimestamp"),
+				field("approved_by", "int32", true, null),
+				field("created_at", "string", false, "io.debezium.time.ZonedTimestamp"));
+		String value = "\"type\":\"struct\",\"fields\":[" + columns + "],\"optional\":true,"
+				+ "\"name\":\"employee_service.public.leave_request.Value\"";
+
+		StringJoiner source = new StringJoiner(",");
+		for (String f : new String[] {"version", "connector", "name", "db", "schema", "table", "sequence"}) {
+			source.add(field(f, "string", !f.equals("version"), null));
+		}
+		source.add(field("ts_ms", "int64", false, null));
+		source.add(field("snapshot", "string", true, "io.debezium.data.Enum"));
+		source.add(field("txId", "int64", true, null));
+		source.add(field("lsn", "int64", true, null));
+		source.add(field("xmin", "int64", true, null));
+
+		return "{\"type\":\"struct\",\"fields\":["
+				+ "{" + value + ",\"field\":\"before\"},"
+				+ "{" + value + ",\"field\":\"after\"},"
+				+ "{\"type\":\"struct\",\"fields\":[" + source + "],\"optional\":false,"
+				+ "\"name\":\"io.debezium.connector.postgresql.Source\",\"field\":\"source\"},"
+				+ field("op", "string", false, null) + ","
+				+ field("ts_ms", "int64", true, null) + ","
+				+ "{\"type\":\"struct\",\"fields\":["
+				+ field("id", "string", false, null) + ","
+				+ field("total_order", "int64", false, null) + ","
+				+ field("data_collection_order", "int64", false, null)
+				+ "],\"optional\":true,\"name\":\"event.block\",\"version\":1,\"field\":\"transaction\"}"
+				+ "],\"optional\":false,\"name\":\"employee_service.public.leave_request.Envelope\",\"version\":1}";
+	}
+
+	private static String field(String name, String type, boolean optional, String logical) {
+		return "{\"type\":\"" + type + "\",\"optional\":" + optional
+				+ (logical != null ? ",\"name\":\"" + logical + "\",\"version\":1" : "")
+				+ ",\"field\":\"" + name + "\"}";
+	}
+}
@@ -0,0 +1,149 @@
+package com.example.employee_service_mama.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+class CdcEnvelopeParserTest {
+
+	private final CdcEnvelopeParser parser = new CdcEnvelopeParser(new ObjectMapper());
+
+	// Single quotes keep the table readable; swapped for double quotes before parsing
+	private static String json(String s) {
+		return s.replace('\'', '"');
+	}
+
+	private static final String SCHEMA = json("{'type':'struct','fields':["
+			+ "{'field':'before','type':'struct','fields':[{'field':'id','type':'int32'}]},"
+			+ "{'field':'after','type':'struct','fields':[{'field':'id','type':'int32'}]},"
+			+ "{'field':'op','type':'string'}],'name':'envelope'}");
+
+	static Stream<Arguments> afterSlices() {
+		return Stream.of(
+				arguments("flat row",
+						json("{'id':5,'user_id':7,'status':'approved'}")),
+				arguments("nested object and array",
+						json("{'id':3,'meta':{'x':[1,{'y':2}],'z':{}},'tags':['a','b'],'role':'hr'}")),
+				arguments("escaped quotes and braces in strings",
+						json("{'id':4,'title':'say \\'hi\\' {not} [json] }','role':'admin'}")),
+				arguments("backslashes and unicode",
+						json("{'id':6,'path':'C:\\\\tmp\\\\}','name':'Zoë 😀 \\u00e9','role':'hr'}")),
+				arguments("whitespace inside the object",
+						json("{ 'id' : 8 ,\n  'role' : 'hr' }")),
+				arguments("empty object",
+						"{}")
+		);
+	}
+
+	@ParameterizedTest(name = "plain envelope, {0}")
+	@MethodSource("afterSlices")
+	void plainEnvelopeKeepsExactAfterText(String name, String after) throws Exception {
+		String message = json("{'before':null,'after':") + after + json(",'source':{'table':'x','lsn':1},'op':'c'}");
+
+		CdcEvent event = parser.parse(message);
+
+		assertEquals("c", event.op());
+		assertEquals(after, event.afterJson());
+		assertNull(event.before());
+		assertFalse(event.isDelete());
+	}
+
+	@ParameterizedTest(name = "schema-wrapped envelope, {0}")
+	@MethodSource("afterSlices")
+	void schemaWrappedEnvelopeKeepsExactAfterText(String name, String after) throws Exception {
+		String message = json("{'schema':") + SCHEMA + json(",'payload':{'before':{'id':1},'after':")
+				+ after + json(",'op':'u','ts_ms':1700000000000}}");
+
+		CdcEvent event = parser.parse(message);
+
+		assertEquals("u", event.op());
+		assertEquals(after, event.afterJson());
+		assertEquals(1, event.before().id());
+	}
+
+	@Test
+	void rowColumnsAreDecoded() throws Exception {
+		CdcEvent event = parser.parse(json("{'payload':{'op':'c','after':{'id':11,'user_id':7,'role':'HR',"
+				+ "'target_role':'all','status':'approved','start_date':19723,'end_date':'2024-01-05',"
+				+ "'unused':[{'id':99}],'user':{'id':98}}}}"));
+
+		CdcRow row = event.after();
+		assertEquals(11, row.id());
+		assertEquals(7, row.userId());
+		assertEquals("HR", row.role());
+		assertEquals("all", row.targetRole());
+		assertEquals("approved", row.status());
+		assertEquals(LocalDate.of(2024, 1, 1), row.startDate());   // Debezium DATE = epoch days
+		assertEquals(LocalDate.of(2024, 1, 5), row.endDate());
+		assertEquals(11, event.rowId());
+	}
+
+	@Test
+	void nullColumnsStayNull() throws Exception {
+		CdcRow row = parser.parse(json("{'op':'c','after':{'id':2,'user_id':null,'start_date':null}}")).after();
+
+		assertEquals(2, row.id());
+		assertNull(row.userId());
+		assertNull(row.startDate());
+	}
+
+	@Test
+	void deleteCarriesOnlyBefore() throws Exception {
+		CdcEvent event = parser.parse(json("{'schema':") + SCHEMA
+				+ json(",'payload':{'before':{'id':9,'user_id':4},'after':null,'op':'d'}}"));
+
+		assertTrue(event.isDelete());
+		assertNull(event.after());
+		assertNull(event.afterJson());
+		assertEquals(9, event.rowId());
+		assertEquals(4, event.before().userId());
+	}
+
+	@Test
+	void deleteWithoutOpIsStillADelete() throws Exception {
+		CdcEvent event = parser.parse(json("{'before':{'id':9},'after':null}"));
+
+		assertTrue(event.isDelete());
+		assertEquals(9, event.rowId());
+	}
+
+	@ParameterizedTest(name = "tombstone [{0}]")
+	@NullAndEmptySource
+	void tombstoneIsEmpty(String message) throws Exception {
+		assertSame(CdcEvent.EMPTY, parser.parse(message));
+	}
+
+	@Test
+	void nonObjectMessageIsEmpty() throws Exception {
+		assertSame(CdcEvent.EMPTY, parser.parse("[1,2]"));
+		assertSame(CdcEvent.EMPTY, parser.parse("null"));
+	}
+
+	@Test
+	void payloadInsidePayloadIsNotTreatedAsEnvelope() throws Exception {
+		CdcEvent event = parser.parse(json("{'payload':{'op':'c','after':{'id':1},'payload':{'op':'d'}}}"));
+
+		assertEquals("c", event.op());
+		assertEquals(1, event.rowId());
+	}
+
+	@Test
+	void truncatedMessageFails() {
+		assertThrows(IOException.class, () -> parser.parse(json("{'op':'c','after':{'id':1,")));
+	}
+}
@@ -0,0 +1,154 @@
+package com.example.employee_service_mama.rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-evaluating a year of attendance history: the string-switch rules that lived in
+ * AttendanceCsvFileService.decideFinalStatus against AttendancePolicy.classify.
+ *
+ * The corpus is employees × 260 working days with realistic logins (08:45–10:30), logouts
+ * (12:00–19:30, some still open) and sheet marks. legacy builds the status and remark strings
+ * per row as the old code did; policy parses the sheet mark and classifies, rendering remarks
+ * only for rows whose stored status changes — what the reclassify endpoint does. One stored
+ * status in ten is made to differ, as after a policy change.
+ * Run with -prof gc to see the allocation difference.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="AttendancePolicyBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttendancePolicyBenchmark {
+
+	private static final int WORKING_DAYS = 260;
+	private static final String[] SHEET = {"PRESENT", "PRESENT", "PRESENT", "present ", "ABSENT", "Leave", "HALF_DAY", ""};
+
+	// Values from application.yaml (app.attendance.policy.*)
+	private static final LocalTime FULL_PRESENT_LIMIT = LocalTime.of(9, 10);
+	private static final LocalTime FULL_DAY_END = LocalTime.of(18, 0);
+	private static final int MIN_HOURS = 5;
+	private static final int FULL_DAY_HOURS = 9;
+
+	@Param({"1000"})
+	public int employees;
+
+	private final AttendancePolicy policy = new AttendancePolicy(
+			LocalTime.of(9, 0), FULL_PRESENT_LIMIT, FULL_DAY_END, LocalTime.of(18, 30), MIN_HOURS, FULL_DAY_HOURS);
+
+	private LocalTime[] logins;
+	private LocalTime[] logouts;
+	private String[] sheet;
+	private String[] stored;
+
+	@Setup
+	public void setUp() {
+		int rows = employees * WORKING_DAYS;
+		logins = new LocalTime[rows];
+		logouts = new LocalTime[rows];
+		sheet = new String[rows];
+		stored = new String[rows];
+
+		SplittableRandom random = new SplittableRandom(42);
+		for (int i = 0; i < rows; i++) {
+			if (random.nextInt(20) != 0) {
+				logins[i] = LocalTime.of(8, 45).plusMinutes(random.nextInt(106));
+				if (random.nextInt(15) != 0) {
+					logouts[i] = LocalTime.of(12, 0).plusMinutes(random.nextInt(451));
+				}
+			}
+			sheet[i] = SHEET[random.nextInt(SHEET.length)];
+			String status = legacyDecide(logins[i], logouts[i], sheet[i])[0];
+			stored[i] = random.nextInt(10) == 0 ? (status.equals("PRESENT") ? "HALF_DAY" : "PRESENT") : status;
+		}
+	}
+
+	@Benchmark
+	public int legacy() {
+		int present = 0;
+		for (int i = 0; i < logins.length; i++) {
+			String[] result = legacyDecide(logins[i], logouts[i], sheet[i]);
+			if (result[0].equals("PRESENT")) present++;
+		}
+		return present;
+	}
+
+	@Benchmark
+	public int policy() {
+		int changed = 0;
+		for (int i = 0; i < logins.length; i++) {
+			AttendanceOutcome outcome = policy.classify(logins[i], logouts[i], CsvMark.parse(sheet[i]));
+			if (!outcome.status().equals(stored[i])) {
+				outcome.remark(policy.workedHours(logins[i], logouts[i]));
+				changed++;
+			}
+		}
+		return changed;
+	}
+
+	// AttendanceCsvFileService.decideFinalStatus before the rules moved into AttendancePolicy
+	private static String[] legacyDecide(LocalTime login, LocalTime logout, String csv) {
+		String csvStatus = csv != null ? csv.toUpperCase().trim() : "ABSENT";
+		if (csvStatus.isEmpty()) csvStatus = "ABSENT";
+
+		long workedHours = 0;
+		if (login != null && logout != null) {
+			workedHours = Duration.between(login, logout).toHours();
+		}
+
+		String finalStatus;
+		String finalRemark;
+		switch (csvStatus) {
+			case "ABSENT":
+				finalStatus = "ABSENT";
+				finalRemark = "Absent For Today's Standup Call";
+				break;
+			case "LEAVE":
+				finalStatus = "LEAVE";
+				finalRemark = "Finalized from CSV: Leave";
+				break;
+			case "HALF_DAY":
+			case "HALF-DAY":
+			case "HALFDAY":
+				finalStatus = "HALF_DAY";
+				finalRemark = "Finalized from CSV: Half Day";
+				break;
+			default:
+				if (login == null) {
+					finalStatus = "ABSENT";
+					finalRemark = "No Login Found ⇒ Absent";
+				} else if (!login.isAfter(FULL_PRESENT_LIMIT) && logout != null && !logout.isBefore(FULL_DAY_END)) {
+					finalStatus = "PRESENT";
+					finalRemark = "Full Day Present — Time Condition Met";
+				} else if (workedHours < MIN_HOURS) {
+					finalStatus = "ABSENT";
+					finalRemark = "Worked: " + workedHours + " Hrs ⇒ ABSENT";
+				} else if (login.isAfter(FULL_PRESENT_LIMIT)) {
+					finalStatus = "HALF_DAY";
+					finalRemark = "Late Login ⇒ HALF DAY";
+				} else {
+					finalStatus = workedHours >= FULL_DAY_HOURS ? "PRESENT" : "HALF_DAY";
+					finalRemark = "Worked: " + workedHours + " Hrs ⇒ " + finalStatus;
+				}
+				break;
+		}
+		return new String[] {finalStatus, finalRemark};
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.employee_service_mama.rules;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AttendancePolicyTest {
+
+	// Same values as application.yaml
+	private final AttendancePolicy policy = new AttendancePolicy(
+			LocalTime.of(9, 0), LocalTime.of(9, 10), LocalTime.of(18, 0), LocalTime.of(18, 30), 5, 9);
+
+	@ParameterizedTest(name = "{0}-{1} csv={2} → {3}")
+	@CsvSource(nullValues = "-", value = {
+			// login, logout, csv,     expected
+			"09:00, 18:00, NONE,     FULL_DAY_TIME_MET",
+			"09:10, 18:00, NONE,     FULL_DAY_TIME_MET",
+			"09:10, 17:59, NONE,     WORKED_PARTIAL",
+			"09:00, 17:59, NONE,     WORKED_PARTIAL",
+			"09:11, 18:30, NONE,     LATE_LOGIN",
+			"09:11, 18:11, NONE,     LATE_LOGIN",
+			"09:00, 13:59, NONE,     UNDER_MIN_HOURS",
+			"09:00, 14:00, NONE,     WORKED_PARTIAL",
+			"12:00, 16:59, NONE,     UNDER_MIN_HOURS",
+			"08:00, 17:00, NONE,     WORKED_FULL_DAY",
+			"09:00, -,     NONE,     UNDER_MIN_HOURS",
+			"-,     -,     NONE,     NO_LOGIN",
+			"09:00, 18:00, ABSENT,   CSV_ABSENT",
+			"09:00, 18:00, LEAVE,    CSV_LEAVE",
+			"09:00, 18:00, HALF_DAY, CSV_HALF_DAY",
+			"09:00, 18:00, PRESENT,  FULL_DAY_TIME_MET",
+			"-,     -,     PRESENT,  NO_LOGIN",
+			"09:30, 18:30, PRESENT,  LATE_LOGIN",
+	})
+	void classify(LocalTime login, LocalTime logout, CsvMark csv, AttendanceOutcome expected) {
+		assertEquals(expected, policy.classify(login, logout, csv));
+	}
+
+	@ParameterizedTest(name = "forgot logout, login {0} → {1}")
+	@CsvSource({
+			"09:00, FORGOT_LOGOUT",
+			"13:30, FORGOT_LOGOUT",
+			"13:31, FORGOT_LOGOUT_UNDER_MIN",
+	})
+	void classifyForgottenLogout(LocalTime login, AttendanceOutcome expected) {
+		assertEquals(expected, policy.classifyForgottenLogout(login));
+	}
+
+	@ParameterizedTest(name = "sheet \"{0}\" → {1}")
+	@CsvSource(nullValues = "-", value = {
+			"-,          ABSENT",
+			"'',         ABSENT",
+			"Present,    PRESENT",
+			"' absent ', ABSENT",
+			"Leave,      LEAVE",
+			"half-day,   HALF_DAY",
+			"HALFDAY,    HALF_DAY",
+			"Half Day,   HALF_DAY",
+			"late,       PRESENT",
+	})
+	void parseCsvMark(String status, CsvMark expected) {
+		assertEquals(expected, CsvMark.parse(status));
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.event.AttendanceRecordsChangedEvent;
+import com.example.employee_service_mama.model.AttendanceCsvFile;
+import com.example.employee_service_mama.repository.AttendanceCsvFileRepository;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceCsvFileServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 16);
+
+	@Mock
+	private AttendanceCsvFileRepository repo;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+	@Mock
+	private AttendanceRecordsJdbcRepository recordsJdbcRepository;
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private AttendanceCsvFileService service;
+
+	private final List<String> trace = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "batchSize", 500);
+		when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+			trace.add("begin");
+			TransactionCallback<?> callback = inv.getArgument(0);
+			try {
+				Object result = callback.doInTransaction(mock(TransactionStatus.class));
+				trace.add("commit");
+				return result;
+			} catch (RuntimeException e) {
+				trace.add("rollback");
+				throw e;
+			}
+		});
+	}
+
+	@Test
+	void rowsAndAbsenteesAreWrittenInOneTransactionThenPublished() {
+		when(recordsJdbcRepository.existsForDay(DAY)).thenReturn(false);
+		when(recordsJdbcRepository.insertRows(anyList(), anyInt())).thenAnswer(inv -> {
+			trace.add("rows");
+			return 1;
+		});
+		when(recordsJdbcRepository.insertAbsentees("2026-10-16", DAY)).thenAnswer(inv -> {
+			trace.add("absentees");
+			return 4;
+		});
+
+		assertEquals("Attendance CSV imported successfully for 2026-10-16", service.saveBulk(sheet()));
+
+		assertEquals(List.of("begin", "rows", "absentees", "commit"), trace);
+		verify(eventPublisher).publishEvent(new AttendanceRecordsChangedEvent(DAY));
+	}
+
+	@Test
+	void failedAbsenteeInsertRollsBackTheRowsAndPublishesNothing() {
+		when(recordsJdbcRepository.existsForDay(DAY)).thenReturn(false);
+		when(recordsJdbcRepository.insertAbsentees("2026-10-16", DAY)).thenThrow(new IllegalStateException("connection reset"));
+
+		assertThrows(IllegalStateException.class, () -> service.saveBulk(sheet()));
+
+		assertEquals(List.of("begin", "rollback"), trace);
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	void duplicateCheckRunsInsideTheTransaction() {
+		when(recordsJdbcRepository.existsForDay(DAY)).thenReturn(true);
+
+		assertEquals("CSV for this date already exists!", service.saveBulk(sheet()));
+
+		var order = inOrder(transactionTemplate, recordsJdbcRepository);
+		order.verify(transactionTemplate).execute(any());
+		order.verify(recordsJdbcRepository).existsForDay(DAY);
+		verify(recordsJdbcRepository, never()).insertRows(anyList(), anyInt());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	private static List<AttendanceCsvFile> sheet() {
+		return new ArrayList<>(List.of(AttendanceCsvFile.builder()
+				.employeeId("E1").name("Jane").date("2026-10-16").build()));
+	}
+}
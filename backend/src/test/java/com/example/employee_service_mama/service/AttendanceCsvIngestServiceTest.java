@@ -0,0 +1,194 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.CsvIngestReport;
+import com.example.employee_service_mama.model.AttendanceCsvFile;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceCsvIngestServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 10, 16);
+
+	@Mock
+	private AttendanceRecordsJdbcRepository recordsJdbcRepository;
+	@Mock
+	private UserRepository userRepository;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private AttendanceCsvIngestService service;
+
+	private final List<AttendanceCsvFile> inserted = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "batchSize", 500);
+		lenient().when(userRepository.findAllEmpids()).thenReturn(List.of("E1", "E2", "E3"));
+		lenient().when(recordsJdbcRepository.insertRows(anyList(), anyInt())).thenAnswer(inv -> {
+			List<AttendanceCsvFile> rows = inv.getArgument(0);
+			inserted.addAll(rows);
+			return rows.size();
+		});
+	}
+
+	// -------------------- RecordReader --------------------
+
+	static Stream<Arguments> records() {
+		return Stream.of(
+				Arguments.of("plain", "a,b,c\n", List.of(List.of("a", "b", "c"))),
+				Arguments.of("cells are trimmed", " a , b \n", List.of(List.of("a", "b"))),
+				Arguments.of("no trailing newline", "a,b", List.of(List.of("a", "b"))),
+				Arguments.of("CRLF", "a,b\r\nc,d\r\n", List.of(List.of("a", "b"), List.of("c", "d"))),
+				Arguments.of("bare CR", "a,b\rc,d", List.of(List.of("a", "b"), List.of("c", "d"))),
+				Arguments.of("quoted comma", "\"Doe, Jane\",x\n", List.of(List.of("Doe, Jane", "x"))),
+				Arguments.of("escaped quote", "\"say \"\"hi\"\"\",x\n", List.of(List.of("say \"hi\"", "x"))),
+				Arguments.of("empty quoted field", "\"\",x\n", List.of(List.of("", "x"))),
+				Arguments.of("newline inside quotes", "a,\"line 1\nline 2\",c\nd,e,f\n",
+						List.of(List.of("a", "line 1\nline 2", "c"), List.of("d", "e", "f"))),
+				Arguments.of("CRLF inside quotes", "a,\"line 1\r\nline 2\"\r\n",
+						List.of(List.of("a", "line 1\nline 2"))),
+				Arguments.of("empty trailing fields", "a,,\n", List.of(List.of("a", "", ""))),
+				Arguments.of("only commas", ",,\n", List.of(List.of("", "", ""))),
+				Arguments.of("blank line", "a\n\nb\n", List.of(List.of("a"), List.of(""), List.of("b"))),
+				Arguments.of("BOM before header", "\uFEFFempid,date\n", List.of(List.of("empid", "date")))
+		);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("records")
+	void readsRecords(String name, String csv, List<List<String>> expected) throws IOException {
+		AttendanceCsvIngestService.RecordReader reader = new AttendanceCsvIngestService.RecordReader(new StringReader(csv));
+
+		List<List<String>> actual = new ArrayList<>();
+		List<String> record;
+		while ((record = reader.next()) != null) {
+			actual.add(record);
+		}
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void recordLineIsWhereTheRecordStarts() throws IOException {
+		AttendanceCsvIngestService.RecordReader reader = new AttendanceCsvIngestService.RecordReader(
+				new StringReader("h1,h2\nx,\"two\nlines\"\r\ny,z\n"));
+
+		reader.next();
+		assertEquals(1, reader.recordLine());
+		reader.next();
+		assertEquals(2, reader.recordLine());
+		reader.next();
+		assertEquals(4, reader.recordLine());
+		assertNull(reader.next());
+	}
+
+	@Test
+	void unterminatedQuoteIsRejected() {
+		AttendanceCsvIngestService.RecordReader reader = new AttendanceCsvIngestService.RecordReader(
+				new StringReader("a\nb,\"never closed\nc\n"));
+
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
+			while (reader.next() != null) { }
+		});
+		assertEquals("Unterminated quoted field starting on line 2", ex.getMessage());
+	}
+
+	// -------------------- ingest --------------------
+
+	@Test
+	void multiLineRemarkStaysInItsRow() {
+		when(recordsJdbcRepository.existsForDay(DAY)).thenReturn(false);
+
+		CsvIngestReport report = service.ingest(csv("sheet.csv",
+				"\uFEFFEmp ID,Name,Date,Domain,Remarks,Status\r\n"
+						+ "E1,\"Doe, Jane\",2026-10-16,Java,\"left early\r\nmedical\",\r\n"
+						+ "\r\n"
+						+ "E2,Raj,2026-10-16,QA,,half_day\r\n"
+						+ "E9,Ghost,2026-10-16,QA,,\r\n"));
+
+		assertEquals(3, report.getTotalRows());
+		assertEquals(2, report.getImported());
+		assertEquals(1, report.getRejected());
+		assertEquals(6, report.getErrors().get(0).getLine());
+		assertEquals("Unknown empid", report.getErrors().get(0).getMessage());
+
+		assertEquals("Doe, Jane", inserted.get(0).getName());
+		assertEquals("left early\nmedical", inserted.get(0).getRemark());
+		assertEquals("PRESENT", inserted.get(0).getStatus());
+		assertEquals("", inserted.get(1).getRemark());
+		assertEquals("HALF_DAY", inserted.get(1).getStatus());
+	}
+
+	@Test
+	void xlsxByNameIsRejected() {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+				() -> service.ingest(csv("Attendance.XLSX", "empid,date\n")));
+
+		assertEquals("XLSX is not accepted here — export the sheet as CSV", ex.getMessage());
+		verifyNoInteractions(userRepository, recordsJdbcRepository);
+	}
+
+	@Test
+	void xlsxRenamedToCsvIsRejected() {
+		byte[] zip = {'P', 'K', 3, 4, 20, 0, 6, 0};
+
+		assertThrows(IllegalArgumentException.class,
+				() -> service.ingest(new MockMultipartFile("file", "sheet.csv", "text/csv", zip)));
+		verifyNoInteractions(userRepository, recordsJdbcRepository);
+	}
+
+	@Test
+	void emptyFileIsRejected() {
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+				() -> service.ingest(csv("sheet.csv", "")));
+
+		assertEquals("Sheet is empty!", ex.getMessage());
+	}
+
+	@Test
+	void existingDayStopsTheImport() {
+		when(recordsJdbcRepository.existsForDay(any())).thenReturn(true);
+
+		CsvIngestReport report = service.ingest(csv("sheet.csv", "empid,date\nE1,2026-10-16\nE2,2026-10-16\n"));
+
+		assertEquals(0, report.getImported());
+		assertEquals("CSV for this date already exists!", report.getErrors().get(0).getMessage());
+		verifyNoInteractions(eventPublisher);
+	}
+
+	private static MockMultipartFile csv(String filename, String content) {
+		return new MockMultipartFile("file", filename, "text/csv", content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceRecordsJdbcRepository.RawDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceFilterServiceTest {
+
+	@Mock
+	private AttendanceRecordsJdbcRepository recordsJdbcRepository;
+
+	@InjectMocks
+	private AttendanceFilterService service;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void backfillParsesBothFormatsAndMarksTheRest() {
+		when(recordsJdbcRepository.findUnparsedDates(anyInt())).thenReturn(List.of(
+				new RawDate(1, "2024-12-05"),
+				new RawDate(2, "12/5/2024"),
+				new RawDate(3, "2024-13-45"),   // passes a digits-only pattern, not a real date
+				new RawDate(4, "yesterday"),
+				new RawDate(5, "  ")
+		), List.of());
+
+		service.backfillRecordDates();
+
+		ArgumentCaptor<Map<Integer, LocalDate>> updates = ArgumentCaptor.forClass(Map.class);
+		verify(recordsJdbcRepository).updateRecordDates(updates.capture());
+		Map<Integer, LocalDate> byId = new HashMap<>(updates.getValue());
+		assertEquals(5, byId.size());
+		assertEquals(LocalDate.of(2024, 12, 5), byId.get(1));
+		assertEquals(LocalDate.of(2024, 12, 5), byId.get(2));
+		assertNull(byId.get(3));
+		assertNull(byId.get(4));
+		assertNull(byId.get(5));
+	}
+
+	@Test
+	void databaseErrorDoesNotAbortStartup() {
+		when(recordsJdbcRepository.findUnparsedDates(anyInt())).thenThrow(new IllegalStateException("boom"));
+
+		service.backfillRecordDates();
+
+		verify(recordsJdbcRepository, never()).updateRecordDates(any());
+	}
+}
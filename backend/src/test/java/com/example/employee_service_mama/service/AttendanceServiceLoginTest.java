@@ -0,0 +1,110 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceRepository;
+import com.example.employee_service_mama.repository.AttendanceSummaryRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement budget of the login path: every repository and the EntityManager are mocks, so each
+ * interaction is a statement the request would have issued. The event is delivered synchronously to
+ * the real AttendanceSummaryService, as fallbackExecution does when doLogin has no transaction;
+ * WalletAccrualService is @Async and never runs on the request thread.
+ */
+@ExtendWith(MockitoExtension.class)
+class AttendanceServiceLoginTest {
+
+	// a Wednesday, after login-start
+	private static final LocalDate TODAY = LocalDate.of(2026, 10, 14);
+	private static final LocalTime NOW = LocalTime.of(9, 5, 12);
+
+	@Mock
+	private AttendanceRepository attendanceRepository;
+	@Mock
+	private AttendanceJdbcRepository attendanceJdbcRepository;
+	@Mock
+	private UserRepository userRepository;
+	@Mock
+	private AttendanceSummaryRepository summaryRepository;
+	@Mock
+	private DayCalendar dayCalendar;
+	@Mock
+	private UserDirectory userDirectory;
+	@Mock
+	private HolidayCalendar holidayCalendar;
+	@Mock
+	private EntityManager entityManager;
+
+	private final Deque<Runnable> queued = new ArrayDeque<>();
+	private MockedStatic<LocalDate> dates;
+	private MockedStatic<LocalTime> times;
+	private AttendanceService service;
+
+	@BeforeEach
+	void setUp() {
+		dates = mockStatic(LocalDate.class, CALLS_REAL_METHODS);
+		dates.when(LocalDate::now).thenReturn(TODAY);
+		times = mockStatic(LocalTime.class, CALLS_REAL_METHODS);
+		times.when(LocalTime::now).thenReturn(NOW);
+
+		AttendancePolicy policy = new AttendancePolicy(
+				LocalTime.of(9, 0), LocalTime.of(9, 10), LocalTime.of(18, 0), LocalTime.of(18, 30), 5, 9);
+		AttendanceSummaryService summaryService =
+				new AttendanceSummaryService(summaryRepository, attendanceJdbcRepository, policy, queued::add);
+
+		service = new AttendanceService(attendanceRepository, attendanceJdbcRepository, userRepository, dayCalendar,
+				userDirectory, holidayCalendar, new SimpleMeterRegistry(),
+				event -> summaryService.onUserAttendanceChanged((AttendanceChangedEvent) event),
+				summaryService, entityManager, policy);
+	}
+
+	@AfterEach
+	void tearDown() {
+		times.close();
+		dates.close();
+	}
+
+	@Test
+	void successfulLoginIssuesExactlyOneStatement() {
+		when(userDirectory.find(7)).thenReturn(Optional.of(new UserDirectory.KnownUser(7, "EMP007")));
+		when(attendanceJdbcRepository.insertLogin(7, "EMP007", TODAY, NOW)).thenReturn(true);
+
+		assertEquals("Login Successful", service.login(7));
+
+		verify(attendanceJdbcRepository).insertLogin(7, "EMP007", TODAY, NOW);
+		verifyNoMoreInteractions(attendanceJdbcRepository);
+		verifyNoInteractions(attendanceRepository, userRepository, summaryRepository, entityManager);
+
+		// the summary refresh was handed to the attendance executor, not run here
+		assertEquals(1, queued.size());
+		queued.poll().run();
+		verify(attendanceJdbcRepository).refreshCycleSummary(eq(7), any(), any(), any());
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.UserRef;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceServiceSandwichTest {
+
+	@Mock
+	private AttendanceRepository attendanceRepository;
+	@Mock
+	private AttendanceJdbcRepository attendanceJdbcRepository;
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void midweekRunPicksUpAMondayMarkedAbsentAfterTheFact() {
+		// HR marked Monday 12 Oct ABSENT on Tuesday; the Wednesday night run still covers that weekend
+		LocalDate wednesday = LocalDate.of(2026, 10, 14);
+		LocalDate friday = LocalDate.of(2026, 10, 9);
+		LocalDate monday = LocalDate.of(2026, 10, 12);
+		List<UserRef> absent = List.of(mock(UserRef.class));
+		when(attendanceRepository.findUsersAbsentOnEither(friday, monday)).thenReturn(absent);
+		when(attendanceJdbcRepository.upsertStatusRows(absent, List.of(friday.plusDays(1), friday.plusDays(2)),
+				"ABSENT", "Sandwich Applied", 0)).thenReturn(2);
+
+		try (MockedStatic<LocalDate> dates = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
+			dates.when(LocalDate::now).thenReturn(wednesday);
+
+			assertEquals(2, service().sandwichPolicyFix().getWritten());
+		}
+
+		verify(eventPublisher).publishEvent(AttendanceChangedEvent.forDate(friday.plusDays(1)));
+		verify(eventPublisher).publishEvent(AttendanceChangedEvent.forDate(friday.plusDays(2)));
+	}
+
+	private AttendanceService service() {
+		AttendancePolicy policy = new AttendancePolicy(
+				LocalTime.of(9, 0), LocalTime.of(9, 10), LocalTime.of(18, 0), LocalTime.of(18, 30), 5, 9);
+		return new AttendanceService(attendanceRepository, attendanceJdbcRepository, mock(UserRepository.class),
+				mock(DayCalendar.class), mock(UserDirectory.class), mock(HolidayCalendar.class),
+				new SimpleMeterRegistry(), eventPublisher, mock(AttendanceSummaryService.class),
+				mock(EntityManager.class), policy);
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.model.AttendanceCycleSummary;
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceSummaryRepository;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import com.example.employee_service_mama.util.PayrollCycle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AttendanceSummaryServiceTest {
+
+	@Mock
+	private AttendanceSummaryRepository summaryRepository;
+	@Mock
+	private AttendanceJdbcRepository attendanceJdbcRepository;
+
+	// attendance executor stand-in: tasks run only when the test says so
+	private final Deque<Runnable> queued = new ArrayDeque<>();
+	private AttendanceSummaryService service;
+	private LocalDate cycleStart;
+
+	@BeforeEach
+	void setUp() {
+		AttendancePolicy policy = new AttendancePolicy(
+				LocalTime.of(9, 0), LocalTime.of(9, 10), LocalTime.of(18, 0), LocalTime.of(18, 30), 5, 9);
+		service = new AttendanceSummaryService(summaryRepository, attendanceJdbcRepository, policy, queued::add);
+		cycleStart = PayrollCycle.startOf(LocalDate.now());
+	}
+
+	@Test
+	void materializedRowIsReturnedAsIs() {
+		AttendanceCycleSummary row = AttendanceCycleSummary.builder().userId(7).presentDays(12).build();
+		when(summaryRepository.findByUserIdAndCycleStart(7, cycleStart)).thenReturn(Optional.of(row));
+
+		assertEquals(12, service.currentCycle(7).getPresentDays());
+		verify(attendanceJdbcRepository, never()).refreshCycleSummary(any(), any(), any(), any());
+	}
+
+	@Test
+	void missingRowIsComputedOnRead() {
+		AttendanceCycleSummary row = AttendanceCycleSummary.builder().userId(7).presentDays(3).build();
+		when(summaryRepository.findByUserIdAndCycleStart(7, cycleStart))
+				.thenReturn(Optional.empty(), Optional.of(row));
+
+		assertEquals(3, service.currentCycle(7).getPresentDays());
+		verify(attendanceJdbcRepository).refreshCycleSummary(eq(7), eq(cycleStart), any(), eq(LocalTime.of(9, 10)));
+	}
+
+	@Test
+	void nothingToCountGivesZerosInsteadOfAnError() {
+		when(summaryRepository.findByUserIdAndCycleStart(7, cycleStart)).thenReturn(Optional.empty());
+
+		AttendanceCycleSummary summary = service.currentCycle(7);
+
+		assertEquals(0, summary.getPresentDays());
+		assertEquals(0, summary.getAbsentDays());
+		assertEquals(0, summary.getHalfDays());
+		assertEquals(0, summary.getLateDays());
+		assertEquals(cycleStart, summary.getCycleStart());
+	}
+
+	@Test
+	void userChangesQueueOneRefreshAndRunNoStatementOnTheCaller() {
+		LocalDate today = LocalDate.now();
+
+		service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+		service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+		service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+
+		verifyNoInteractions(attendanceJdbcRepository, summaryRepository);
+		assertEquals(1, queued.size());
+
+		queued.poll().run();
+
+		verify(attendanceJdbcRepository).refreshCycleSummary(eq(7), eq(cycleStart), any(), eq(LocalTime.of(9, 10)));
+		assertEquals(0, queued.size());
+	}
+
+	@Test
+	void readBeforeTheQueuedRefreshRecomputesForTheCaller() {
+		AttendanceCycleSummary row = AttendanceCycleSummary.builder().userId(7).presentDays(4).build();
+		when(summaryRepository.findByUserIdAndCycleStart(7, cycleStart)).thenReturn(Optional.of(row));
+		service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, LocalDate.now()));
+
+		assertEquals(4, service.currentCycle(7).getPresentDays());
+		verify(attendanceJdbcRepository).refreshCycleSummary(eq(7), eq(cycleStart), any(), any());
+
+		// once the queued refresh has landed, reads go straight to the row
+		queued.poll().run();
+		service.currentCycle(7);
+		verify(attendanceJdbcRepository, times(2)).refreshCycleSummary(eq(7), eq(cycleStart), any(), any());
+	}
+
+	@Test
+	void changeDuringTheRefreshQueuesAnotherOne() {
+		LocalDate today = LocalDate.now();
+		when(attendanceJdbcRepository.refreshCycleSummary(eq(7), eq(cycleStart), any(), any())).thenAnswer(inv -> {
+			service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+			return 1;
+		}).thenReturn(1);
+		service.onUserAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+
+		queued.poll().run();
+		assertEquals(1, queued.size());
+
+		queued.poll().run();
+		assertEquals(0, queued.size());
+		verify(attendanceJdbcRepository, times(2)).refreshCycleSummary(eq(7), eq(cycleStart), any(), any());
+	}
+}
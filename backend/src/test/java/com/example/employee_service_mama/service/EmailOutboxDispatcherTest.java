@@ -0,0 +1,169 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.EmailOutboxJdbcRepository;
+import com.example.employee_service_mama.repository.EmailOutboxJdbcRepository.OutboxMail;
+import com.example.employee_service_mama.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.BodyPart;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmailOutboxDispatcher against a real SMTP conversation: GreenMail listens on a local port and the
+ * dispatcher sends through a plain JavaMailSenderImpl, as in production. Only the outbox tables are mocked.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	@Mock
+	private EmailOutboxJdbcRepository outboxJdbcRepository;
+	@Mock
+	private EmailOutboxRepository outboxRepository;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private EmailOutboxDispatcher dispatcher;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (dispatcher != null) {
+			dispatcher.shutdown();
+		}
+	}
+
+	@Test
+	void batchIsDeliveredOverSmtpWithTheInlineLogo() throws Exception {
+		dispatcher = dispatcher(ServerSetupTest.SMTP.getPort());
+		when(outboxJdbcRepository.claimBatch(50, 600)).thenReturn(List.of(
+				new OutboxMail(1, "asha@example.com", "Leave Approved", "<p>Approved</p><img src=\"cid:priaccLogo\">", 0),
+				new OutboxMail(2, "ravi@example.com", "Leave Rejected", "<p>Rejected</p>", 0),
+				new OutboxMail(3, "hr@example.com", "Password reset OTP", "<p>OTP 123456</p>", 2)), List.of());
+
+		dispatcher.poll();
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 3));
+		// one send(MimeMessage...) call for the batch; ids come back in message order, not claim order
+		verify(outboxJdbcRepository, timeout(5000)).markSent(argThat(ids -> ids.size() == 3 && ids.containsAll(List.of(1L, 2L, 3L))));
+		verify(outboxJdbcRepository, never()).reschedule(anyLong(), anyString(), anyInt(), any(), any());
+		assertEquals(3.0, meterRegistry.counter("email.sent").count());
+
+		MimeMessage received = received("asha@example.com");
+		assertEquals("Leave Approved", received.getSubject());
+
+		// MimeMessageHelper MIXED_RELATED: multipart/mixed → multipart/related → [html, inline logo]
+		MimeMultipart mixed = (MimeMultipart) received.getContent();
+		MimeMultipart related = (MimeMultipart) mixed.getBodyPart(0).getContent();
+		assertTrue(related.getBodyPart(0).getContent().toString().contains("<p>Approved</p>"));
+
+		BodyPart logo = related.getBodyPart(related.getCount() - 1);
+		assertEquals("<priaccLogo>", logo.getHeader("Content-ID")[0]);
+		assertEquals("base64", logo.getHeader("Content-Transfer-Encoding")[0]);
+		assertArrayEquals(new ClassPathResource("static/priacc_logo.png").getInputStream().readAllBytes(),
+				decoded(logo));
+	}
+
+	@Test
+	void unreachableServerReschedulesWithBackoff() throws Exception {
+		dispatcher = dispatcher(closedPort());
+		when(outboxJdbcRepository.claimBatch(50, 600)).thenReturn(List.of(
+				new OutboxMail(7, "asha@example.com", "Leave Approved", "<p>Approved</p>", 2)), List.of());
+
+		Instant before = Instant.now();
+		dispatcher.poll();
+
+		// third attempt → 30s << 2
+		verify(outboxJdbcRepository, timeout(5000)).reschedule(eq(7L), eq("PENDING"), eq(3),
+				argThat(next -> !next.isBefore(before.plus(Duration.ofSeconds(120)))),
+				anyString());
+		verify(outboxJdbcRepository, timeout(5000)).markSent(List.of());
+		assertEquals(1.0, meterRegistry.counter("email.retried").count());
+		assertEquals(0, greenMail.getReceivedMessages().length);
+	}
+
+	@Test
+	void lastAttemptMarksTheRowFailed() throws Exception {
+		dispatcher = dispatcher(closedPort());
+		when(outboxJdbcRepository.claimBatch(50, 600)).thenReturn(List.of(
+				new OutboxMail(9, "asha@example.com", "Leave Approved", "<p>Approved</p>", 5)), List.of());
+
+		dispatcher.poll();
+
+		verify(outboxJdbcRepository, timeout(5000)).reschedule(eq(9L), eq("FAILED"), eq(6), any(), anyString());
+		verify(outboxJdbcRepository, timeout(5000)).markSent(List.of());
+		assertEquals(1.0, meterRegistry.counter("email.failed").count());
+	}
+
+	private EmailOutboxDispatcher dispatcher(int smtpPort) {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost("127.0.0.1");
+		mailSender.setPort(smtpPort);
+		mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+
+		EmailService emailService = new EmailService(mailSender, outboxRepository);
+		emailService.loadLogo();
+
+		EmailOutboxDispatcher d = new EmailOutboxDispatcher(
+				outboxJdbcRepository, outboxRepository, emailService, mailSender, meterRegistry);
+		ReflectionTestUtils.setField(d, "enabled", true);
+		ReflectionTestUtils.setField(d, "batchSize", 50);
+		ReflectionTestUtils.setField(d, "workers", 1);
+		ReflectionTestUtils.setField(d, "maxAttempts", 6);
+		ReflectionTestUtils.setField(d, "backoffBaseSeconds", 30L);
+		ReflectionTestUtils.setField(d, "backoffMaxSeconds", 3600L);
+		ReflectionTestUtils.setField(d, "staleAfterSeconds", 600L);
+		d.init();
+		return d;
+	}
+
+	private static MimeMessage received(String to) throws Exception {
+		for (MimeMessage m : greenMail.getReceivedMessages()) {
+			if (m.getAllRecipients()[0].toString().equals(to)) return m;
+		}
+		throw new AssertionError("no mail for " + to);
+	}
+
+	private static byte[] decoded(BodyPart part) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		part.getDataHandler().writeTo(out);
+		return out.toByteArray();
+	}
+
+	private static int closedPort() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.HolidayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HolidayCalendarTest {
+
+	private static final LocalDate DIWALI = LocalDate.of(2026, 11, 9);   // Monday
+	private static final LocalDate NEW_HOLIDAY = LocalDate.of(2026, 11, 10);
+
+	@Mock
+	private HolidayRepository holidayRepository;
+
+	@InjectMocks
+	private HolidayCalendar calendar;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(calendar, "maxAgeSeconds", 60L);
+	}
+
+	@Test
+	void workingDaysSkipWeekendsAndHolidays() {
+		when(holidayRepository.findAllDates()).thenReturn(List.of(DIWALI));
+
+		assertTrue(calendar.isHoliday(DIWALI));
+		assertFalse(calendar.isWorkingDay(DIWALI));
+		// Mon 9 Nov – Sun 15 Nov: five weekdays, one of them a holiday
+		assertEquals(4, calendar.workingDaysBetween(DIWALI, DIWALI.plusDays(6)));
+		verify(holidayRepository, times(1)).findAllDates();
+	}
+
+	@Test
+	void staleSnapshotIsReloadedByOneReaderWhileOthersKeepTheOldOne() throws Exception {
+		CountDownLatch reloadStarted = new CountDownLatch(1);
+		CountDownLatch releaseReload = new CountDownLatch(1);
+		when(holidayRepository.findAllDates())
+				.thenReturn(List.of(DIWALI))
+				.thenAnswer(inv -> {
+					reloadStarted.countDown();
+					releaseReload.await(5, TimeUnit.SECONDS);
+					return List.of(DIWALI, NEW_HOLIDAY);
+				});
+
+		calendar.preload();
+		ReflectionTestUtils.setField(calendar, "maxAgeSeconds", -1L);   // every read now sees a stale snapshot
+
+		ExecutorService readers = Executors.newFixedThreadPool(8);
+		try {
+			Future<Boolean> reloader = readers.submit(() -> calendar.isHoliday(NEW_HOLIDAY));
+			assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+
+			List<Future<Boolean>> others = new ArrayList<>();
+			for (int i = 0; i < 7; i++) {
+				others.add(readers.submit(() -> calendar.isHoliday(NEW_HOLIDAY)));
+			}
+			// they finish while the reload is still blocked, answering from the old snapshot
+			for (Future<Boolean> f : others) {
+				assertFalse(f.get(5, TimeUnit.SECONDS));
+			}
+
+			releaseReload.countDown();
+			assertTrue(reloader.get(5, TimeUnit.SECONDS));
+		} finally {
+			readers.shutdownNow();
+		}
+
+		verify(holidayRepository, times(2)).findAllDates();
+	}
+
+	@Test
+	void failedAgeReloadKeepsThePreviousSnapshot() {
+		when(holidayRepository.findAllDates())
+				.thenReturn(List.of(DIWALI))
+				.thenThrow(new IllegalStateException("database unavailable"));
+
+		calendar.preload();
+		ReflectionTestUtils.setField(calendar, "maxAgeSeconds", -1L);
+
+		assertTrue(calendar.isHoliday(DIWALI));
+	}
+
+	@Test
+	void firstLoadFailurePropagates() {
+		when(holidayRepository.findAllDates()).thenThrow(new IllegalStateException("database unavailable"));
+
+		assertThrows(IllegalStateException.class, () -> calendar.isHoliday(DIWALI));
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.ApprovedLeaveRef;
+import com.example.employee_service_mama.repository.LeaveRequestsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaveIndexTest {
+
+	// Relative to today so every date sits inside the per-day count window
+	private static final LocalDate D = LocalDate.now().withDayOfMonth(1);
+
+	private final LeaveRequestsRepository repository = mock(LeaveRequestsRepository.class);
+	private final List<ApprovedLeaveRef> table = new ArrayList<>();
+	private LeaveIndex index;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.findApprovedIntervals()).thenAnswer(inv -> List.copyOf(table));
+		index = new LeaveIndex(repository, new SimpleMeterRegistry());
+		index.registerMetrics();
+		index.rebuild();
+	}
+
+	private static LocalDate d(int offset) {
+		return D.plusDays(offset);
+	}
+
+	private void approve(int leaveId, int userId, int from, int to) {
+		index.apply(leaveId, userId, "approved", d(from), d(to));
+	}
+
+	// -------- merge --------
+
+	@Test
+	void overlappingAndBackToBackLeavesMergeIntoOneSpan() {
+		approve(1, 7, 0, 4);
+		approve(2, 7, 2, 6);     // overlaps 1
+		approve(3, 7, 7, 9);     // starts the day after 2 ends
+		approve(4, 7, 11, 11);   // one-day gap → separate
+
+		assertEquals(List.of(span(0, 9), span(11, 11)), index.spansBetween(7, d(-30), d(30)));
+	}
+
+	@Test
+	void containedLeaveDoesNotShrinkTheSpan() {
+		approve(1, 7, 0, 10);
+		approve(2, 7, 3, 4);
+
+		assertEquals(List.of(span(0, 10)), index.spansBetween(7, d(-30), d(30)));
+	}
+
+	// -------- queries --------
+
+	@Test
+	void overlapsAtTheEdges() {
+		approve(1, 7, 5, 9);
+
+		assertFalse(index.overlaps(7, d(0), d(4)));
+		assertTrue(index.overlaps(7, d(0), d(5)));
+		assertTrue(index.overlaps(7, d(9), d(20)));
+		assertFalse(index.overlaps(7, d(10), d(20)));
+		assertTrue(index.overlaps(7, d(6), d(7)));
+		assertTrue(index.isOnLeave(7, d(9)));
+		assertFalse(index.isOnLeave(7, d(10)));
+		assertFalse(index.isOnLeave(8, d(5)));
+		assertFalse(index.isOnLeave(null, d(5)));
+	}
+
+	@Test
+	void spansAreClippedToTheRange() {
+		approve(1, 7, 0, 5);
+		approve(2, 7, 10, 15);
+		approve(3, 7, 20, 25);
+
+		assertEquals(List.of(span(3, 5), span(10, 12)), index.spansBetween(7, d(3), d(12)));
+		assertEquals(List.of(span(12, 12)), index.spansBetween(7, d(12), d(12)));
+		assertEquals(List.of(), index.spansBetween(7, d(16), d(19)));
+	}
+
+	// -------- counts --------
+
+	@Test
+	void countOnDateFollowsApplyAndRemove() {
+		approve(1, 7, 0, 2);
+		approve(2, 8, 1, 1);
+		approve(3, 7, 1, 3);     // same user twice on day 1 → still one user
+
+		assertEquals(1, index.countOnDate(d(0)));
+		assertEquals(2, index.countOnDate(d(1)));
+		assertEquals(1, index.countOnDate(d(3)));
+
+		index.remove(2);
+		assertEquals(1, index.countOnDate(d(1)));
+
+		index.apply(3, 7, "rejected", d(1), d(3));
+		assertEquals(0, index.countOnDate(d(3)));
+		assertEquals(1, index.countOnDate(d(2)));
+	}
+
+	@Test
+	void movingALeaveToAnotherUserMovesTheCount() {
+		approve(1, 7, 0, 2);
+		approve(1, 8, 5, 6);     // same leave id, now another user and dates
+
+		assertFalse(index.isOnLeave(7, d(1)));
+		assertTrue(index.isOnLeave(8, d(5)));
+		assertEquals(0, index.countOnDate(d(1)));
+		assertEquals(1, index.countOnDate(d(5)));
+	}
+
+	@Test
+	@Timeout(value = 2, unit = TimeUnit.SECONDS)
+	void absurdEndDateDoesNotStallTheIndex() {
+		table.add(row(2, 8, d(0), LocalDate.of(9999, 12, 31)));
+		index.rebuild();                                                  // from the table
+		index.apply(1, 7, "approved", d(0), LocalDate.of(9999, 12, 31));  // incremental
+
+		assertTrue(index.isOnLeave(7, LocalDate.of(9000, 1, 1)));
+		assertEquals(2, index.countOnDate(d(1)));                        // per-day window
+		assertEquals(2, index.countOnDate(LocalDate.of(9000, 1, 1)));    // outside it: from the intervals
+	}
+
+	@Test
+	void invalidRowsAreIgnored() {
+		table.add(row(1, 7, d(5), d(1)));     // end before start
+		table.add(row(2, null, d(1), d(2)));
+		table.add(row(3, 7, null, d(2)));
+		index.rebuild();
+
+		assertEquals(0, index.countOnDate(d(1)));
+		assertFalse(index.isOnLeave(7, d(1)));
+	}
+
+	// -------- consistency check --------
+
+	@Test
+	void checkConsistencyRebuildsOnDrift() {
+		table.add(row(1, 7, d(0), d(2)));
+		table.add(row(2, 8, d(0), d(0)));
+		index.rebuild();
+
+		assertEquals(new LeaveIndex.CheckResult(2, 2, 0, false), index.checkConsistency());
+
+		// an approval this replica never saw, and a stale one it still holds
+		table.add(row(3, 9, d(4), d(4)));
+		approve(4, 10, 6, 6);
+
+		assertEquals(new LeaveIndex.CheckResult(3, 3, 2, true), index.checkConsistency());
+		assertTrue(index.isOnLeave(9, d(4)));
+		assertFalse(index.isOnLeave(10, d(6)));
+		assertEquals(0, index.countOnDate(d(6)));
+
+		assertEquals(new LeaveIndex.CheckResult(3, 3, 0, false), index.checkConsistency());
+	}
+
+	// -------- helpers --------
+
+	private static LeaveIndex.Span span(int from, int to) {
+		return new LeaveIndex.Span(d(from), d(to));
+	}
+
+	private static ApprovedLeaveRef row(Integer id, Integer userId, LocalDate start, LocalDate end) {
+		return new ApprovedLeaveRef() {
+			public Integer getId() { return id; }
+			public Integer getUserId() { return userId; }
+			public LocalDate getStartDate() { return start; }
+			public LocalDate getEndDate() { return end; }
+		};
+	}
+}
@@ -0,0 +1,262 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.repository.AttendanceJdbcRepository;
+import com.example.employee_service_mama.repository.AttendanceRepository;
+import com.example.employee_service_mama.repository.UserRepository;
+import com.example.employee_service_mama.rules.AttendancePolicy;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.mockito.MockedStatic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * The 9:00 login burst: concurrent first logins of distinct users, the old path against login().
+ *
+ * legacy replays what the synchronized login did, under one shared monitor: the user, approved-leave,
+ * holiday and already-logged-in lookups, then the insert — the SQL Hibernate issued for it.
+ * striped is AttendanceService.login itself: per-user striped lock, in-memory user / leave / holiday
+ * checks, one INSERT ... ON CONFLICT through the real AttendanceJdbcRepository. Event listeners only
+ * queue work (AttendanceServiceLoginTest), so the publisher is a no-op for both.
+ *
+ * Every op is a new (user, day); attendance is truncated between iterations. Scale with -t.
+ * LocalDate.now is pinned to a Wednesday on each worker thread, so it runs on any day of the week.
+ *
+ * Needs PostgreSQL: a Testcontainers postgres:16-alpine by default, or an existing server via
+ * -Dbench.jdbc.url / bench.jdbc.user / bench.jdbc.password (tables live in a login_bench schema,
+ * dropped and recreated).
+ * Pool size: -Dbench.pool-size (default 32).
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="LoginThroughputBenchmark -t 16"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Threads(16)
+@Fork(1)
+public class LoginThroughputBenchmark {
+
+	private static final LocalDate WEDNESDAY = LocalDate.of(2026, 10, 14);
+	private static final int USERS = 500_000;
+
+	private static final String LEGACY_USER = """
+			SELECT id, email, full_name, role, empid, designation FROM users WHERE id = ?
+			""";
+	private static final String LEGACY_ON_LEAVE = """
+			SELECT COUNT(l.id) > 0 FROM leave_request l
+			WHERE l.user_id = ? AND l.status = 'approved' AND ? BETWEEN l.start_date AND l.end_date
+			""";
+	private static final String LEGACY_HOLIDAY = "SELECT COUNT(h.id) > 0 FROM holiday h WHERE h.date = ?";
+	private static final String LEGACY_EXISTS = "SELECT COUNT(a.id) > 0 FROM attendance a WHERE a.user_id = ? AND a.date = ?";
+	private static final String LEGACY_INSERT = """
+			INSERT INTO attendance (user_id, empid, date, login_time, status, remarks, created_at)
+			VALUES (?, ?, ?, ?, 'PRESENT', 'Login Recorded', now()) RETURNING id
+			""";
+
+	private PostgreSQLContainer<?> postgres;
+	private HikariDataSource dataSource;
+	private JdbcTemplate jdbc;
+	private AttendanceService service;
+
+	private final AttendancePolicy policy = new AttendancePolicy(
+			LocalTime.MIN, LocalTime.of(9, 10), LocalTime.of(18, 0), LocalTime.of(18, 30), 5, 9);
+	private final AtomicInteger nextUser = new AtomicInteger();
+	// stands in for the AttendanceService singleton the old login was synchronized on
+	private final Object serviceMonitor = new Object();
+
+	/** LocalDate.now is stubbed per thread by Mockito, so each worker pins it in its own setup. */
+	@State(Scope.Thread)
+	public static class PinnedDate {
+		private MockedStatic<LocalDate> dates;
+
+		@Setup
+		public void pin() {
+			dates = mockStatic(LocalDate.class, CALLS_REAL_METHODS);
+			dates.when(LocalDate::now).thenReturn(WEDNESDAY);
+		}
+
+		@TearDown
+		public void unpin() {
+			dates.close();
+		}
+	}
+
+	@Setup
+	public void setUp() {
+		dataSource = new HikariDataSource();
+		String url = System.getProperty("bench.jdbc.url");
+		if (url != null) {
+			dataSource.setJdbcUrl(url);
+			dataSource.setUsername(System.getProperty("bench.jdbc.user", "postgres"));
+			dataSource.setPassword(System.getProperty("bench.jdbc.password", ""));
+		} else {
+			postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+			postgres.start();
+			dataSource.setJdbcUrl(postgres.getJdbcUrl());
+			dataSource.setUsername(postgres.getUsername());
+			dataSource.setPassword(postgres.getPassword());
+		}
+		dataSource.setMaximumPoolSize(Integer.getInteger("bench.pool-size", 32));
+		dataSource.setConnectionInitSql("CREATE SCHEMA IF NOT EXISTS login_bench; SET search_path TO login_bench");
+		jdbc = new JdbcTemplate(dataSource);
+		seed();
+
+		// Only the attendance table is real; directory and calendars are the in-memory caches, stubbed
+		UserDirectory userDirectory = mock(UserDirectory.class, withSettings().stubOnly());
+		when(userDirectory.find(anyInt()))
+				.thenAnswer(inv -> Optional.of(new UserDirectory.KnownUser(inv.getArgument(0), "EMP" + inv.getArgument(0))));
+
+		service = new AttendanceService(
+				mock(AttendanceRepository.class, withSettings().stubOnly()),
+				new AttendanceJdbcRepository(jdbc),
+				mock(UserRepository.class, withSettings().stubOnly()),
+				mock(DayCalendar.class, withSettings().stubOnly()),
+				userDirectory,
+				mock(HolidayCalendar.class, withSettings().stubOnly()),
+				new SimpleMeterRegistry(),
+				event -> { },
+				mock(AttendanceSummaryService.class, withSettings().stubOnly()),
+				mock(EntityManager.class, withSettings().stubOnly()),
+				policy);
+	}
+
+	@Setup(Level.Iteration)
+	public void resetDay() {
+		jdbc.execute("TRUNCATE attendance");
+		nextUser.set(0);
+	}
+
+	// Every op must have been a successful first login, not a rejection that skipped the insert
+	@TearDown(Level.Iteration)
+	public void checkDay() {
+		Integer rows = jdbc.queryForObject("SELECT count(*) FROM attendance", Integer.class);
+		if (rows == null || rows != nextUser.get()) {
+			throw new IllegalStateException(nextUser.get() + " logins but " + rows + " attendance rows");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		dataSource.close();
+		if (postgres != null) {
+			postgres.stop();
+		}
+	}
+
+	@Benchmark
+	public String legacy(PinnedDate pinned) {
+		int userId = nextUserId();
+		synchronized (serviceMonitor) {
+			return legacyLogin(userId);
+		}
+	}
+
+	@Benchmark
+	public String striped(PinnedDate pinned) {
+		return service.login(nextUserId());
+	}
+
+	private int nextUserId() {
+		int n = nextUser.getAndIncrement();
+		if (n >= USERS) {
+			throw new IllegalStateException("more than " + USERS + " logins in one iteration; raise USERS");
+		}
+		return n + 1;
+	}
+
+	// AttendanceService.login before 9e02ac0, statement for statement
+	private String legacyLogin(int userId) {
+		String empid = jdbc.queryForObject(LEGACY_USER, (rs, i) -> rs.getString("empid"), userId);
+
+		LocalDate today = LocalDate.now();
+		LocalTime now = LocalTime.now().truncatedTo(ChronoUnit.SECONDS);
+		boolean onLeave = Boolean.TRUE.equals(jdbc.queryForObject(LEGACY_ON_LEAVE, Boolean.class, userId, Date.valueOf(today)));
+		if (Boolean.TRUE.equals(jdbc.queryForObject(LEGACY_HOLIDAY, Boolean.class, Date.valueOf(today)))) {
+			return "Holiday — Login not allowed";
+		}
+		if (onLeave) return "You are on approved leave today — Login not allowed";
+		if (now.isBefore(policy.loginStart())) return "Login not allowed before " + policy.loginStart();
+
+		if (Boolean.TRUE.equals(jdbc.queryForObject(LEGACY_EXISTS, Boolean.class, userId, Date.valueOf(today)))) {
+			return "Already logged in today";
+		}
+		jdbc.queryForObject(LEGACY_INSERT, Integer.class, userId, empid, Date.valueOf(today), Time.valueOf(now));
+		return "Login Successful";
+	}
+
+	// The tables both paths touch, with the keys the JPA schema has (no extra indexes)
+	private void seed() {
+		jdbc.execute("DROP TABLE IF EXISTS attendance, leave_request, holiday, users CASCADE");
+		jdbc.execute("""
+				CREATE TABLE users (
+					id integer PRIMARY KEY, email varchar(255) NOT NULL UNIQUE, full_name varchar(255),
+					role varchar(255), empid varchar(255), designation varchar(255))
+				""");
+		jdbc.execute("""
+				CREATE TABLE leave_request (
+					id serial PRIMARY KEY, user_id integer REFERENCES users (id), empid varchar(255) NOT NULL,
+					start_date date NOT NULL, end_date date NOT NULL, reason text NOT NULL, status varchar(255) NOT NULL)
+				""");
+		jdbc.execute("""
+				CREATE TABLE holiday (id serial PRIMARY KEY, date date NOT NULL, name varchar(255) NOT NULL)
+				""");
+		jdbc.execute("""
+				CREATE TABLE attendance (
+					id serial PRIMARY KEY, user_id integer NOT NULL REFERENCES users (id), empid varchar(255),
+					date date NOT NULL, login_time time, logout_time time, status varchar(255) NOT NULL,
+					remarks text, marked_by integer, created_at timestamptz NOT NULL, updated_at timestamptz,
+					CONSTRAINT uk_attendance_user_date UNIQUE (user_id, date))
+				""");
+
+		jdbc.update("""
+				INSERT INTO users (id, email, full_name, role, empid, designation)
+				SELECT g, 'emp' || g || '@example.com', 'Employee ' || g, 'developer', 'EMP' || g, 'Engineer'
+				FROM generate_series(1, ?) g
+				""", USERS);
+		// a year of leave for 2% of staff, none covering the benchmark day
+		jdbc.update("""
+				INSERT INTO leave_request (user_id, empid, start_date, end_date, reason, status)
+				SELECT g, 'EMP' || g, DATE '2025-11-03' + (g % 300), DATE '2025-11-04' + (g % 300), 'Personal',
+					   CASE WHEN g % 3 = 0 THEN 'rejected' ELSE 'approved' END
+				FROM generate_series(1, ?, 50) g
+				WHERE DATE '2025-11-04' + (g % 300) < DATE '2026-10-14'
+				""", USERS);
+		jdbc.update("""
+				INSERT INTO holiday (date, name)
+				SELECT DATE '2026-01-01' + 30 * g, 'Holiday ' || g FROM generate_series(0, 11) g
+				""");
+		jdbc.execute("ANALYZE");
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.employee_service_mama.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leave-approved mail: String.formatted over the old text block (the verbatim copy kept in
+ * MailTemplateServiceTest) against the precompiled template, for one mail and for a
+ * 500-recipient bulk send through renderAll.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="MailTemplateBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+	private static final int RECIPIENTS = 500;
+	private static final LocalDate START = LocalDate.of(2025, 12, 1);
+	private static final LocalDate END = LocalDate.of(2025, 12, 3);
+
+	private MailTemplateService service;
+	private Map<String, Object> model;
+	private List<Map<String, Object>> models;
+
+	@Setup
+	public void setUp() throws Exception {
+		service = new MailTemplateService();
+		ReflectionTestUtils.setField(service, "defaultLocaleTag", "en");
+		service.load();
+
+		model = MailTemplateServiceTest.leaveModel("Asha Rao", START, END, "Family function", "Meena Iyer");
+		models = new ArrayList<>(RECIPIENTS);
+		for (int i = 0; i < RECIPIENTS; i++) {
+			models.add(MailTemplateServiceTest.leaveModel("Employee " + i, START, END, "Family function", "Meena Iyer"));
+		}
+	}
+
+	@Benchmark
+	public String formatted() {
+		return MailTemplateServiceTest.legacyApproved("Asha Rao", START, END, "Family function", "Meena Iyer");
+	}
+
+	@Benchmark
+	public String template() {
+		return service.render("leave-approved", model);
+	}
+
+	@Benchmark
+	public List<String> formattedBulk() {
+		List<String> out = new ArrayList<>(RECIPIENTS);
+		for (Map<String, Object> m : models) {
+			out.add(MailTemplateServiceTest.legacyApproved((String) m.get("employeeName"), START, END,
+					"Family function", "Meena Iyer"));
+		}
+		return out;
+	}
+
+	@Benchmark
+	public List<String> templateBulk() {
+		return service.renderAll("leave-approved", Locale.ENGLISH, models);
+	}
+}
@@ -0,0 +1,241 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.util.MailTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailTemplateServiceTest {
+
+	private MailTemplateService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		service = new MailTemplateService();
+		ReflectionTestUtils.setField(service, "defaultLocaleTag", "en");
+		service.load();
+	}
+
+	// -------- templates vs. the string-built HTML they replaced --------
+
+	@Test
+	void leaveApprovedMatchesLegacyHtml() {
+		assertEquals(legacyApproved("Asha Rao", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 3), "Family function", "Meena Iyer"),
+				service.render("leave-approved", leaveModel("Asha Rao", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 3), "Family function", "Meena Iyer")));
+	}
+
+	@Test
+	void leaveRejectedMatchesLegacyHtml() {
+		assertEquals(legacyRejected("Asha Rao", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 3), "Trip", "Meena Iyer"),
+				service.render("leave-rejected", leaveModel("Asha Rao", LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 3), "Trip", "Meena Iyer")));
+	}
+
+	@Test
+	void passwordResetOtpMatchesLegacyHtml() {
+		assertEquals(legacyOtp("Asha Rao", "042917"),
+				service.render("password-reset-otp", Map.of("employeeName", "Asha Rao", "otp", "042917")));
+	}
+
+	@Test
+	void renderAllMatchesRenderPerModel() {
+		List<Map<String, Object>> models = List.of(
+				leaveModel("A", LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 2), "x", "HR"),
+				leaveModel("B", LocalDate.of(2025, 2, 3), LocalDate.of(2025, 2, 4), "y", "HR"));
+
+		assertEquals(List.of(service.render("leave-approved", models.get(0)), service.render("leave-approved", models.get(1))),
+				service.renderAll("leave-approved", null, models));
+	}
+
+	// -------- escaping --------
+
+	@Test
+	void userSuppliedFieldsAreEscaped() {
+		String html = service.render("leave-approved", leaveModel("<b>Asha</b>", LocalDate.of(2025, 12, 1),
+				LocalDate.of(2025, 12, 1), "<script>alert('x')</script> & \"more\"", "HR"));
+
+		assertFalse(html.contains("<script>"));
+		assertFalse(html.contains("<b>Asha</b>"));
+		assertTrue(html.contains("&lt;b&gt;Asha&lt;/b&gt;"));
+		assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;more&quot;"));
+	}
+
+	// -------- locale fallback (test-greeting*.html under src/test/resources) --------
+
+	@ParameterizedTest(name = "{0} → {1}")
+	@CsvSource({
+			"hi-IN, <p>Namaste Asha (India)</p>",
+			"hi,    <p>Namaste Asha</p>",
+			"hi-LK, <p>Namaste Asha</p>",
+			"en-IN, <p>Hello Asha</p>",
+			"fr,    <p>Hello Asha</p>",
+	})
+	void localeFallsBackToLanguageThenBase(String tag, String expected) {
+		assertEquals(expected + "\n", service.render("test-greeting", Locale.forLanguageTag(tag), Map.of("name", "Asha")));
+	}
+
+	@Test
+	void nullLocaleUsesDefault() {
+		assertEquals("<p>Hello Asha</p>\n", service.render("test-greeting", null, Map.of("name", "Asha")));
+	}
+
+	@Test
+	void unknownTemplateFails() {
+		assertThrows(IllegalArgumentException.class, () -> service.render("no-such-mail", Map.of()));
+	}
+
+	// -------- parser --------
+
+	@ParameterizedTest(name = "\"{0}\" → \"{1}\"")
+	@CsvSource(delimiter = '|', value = {
+			"Hi {{name}}!         | Hi Asha!",
+			"{{name}}{{name}}     | AshaAsha",
+			"Hi {{ name }}        | Hi Asha",
+			"Hi {{missing}}.      | Hi .",
+			"no variables         | no variables",
+			"open {{name          | open {{name",
+			"stray }} {{name}}    | stray }} Asha",
+			"{ {name} }           | { {name} }",
+	})
+	void parseAndRender(String source, String expected) {
+		StringBuilder sb = new StringBuilder();
+		MailTemplate.parse("t", source).renderTo(sb, Map.of("name", "Asha"));
+		assertEquals(expected, sb.toString());
+	}
+
+	@Test
+	void emptyVariableIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> MailTemplate.parse("t", "Hi {{ }}"));
+	}
+
+	// -------- helpers --------
+
+	static Map<String, Object> leaveModel(String employee, LocalDate start, LocalDate end, String reason, String reviewer) {
+		Map<String, Object> model = new HashMap<>();
+		model.put("employeeName", employee);
+		model.put("startDate", start);
+		model.put("endDate", end);
+		model.put("reason", reason);
+		model.put("reviewerName", reviewer);
+		return model;
+	}
+
+	// Verbatim copies of the builders the templates replaced (LeaveRequestsService / UserService); MailTemplateBenchmark uses them too
+
+	static String legacyApproved(String employee, LocalDate start, LocalDate end, String reason, String hr) {
+		return """
+<html>
+<body style='font-family: Arial, sans-serif; background:#f7f7f7; padding:20px;'>
+    <div style='background:#ffffff; border-radius:8px; padding:20px; max-width:600px; margin:auto;'>
+
+        <h2 style='color:#4B0082; margin-bottom:10px;'>Leave Request Approved</h2>
+
+        <p>Hi <strong>%s</strong>,</p>
+        <p>Great news! Your leave request has been successfully approved.</p>
+
+        <div style='background:#f8f8f8; padding:12px 16px; border-left:4px solid #4B0082; margin:18px 0;'>
+            <p style='margin:4px 0;'><strong>Leave Duration :</strong> %s to %s</p>
+            <p style='margin:4px 0;'><strong>Reason Provided:</strong> %s</p>
+            <p style='margin:4px 0;'><strong>Approved By :</strong> %s</p>
+        </div>
+
+        <p>We hope you have a restful and refreshing time during your leave.</p>
+        <p>If you have any questions, please feel free to contact the HR team.</p>
+
+        <p style='margin-top:24px;'>
+            Warm regards,<br/>
+            <strong>%s</strong><br/>
+            Human Resources<br/>
+            Priacc Innovations
+        </p>
+
+        <!-- FOOTER WITH LOGO LEFT + COPYRIGHT RIGHT -->
+        <table width='100%%' style='margin-top:30px;'>
+            <tr>
+                <td style='text-align:left;'>
+                    <img src='cid:priaccLogo' alt='Priacc Innovations' style='width:140px;' />
+                </td>
+                <td style='text-align:right; font-size:12px; color:#777;'>
+                    © Priacc Innovations — New Revolution in Software
+                </td>
+            </tr>
+        </table>
+
+    </div>
+</body>
+</html>
+""".formatted(employee, start, end, reason, hr, hr);
+	}
+
+	static String legacyRejected(String employee, LocalDate start, LocalDate end, String reason, String hr) {
+		return """
+<html>
+<body style='font-family: Arial, sans-serif; background:#f7f7f7; padding:20px;'>
+    <div style='background:#ffffff; border-radius:8px; padding:20px; max-width:600px; margin:auto;'>
+
+        <h2 style='color:#C62828; margin-bottom:10px;'>Leave Request Rejected</h2>
+
+        <p>Hi <strong>%s</strong>,</p>
+        <p>Thank you for submitting your leave request.</p>
+        <p>After review, we are unable to approve your request at this time.</p>
+
+        <div style='background:#f8f8f8; padding:12px 16px; border-left:4px solid #C62828; margin:18px 0;'>
+            <p style='margin:4px 0;'><strong>Leave Duration :</strong> %s to %s</p>
+            <p style='margin:4px 0;'><strong>Reason Provided:</strong> %s</p>
+            <p style='margin:4px 0;'><strong>Reviewed By :</strong> %s</p>
+        </div>
+
+        <p>If you have any questions, please feel free to contact the HR team.</p>
+
+        <p style='margin-top:24px;'>
+            Warm regards,<br/>
+            <strong>%s</strong><br/>
+            Human Resources<br/>
+            Priacc Innovations
+        </p>
+
+        <!-- FOOTER WITH LOGO LEFT + COPYRIGHT RIGHT -->
+        <table width='100%%' style='margin-top:30px;'>
+            <tr>
+                <td style='text-align:left;'>
+                    <img src='cid:priaccLogo' alt='Priacc Innovations' style='width:140px;' />
+                </td>
+                <td style='text-align:right; font-size:12px; color:#777;'>
+                    © Priacc Innovations — New Revolution in Software
+                </td>
+            </tr>
+        </table>
+
+    </div>
+</body>
+</html>
+""".formatted(employee, start, end, reason, hr, hr);
+	}
+
+	static String legacyOtp(String employee, String otp) {
+		return """
+        <html>
+        <body style="font-family:Arial,sans-serif;">
+            <h2>Password Reset OTP</h2>
+            <p>Hello <strong>%s</strong>,</p>
+            <p>Your OTP:</p>
+            <h1 style="letter-spacing:6px;">%s</h1>
+            <p>This OTP is valid for 10 minutes.</p>
+            <p>— TeamHub Support</p>
+        </body>
+        </html>
+        """.formatted(employee, otp);
+	}
+}
@@ -0,0 +1,205 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.SalaryOverviewDTO;
+import com.example.employee_service_mama.repository.WalletRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HR salary overview for one cycle: the old per-wallet path against the grouped query, at 1k / 10k / 50k employees.
+ *
+ * legacy replays the SQL the old getSalaryOverview issued — findAllWithUser (every cycle's salary row
+ * with its user), then countPaidDaysWeighted once per row. grouped runs the native query of
+ * {@link WalletRepository#findSalaryOverview}, read off its annotation so the shipped SQL is what gets measured.
+ * Each employee has three salary cycles and three cycles of attendance.
+ *
+ * Needs PostgreSQL: a Testcontainers postgres:16-alpine by default, or an existing server via
+ * -Dbench.jdbc.url / bench.jdbc.user / bench.jdbc.password (the schema is dropped and recreated).
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="SalaryOverview"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SalaryOverviewBenchmark {
+
+	// October 2026 cycle, as getCycleStartForMonth / getCycleEndForMonth compute it
+	private static final LocalDate START = LocalDate.of(2026, 9, 24);
+	private static final LocalDate END = LocalDate.of(2026, 10, 23);
+	private static final int TOTAL_PAYROLL_DAYS = (int) (END.toEpochDay() - START.toEpochDay() + 1);
+
+	// What Hibernate generated for WalletRepository.findAllWithUser / AttendanceRepository.countPaidDaysWeighted
+	private static final String LEGACY_WALLETS = """
+			SELECT w.id, w.empid, w.user_id, w.monthly_salary, w.daily_rate, w.current_month_earned,
+				   w.deduction, w.cycle_start, w.cycle_end, u.full_name, u.role
+			FROM salary w
+			JOIN users u ON u.id = w.user_id
+			""";
+	private static final String LEGACY_PAID_DAYS = """
+			SELECT SUM(CASE WHEN a.status = 'PRESENT' THEN 1
+							WHEN a.status = 'HALF_DAY' THEN 0.5
+							WHEN a.status = 'WEEKEND' THEN 1
+							ELSE 0 END)
+			FROM attendance a
+			WHERE a.user_id = ? AND a.date BETWEEN ? AND ?
+			""";
+
+	@Param({"1000", "10000", "50000"})
+	public int employees;
+
+	private PostgreSQLContainer<?> postgres;
+	private SingleConnectionDataSource dataSource;
+	private JdbcTemplate jdbc;
+	private NamedParameterJdbcTemplate named;
+	private String groupedSql;
+
+	@Setup
+	public void setUp() throws Exception {
+		String url = System.getProperty("bench.jdbc.url");
+		// One pooled-style connection for both paths, so connect time is not part of either score
+		if (url != null) {
+			dataSource = new SingleConnectionDataSource(url,
+					System.getProperty("bench.jdbc.user", "postgres"), System.getProperty("bench.jdbc.password", ""), true);
+		} else {
+			postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+			postgres.start();
+			dataSource = new SingleConnectionDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword(), true);
+		}
+		jdbc = new JdbcTemplate(dataSource);
+		named = new NamedParameterJdbcTemplate(jdbc);
+		groupedSql = WalletRepository.class
+				.getMethod("findSalaryOverview", LocalDate.class, LocalDate.class, int.class, int.class, int.class)
+				.getAnnotation(Query.class).value();
+
+		seed();
+
+		int rows = grouped().size();
+		if (rows != employees) {
+			throw new IllegalStateException("grouped overview returned " + rows + " rows for " + employees + " employees");
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		dataSource.destroy();
+		if (postgres != null) {
+			postgres.stop();
+		}
+	}
+
+	@Benchmark
+	public List<SalaryOverviewDTO> legacy() {
+		List<SalaryOverviewDTO> out = new ArrayList<>();
+		jdbc.query(LEGACY_WALLETS, rs -> {
+			Double paidDays = jdbc.queryForObject(LEGACY_PAID_DAYS, Double.class, rs.getInt("user_id"), START, END);
+			if (paidDays == null) paidDays = 0.0;
+
+			double deduction = rs.getDouble("deduction");
+			double earned = paidDays * rs.getDouble("daily_rate");
+			out.add(dto(rs.getString("empid"), rs.getString("full_name"), rs.getString("role"),
+					rs.getDouble("monthly_salary"), deduction, paidDays, earned, earned - deduction));
+		});
+		return out;
+	}
+
+	@Benchmark
+	public List<SalaryOverviewDTO> grouped() {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("start", START)
+				.addValue("end", END)
+				.addValue("sortMode", 0)
+				.addValue("limit", Integer.MAX_VALUE)
+				.addValue("offset", 0);
+		return named.query(groupedSql, params, (rs, i) -> dto(rs.getString("empid"), rs.getString("fullName"),
+				rs.getString("department"), rs.getDouble("monthlySalary"), rs.getDouble("deduction"),
+				rs.getDouble("paidDays"), rs.getDouble("earnedSalary"), rs.getDouble("netSalary")));
+	}
+
+	private static SalaryOverviewDTO dto(String empid, String fullName, String department, double monthlySalary,
+										 double deduction, double paidDays, double earned, double net) {
+		SalaryOverviewDTO dto = new SalaryOverviewDTO();
+		dto.setEmpid(empid);
+		dto.setFullName(fullName);
+		dto.setDepartment(department);
+		dto.setMonthlySalary(monthlySalary);
+		dto.setDeduction(deduction);
+		dto.setEarnedSalary(earned);
+		dto.setNetSalary(net);
+		dto.setPaidDays(paidDays);
+		dto.setTotalPayrollDays(TOTAL_PAYROLL_DAYS);
+		dto.setAttendanceSummary(paidDays + " / " + TOTAL_PAYROLL_DAYS);
+		return dto;
+	}
+
+	// The columns the two paths read, with the same names, keys and unique constraint as the JPA schema
+	private void seed() {
+		jdbc.execute("DROP TABLE IF EXISTS attendance, salary, users");
+		jdbc.execute("""
+				CREATE TABLE users (
+					id integer PRIMARY KEY, email varchar(255) NOT NULL UNIQUE, full_name varchar(255), role varchar(255))
+				""");
+		jdbc.execute("""
+				CREATE TABLE salary (
+					id serial PRIMARY KEY, empid varchar(255), user_id integer REFERENCES users (id),
+					monthly_salary double precision NOT NULL, daily_rate double precision,
+					current_month_earned double precision, deduction double precision,
+					cycle_start date, cycle_end date)
+				""");
+		jdbc.execute("""
+				CREATE TABLE attendance (
+					id serial PRIMARY KEY, user_id integer REFERENCES users (id), date date NOT NULL,
+					status varchar(255) NOT NULL,
+					CONSTRAINT uk_attendance_user_date UNIQUE (user_id, date))
+				""");
+
+		jdbc.update("""
+				INSERT INTO users (id, email, full_name, role)
+				SELECT g, 'emp' || g || '@example.com', 'Employee ' || g, (ARRAY['developer', 'tester', 'hr'])[1 + g % 3]
+				FROM generate_series(1, ?) g
+				""", employees);
+		jdbc.update("""
+				INSERT INTO salary (empid, user_id, monthly_salary, daily_rate, current_month_earned, deduction,
+									cycle_start, cycle_end)
+				SELECT 'EMP' || g, g, 30000, 1000, 0, CASE WHEN g % 10 = 0 THEN 500 END, c.cycle_start, c.cycle_end
+				FROM generate_series(1, ?) g
+				CROSS JOIN (VALUES (DATE '2026-07-24', DATE '2026-08-23'),
+								   (DATE '2026-08-24', DATE '2026-09-23'),
+								   (DATE '2026-09-24', NULL::date)) c (cycle_start, cycle_end)
+				""", employees);
+		jdbc.update("""
+				INSERT INTO attendance (user_id, date, status)
+				SELECT g, d::date,
+					   CASE WHEN EXTRACT(ISODOW FROM d) >= 6 THEN 'WEEKEND'
+							WHEN (g + EXTRACT(DOY FROM d)::int) % 17 = 0 THEN 'ABSENT'
+							WHEN (g + EXTRACT(DOY FROM d)::int) % 11 = 0 THEN 'HALF_DAY'
+							ELSE 'PRESENT' END
+				FROM generate_series(1, ?) g
+				CROSS JOIN generate_series(DATE '2026-07-24', DATE '2026-10-23', INTERVAL '1 day') d
+				""", employees);
+		jdbc.execute("ANALYZE");
+	}
+}
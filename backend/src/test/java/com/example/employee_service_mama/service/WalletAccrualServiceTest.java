@@ -0,0 +1,162 @@
+package com.example.employee_service_mama.service;
+
+import com.example.employee_service_mama.dto.AttendanceDayView;
+import com.example.employee_service_mama.event.AttendanceChangedEvent;
+import com.example.employee_service_mama.model.Users;
+import com.example.employee_service_mama.model.Wallet;
+import com.example.employee_service_mama.model.WalletAccrual;
+import com.example.employee_service_mama.repository.AttendanceRepository;
+import com.example.employee_service_mama.repository.WalletAccrualRepository;
+import com.example.employee_service_mama.repository.WalletRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WalletAccrualServiceTest {
+
+	private static final LocalDate LEDGER_START = LocalDate.of(2026, 10, 1);
+
+	@Mock
+	private AttendanceRepository attendanceRepository;
+	@Mock
+	private WalletRepository walletRepository;
+	@Mock
+	private WalletAccrualRepository accrualRepository;
+
+	@InjectMocks
+	private WalletAccrualService service;
+
+	@Test
+	void daysBeforeLedgerStartAreNeverCreditedAgain() {
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.of(LEDGER_START));
+
+		assertEquals(0, service.catchUp(LocalDate.of(2026, 9, 20), LocalDate.of(2026, 9, 30)));
+
+		verifyNoInteractions(attendanceRepository, walletRepository);
+	}
+
+	@Test
+	void catchUpIsClippedToLedgerStart() {
+		LocalDate to = LocalDate.of(2026, 10, 2);
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.of(LEDGER_START));
+
+		service.catchUp(LocalDate.of(2026, 9, 28), to);
+
+		verify(attendanceRepository).findDayViewsInRange(LEDGER_START, to);
+		verify(walletRepository).findCoveringForUpdate(LEDGER_START, to);
+	}
+
+	@Test
+	void emptyLedgerTreatsPastDaysAsPaidByTheOldJob() {
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.empty());
+
+		// a correction for last week, before the ledger has a single row
+		service.onAttendanceChanged(AttendanceChangedEvent.forUser(7, LocalDate.now().minusDays(7)));
+
+		verifyNoInteractions(attendanceRepository, walletRepository);
+	}
+
+	@Test
+	void correctionCreditsOnlyTheDifference() {
+		LocalDate day = LocalDate.of(2026, 10, 2);
+		Wallet wallet = wallet(5000.0);
+		WalletAccrual credited = WalletAccrual.builder()
+				.userId(7).date(day).walletId(wallet.getId()).status("PRESENT").amount(1000.0).build();
+
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.of(LEDGER_START));
+		when(attendanceRepository.findDayViewsInRangeForUser(7, day, day)).thenReturn(List.of(day(7, day, "HALF_DAY")));
+		when(walletRepository.findCoveringForUpdateByUser(7, day, day)).thenReturn(List.of(wallet));
+		when(accrualRepository.findInRangeForUser(7, day, day)).thenReturn(List.of(credited));
+
+		service.onAttendanceChanged(AttendanceChangedEvent.forUser(7, day));
+
+		assertEquals(4500.0, wallet.getCurrentMonthEarned());
+		assertEquals(500.0, credited.getAmount());
+	}
+
+	@Test
+	void replayingACreditedDayChangesNothing() {
+		LocalDate day = LocalDate.of(2026, 10, 2);
+		Wallet wallet = wallet(5000.0);
+		WalletAccrual credited = WalletAccrual.builder()
+				.userId(7).date(day).walletId(wallet.getId()).status("PRESENT").amount(1000.0).build();
+
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.of(LEDGER_START));
+		when(attendanceRepository.findDayViewsInRange(day, day)).thenReturn(List.of(day(7, day, "PRESENT")));
+		when(walletRepository.findCoveringForUpdate(day, day)).thenReturn(List.of(wallet));
+		when(accrualRepository.findInRange(day, day)).thenReturn(List.of(credited));
+
+		assertEquals(0, service.catchUp(day, day));
+		assertEquals(5000.0, wallet.getCurrentMonthEarned());
+	}
+
+	@Test
+	void eventThatWaitedOnTheLockSeesTheDayCommittedMeanwhile() {
+		LocalDate today = LocalDate.now();
+		Wallet wallet = wallet(5000.0);
+		AtomicReference<AttendanceDayView> row = new AtomicReference<>(day(7, today, "PRESENT", null));
+		AtomicReference<List<WalletAccrual>> ledger = new AtomicReference<>(List.of());
+
+		when(accrualRepository.findFirstDate()).thenReturn(Optional.of(LEDGER_START));
+		// the logout event holds the lock: by the time this login event gets it, logout has credited the day
+		when(walletRepository.findCoveringForUpdateByUser(7, today, today)).thenAnswer(inv -> {
+			row.set(day(7, today, "PRESENT", LocalTime.of(18, 0)));
+			ledger.set(List.of(WalletAccrual.builder()
+					.userId(7).date(today).walletId(wallet.getId()).status("PRESENT").amount(1000.0).build()));
+			wallet.setCurrentMonthEarned(6000.0);
+			return List.of(wallet);
+		});
+		when(attendanceRepository.findDayViewsInRangeForUser(7, today, today)).thenAnswer(inv -> List.of(row.get()));
+		when(accrualRepository.findInRangeForUser(7, today, today)).thenAnswer(inv -> ledger.get());
+
+		service.onAttendanceChanged(AttendanceChangedEvent.forUser(7, today));
+
+		assertEquals(6000.0, wallet.getCurrentMonthEarned());
+		assertEquals(1000.0, ledger.get().get(0).getAmount());
+		var order = inOrder(walletRepository, attendanceRepository, accrualRepository);
+		order.verify(walletRepository).findCoveringForUpdateByUser(7, today, today);
+		order.verify(attendanceRepository).findDayViewsInRangeForUser(7, today, today);
+		order.verify(accrualRepository).findInRangeForUser(7, today, today);
+	}
+
+	private static Wallet wallet(double earned) {
+		Users user = new Users();
+		user.setId(7);
+		return Wallet.builder()
+				.id(70)
+				.user(user)
+				.dailyRate(1000.0)
+				.currentMonthEarned(earned)
+				.cycleStart(LocalDate.of(2026, 9, 24))
+				.build();
+	}
+
+	private static AttendanceDayView day(Integer userId, LocalDate date, String status) {
+		return day(userId, date, status, LocalTime.of(18, 0));
+	}
+
+	private static AttendanceDayView day(Integer userId, LocalDate date, String status, LocalTime logout) {
+		return new AttendanceDayView() {
+			public Integer getUserId() { return userId; }
+			public LocalDate getDate() { return date; }
+			public String getStatus() { return status; }
+			public LocalTime getLoginTime() { return LocalTime.of(9, 0); }
+			public LocalTime getLogoutTime() { return logout; }
+		};
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.employee_service_mama.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token check in JwtFilter, before and after the verification cache.
+ *
+ * legacy is the old filter path: validateToken then extractEmail, each rebuilding the HMAC key and
+ * the JwtParser and verifying the signature. verifyMiss is one JwtUtil.verify on the shared parser
+ * with the cache disabled (cache-size 0) — a token's first request. verifyHit is verify on a warm
+ * cache — every later request. Requests rotate over 1000 users' "Bearer …" headers.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtUtilBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+	private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+	private static final int USERS = 1000;
+
+	private JwtUtil cached;
+	private JwtUtil uncached;
+	private String[] headers;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		cached = jwtUtil(10_000);
+		uncached = jwtUtil(0);
+
+		headers = new String[USERS];
+		for (int i = 0; i < USERS; i++) {
+			headers[i] = "Bearer " + cached.generateToken("emp" + i + "@example.com", i + 1);
+			cached.verify(headers[i]);
+		}
+		if (!legacyEmail(headers[7]).equals(uncached.verify(headers[7]).orElseThrow().email())) {
+			throw new IllegalStateException("legacy and verify disagree");
+		}
+	}
+
+	@Benchmark
+	public String legacy() {
+		String header = headers[next++ % USERS];
+		if (!legacyValidate(header)) return null;
+		return legacyEmail(header);
+	}
+
+	@Benchmark
+	public String verifyMiss() {
+		return uncached.verify(headers[next++ % USERS]).map(JwtUtil.JwtPrincipal::email).orElse(null);
+	}
+
+	@Benchmark
+	public String verifyHit() {
+		return cached.verify(headers[next++ % USERS]).map(JwtUtil.JwtPrincipal::email).orElse(null);
+	}
+
+	private static JwtUtil jwtUtil(int cacheSize) {
+		JwtUtil util = new JwtUtil();
+		ReflectionTestUtils.setField(util, "SECRET", SECRET);
+		ReflectionTestUtils.setField(util, "EXPIRATION", 3_600_000L);
+		ReflectionTestUtils.setField(util, "CACHE_SIZE", cacheSize);
+		util.init();
+		return util;
+	}
+
+	// JwtUtil.validateToken / extractEmail / extractAllClaims before the parser and key were cached
+	private static boolean legacyValidate(String token) {
+		try {
+			legacyClaims(token);
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private static String legacyEmail(String token) {
+		return legacyClaims(token).getSubject();
+	}
+
+	private static Claims legacyClaims(String token) {
+		token = token.replace("Bearer ", "");
+		Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+		return Jwts.parserBuilder()
+				.setSigningKey(key)
+				.build()
+				.parseClaimsJws(token)
+				.getBody();
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.employee_service_mama.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PayrollCycleTest {
+
+	@ParameterizedTest(name = "{0} → {1} .. {2}")
+	@CsvSource({
+			"2026-10-23, 2026-09-24, 2026-10-23",
+			"2026-10-24, 2026-10-24, 2026-11-23",
+			"2026-12-31, 2026-12-24, 2027-01-23",
+			"2027-01-01, 2026-12-24, 2027-01-23",
+			"2028-02-29, 2028-02-24, 2028-03-23"
+	})
+	void cycleContainingADay(LocalDate day, LocalDate start, LocalDate end) {
+		assertEquals(start, PayrollCycle.startOf(day));
+		assertEquals(end, PayrollCycle.endOf(day));
+	}
+
+	@ParameterizedTest(name = "{0}/{1} → {2} .. {3}")
+	@CsvSource({
+			"2026, 12, 2026-11-24, 2026-12-23",
+			"2027, 1, 2026-12-24, 2027-01-23",
+			"2028, 3, 2028-02-24, 2028-03-23"
+	})
+	void cycleNamedAfterItsEndMonth(int year, int month, LocalDate start, LocalDate end) {
+		assertEquals(start, PayrollCycle.startOfMonth(year, month));
+		assertEquals(end, PayrollCycle.endOfMonth(year, month));
+		assertEquals(start, PayrollCycle.startOf(end));
+	}
+}